@@ -3,10 +3,11 @@ package com.johndoan.helpdesk.repo;
 import com.johndoan.helpdesk.domain.Ticket;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 public final class InMemoryTicketRepository implements TicketRepository {
-    private final Map<Long, Ticket> store = new ConcurrentHashMap<>();
+    // Kept in id order, so listing is a copy of the values rather than a sort.
+    private final NavigableMap<Long, Ticket> store = new ConcurrentSkipListMap<>();
 
     @Override
     public Ticket save(Ticket ticket) {
@@ -21,13 +22,11 @@ public final class InMemoryTicketRepository implements TicketRepository {
 
     @Override
     public List<Ticket> findAll() {
-        List<Ticket> all = new ArrayList<>(store.values());
-        all.sort(Comparator.comparingLong(Ticket::getId));
-        return all;
+        return new ArrayList<>(store.values());
     }
 
     @Override
     public void deleteById(long id) {
         store.remove(id);
     }
-}
\ No newline at end of file
+}
@@ -3,7 +3,9 @@ package com.johndoan.helpdesk.api;
 import com.johndoan.helpdesk.api.dto.CreateTicketRequest;
 import com.johndoan.helpdesk.api.dto.TicketResponse;
 import com.johndoan.helpdesk.api.dto.UpdateTicketRequest;
+import com.johndoan.helpdesk.domain.Priority;
 import com.johndoan.helpdesk.domain.Ticket;
+import com.johndoan.helpdesk.domain.TicketStatus;
 import com.johndoan.helpdesk.service.TicketService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -25,8 +27,9 @@ public class TicketController {
     }
 
     @GetMapping
-    public List<TicketResponse> getAll() {
-        return ticketService.getAllTickets().stream()
+    public List<TicketResponse> getAll(@RequestParam(required = false) TicketStatus status,
+                                       @RequestParam(required = false) Priority priority) {
+        return ticketService.findTickets(status, priority).stream()
                 .map(ticketMapper::toResponse)
                 .toList();
     }
@@ -0,0 +1,25 @@
+package com.johndoan.helpdesk.config;
+
+import com.johndoan.helpdesk.domain.Ticket;
+import com.johndoan.helpdesk.repo.TicketRepository;
+import com.johndoan.helpdesk.service.SequentialTicketIdGenerator;
+import com.johndoan.helpdesk.service.TicketIdGenerator;
+import com.johndoan.helpdesk.service.TimeOrderedTicketIdGenerator;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(IdGeneratorProperties.class)
+public class IdGeneratorConfig {
+
+    // Both strategies start above the highest id recovered from the journal.
+    @Bean
+    public TicketIdGenerator ticketIdGenerator(IdGeneratorProperties ids, TicketRepository ticketRepository) {
+        long highestId = ticketRepository.stream().mapToLong(Ticket::getId).max().orElse(0);
+        return switch (ids.strategy()) {
+            case SEQUENTIAL -> new SequentialTicketIdGenerator(highestId);
+            case TIME_ORDERED -> new TimeOrderedTicketIdGenerator(ids.node(), highestId);
+        };
+    }
+}
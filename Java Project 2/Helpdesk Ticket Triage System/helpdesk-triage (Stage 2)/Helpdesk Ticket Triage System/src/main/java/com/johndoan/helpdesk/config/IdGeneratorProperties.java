@@ -0,0 +1,16 @@
+package com.johndoan.helpdesk.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * helpdesk.ids.* settings. {@code node} must be different on every instance that shares
+ * the same tickets when {@code strategy} is {@code time-ordered}.
+ */
+@ConfigurationProperties("helpdesk.ids")
+public record IdGeneratorProperties(
+        @DefaultValue("time-ordered") Strategy strategy,
+        @DefaultValue("0") int node) {
+
+    public enum Strategy { SEQUENTIAL, TIME_ORDERED }
+}
@@ -0,0 +1,21 @@
+package com.johndoan.helpdesk.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+/**
+ * helpdesk.journal.* settings. With {@code enabled: false} tickets live in memory only,
+ * as before.
+ */
+@ConfigurationProperties("helpdesk.journal")
+public record JournalProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("./data/journal") Path directory,
+        @DefaultValue("64MB") DataSize segmentSize,
+        // false trades durability on power loss for throughput (OS crash-safe only)
+        @DefaultValue("true") boolean fsync,
+        @DefaultValue("100000") long snapshotEvery) {
+}
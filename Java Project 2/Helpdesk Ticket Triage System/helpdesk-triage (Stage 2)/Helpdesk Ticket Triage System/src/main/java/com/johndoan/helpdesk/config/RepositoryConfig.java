@@ -0,0 +1,28 @@
+package com.johndoan.helpdesk.config;
+
+import com.johndoan.helpdesk.repo.InMemoryTicketRepository;
+import com.johndoan.helpdesk.repo.JournaledTicketRepository;
+import com.johndoan.helpdesk.repo.TicketRepository;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+
+@Configuration
+@EnableConfigurationProperties(JournalProperties.class)
+public class RepositoryConfig {
+
+    // The journaled repository is AutoCloseable, so Spring closes it (final snapshot) on shutdown.
+    @Bean
+    public TicketRepository ticketRepository(JournalProperties journal) throws IOException {
+        if (!journal.enabled()) {
+            return new InMemoryTicketRepository();
+        }
+        return JournaledTicketRepository.open(
+                journal.directory(),
+                journal.segmentSize().toBytes(),
+                journal.fsync(),
+                journal.snapshotEvery());
+    }
+}
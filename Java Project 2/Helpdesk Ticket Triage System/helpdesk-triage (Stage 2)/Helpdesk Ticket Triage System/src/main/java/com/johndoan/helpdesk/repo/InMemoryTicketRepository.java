@@ -1,36 +1,183 @@
 package com.johndoan.helpdesk.repo;
 
+import com.johndoan.helpdesk.domain.Priority;
 import com.johndoan.helpdesk.domain.Ticket;
-import org.springframework.stereotype.Repository;
+import com.johndoan.helpdesk.domain.TicketStatus;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
 
-@Repository
+/**
+ * In-memory store with an id-ordered view and secondary indexes by status and priority.
+ *
+ * Lookups by id go to a hash map; everything that lists tickets walks a concurrent skip
+ * list that is already in id order, so there is no copy-and-sort per request and a
+ * stream can stop after the first page. Reads never lock and iteration is weakly
+ * consistent (never throws, may or may not see writes that happen mid-walk). Writes to
+ * the same id are serialized by one of {@value #STRIPES} striped locks so all the maps
+ * move together; writes to different ids run in parallel.
+ */
 public class InMemoryTicketRepository implements TicketRepository {
 
-    private final ConcurrentHashMap<Long, Ticket> store = new ConcurrentHashMap<>();
+    private static final int STRIPES = 64; // power of two
+
+    // Tickets are mutable and the service changes them before calling save(), so each
+    // entry also remembers where the ticket was last indexed.
+    private final ConcurrentHashMap<Long, Entry> byId = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, Ticket> ordered = new ConcurrentSkipListMap<>();
+    private final Map<TicketStatus, ConcurrentSkipListMap<Long, Ticket>> byStatus = new EnumMap<>(TicketStatus.class);
+    private final Map<Priority, ConcurrentSkipListMap<Long, Ticket>> byPriority = new EnumMap<>(Priority.class);
+    // Skip list size() walks the whole list, so each index also keeps a count.
+    private final Map<TicketStatus, AtomicInteger> statusCounts = new EnumMap<>(TicketStatus.class);
+    private final Map<Priority, AtomicInteger> priorityCounts = new EnumMap<>(Priority.class);
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    public InMemoryTicketRepository() {
+        for (TicketStatus status : TicketStatus.values()) {
+            byStatus.put(status, new ConcurrentSkipListMap<>());
+            statusCounts.put(status, new AtomicInteger());
+        }
+        for (Priority priority : Priority.values()) {
+            byPriority.put(priority, new ConcurrentSkipListMap<>());
+            priorityCounts.put(priority, new AtomicInteger());
+        }
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
 
     @Override
     public Ticket save(Ticket ticket) {
-        store.put(ticket.getId(), ticket);
+        long id = ticket.getId();
+        Entry entry = new Entry(ticket, ticket.getStatus(), ticket.getPriority());
+        ReentrantLock lock = lockFor(id);
+        lock.lock();
+        try {
+            Entry previous = byId.put(id, entry);
+            // The usual update saves the instance that is already stored: only the
+            // buckets that changed need touching.
+            boolean sameInstance = previous != null && previous.ticket() == ticket;
+            if (!sameInstance) {
+                ordered.put(id, ticket);
+            }
+            if (previous != null && previous.status() != entry.status()) {
+                byStatus.get(previous.status()).remove(id);
+                byStatus.get(entry.status()).put(id, ticket);
+            } else if (!sameInstance) {
+                byStatus.get(entry.status()).put(id, ticket);
+            }
+            if (previous != null && previous.priority() != entry.priority()) {
+                byPriority.get(previous.priority()).remove(id);
+                byPriority.get(entry.priority()).put(id, ticket);
+            } else if (!sameInstance) {
+                byPriority.get(entry.priority()).put(id, ticket);
+            }
+            if (previous == null) {
+                statusCounts.get(entry.status()).incrementAndGet();
+                priorityCounts.get(entry.priority()).incrementAndGet();
+            } else {
+                move(statusCounts, previous.status(), entry.status());
+                move(priorityCounts, previous.priority(), entry.priority());
+            }
+        } finally {
+            lock.unlock();
+        }
         return ticket;
     }
 
     @Override
     public Optional<Ticket> findById(long id) {
-        return Optional.ofNullable(store.get(id));
+        Entry entry = byId.get(id);
+        return entry == null ? Optional.empty() : Optional.of(entry.ticket());
     }
 
     @Override
     public List<Ticket> findAll() {
-        return new ArrayList<>(store.values());
+        return new ArrayList<>(ordered.values());
     }
 
     @Override
     public void deleteById(long id) {
-        store.remove(id);
+        ReentrantLock lock = lockFor(id);
+        lock.lock();
+        try {
+            Entry previous = byId.remove(id);
+            ordered.remove(id);
+            if (previous != null) {
+                byStatus.get(previous.status()).remove(id);
+                byPriority.get(previous.priority()).remove(id);
+                statusCounts.get(previous.status()).decrementAndGet();
+                priorityCounts.get(previous.priority()).decrementAndGet();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The filter drops tickets whose status was changed in place but not saved yet.
+    @Override
+    public List<Ticket> findByStatus(TicketStatus status) {
+        return byStatus.get(status).values().stream()
+                .filter(t -> t.getStatus() == status)
+                .toList();
+    }
+
+    @Override
+    public List<Ticket> findByPriority(Priority priority) {
+        return byPriority.get(priority).values().stream()
+                .filter(t -> t.getPriority() == priority)
+                .toList();
+    }
+
+    @Override
+    public long countByStatus(TicketStatus status) {
+        return statusCounts.get(status).get();
+    }
+
+    @Override
+    public long countByPriority(Priority priority) {
+        return priorityCounts.get(priority).get();
+    }
+
+    @Override
+    public Stream<Ticket> stream() {
+        return ordered.values().stream();
+    }
+
+    @Override
+    public long count() {
+        return byId.size();
+    }
+
+    // Raw index sizes, for consistency checks in tests.
+    int statusIndexSize(TicketStatus status) {
+        return byStatus.get(status).size();
+    }
+
+    int priorityIndexSize(Priority priority) {
+        return byPriority.get(priority).size();
+    }
+
+    private static <K> void move(Map<K, AtomicInteger> counts, K from, K to) {
+        if (from != to) {
+            counts.get(from).decrementAndGet();
+            counts.get(to).incrementAndGet();
+        }
+    }
+
+    private ReentrantLock lockFor(long id) {
+        long h = id * 0x9E3779B97F4A7C15L; // spread sequential ids across stripes
+        return locks[Long.hashCode(h) & (STRIPES - 1)];
+    }
+
+    private record Entry(Ticket ticket, TicketStatus status, Priority priority) {
     }
-}
\ No newline at end of file
+}
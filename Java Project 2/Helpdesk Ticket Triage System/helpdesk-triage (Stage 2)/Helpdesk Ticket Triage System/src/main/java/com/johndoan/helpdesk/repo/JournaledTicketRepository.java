@@ -0,0 +1,182 @@
+package com.johndoan.helpdesk.repo;
+
+import com.johndoan.helpdesk.domain.Priority;
+import com.johndoan.helpdesk.domain.Ticket;
+import com.johndoan.helpdesk.domain.TicketStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Makes {@link InMemoryTicketRepository} durable: every save/delete is appended to a
+ * {@link TicketJournal}, applied in memory once the journal has flushed it, and then the
+ * call returns. Reads are served from memory only, so they never see a write that could
+ * still be lost, and a write that fails leaves memory as it was.
+ *
+ * Tickets are mutable and the service changes them before calling save, so memory never
+ * shares an instance with a caller: save journals a copy and swaps that copy in once it
+ * is written, and every read returns copies.
+ *
+ * Memory is updated by the journal's writer thread, in journal order, so concurrent
+ * writes to one ticket end up in the same order in both without any locking here.
+ *
+ * On startup the in-memory state is rebuilt from the newest snapshot plus the segments
+ * written after it. A new snapshot is taken in the background every
+ * {@code snapshotEvery} writes (and on close), which keeps restart time bounded.
+ */
+public class JournaledTicketRepository implements TicketRepository, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(JournaledTicketRepository.class);
+
+    private final InMemoryTicketRepository memory;
+    private final TicketJournal journal;
+    private final long snapshotEvery;
+    private final AtomicLong writesSinceSnapshot = new AtomicLong();
+    private final AtomicBoolean snapshotRunning = new AtomicBoolean();
+    private final ExecutorService snapshotter = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "ticket-journal-snapshot");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private JournaledTicketRepository(InMemoryTicketRepository memory, TicketJournal journal, long snapshotEvery) {
+        this.memory = memory;
+        this.journal = journal;
+        this.snapshotEvery = snapshotEvery;
+    }
+
+    public static JournaledTicketRepository open(Path directory, long segmentBytes, boolean fsync,
+                                                 long snapshotEvery) throws IOException {
+        InMemoryTicketRepository memory = new InMemoryTicketRepository();
+        long start = System.nanoTime();
+        TicketJournal journal = TicketJournal.open(directory, segmentBytes, fsync,
+                record -> TicketJournalCodec.apply(record, memory));
+        log.info("Recovered {} tickets from {} in {} ms", memory.count(), directory.toAbsolutePath(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return new JournaledTicketRepository(memory, journal, snapshotEvery);
+    }
+
+    @Override
+    public Ticket save(Ticket ticket) {
+        Ticket stored = copy(ticket);
+        // Concurrent writers waiting here end up in the same group commit.
+        awaitDurable(journal.append(TicketJournalCodec.save(stored), () -> memory.save(stored)));
+        return ticket;
+    }
+
+    @Override
+    public void deleteById(long id) {
+        awaitDurable(journal.append(TicketJournalCodec.delete(id), () -> memory.deleteById(id)));
+    }
+
+    @Override
+    public Optional<Ticket> findById(long id) {
+        return memory.findById(id).map(JournaledTicketRepository::copy);
+    }
+
+    @Override
+    public List<Ticket> findAll() {
+        return copies(memory.findAll());
+    }
+
+    @Override
+    public List<Ticket> findByStatus(TicketStatus status) {
+        return copies(memory.findByStatus(status));
+    }
+
+    @Override
+    public List<Ticket> findByPriority(Priority priority) {
+        return copies(memory.findByPriority(priority));
+    }
+
+    @Override
+    public long countByStatus(TicketStatus status) {
+        return memory.countByStatus(status);
+    }
+
+    @Override
+    public long countByPriority(Priority priority) {
+        return memory.countByPriority(priority);
+    }
+
+    @Override
+    public Stream<Ticket> stream() {
+        return memory.stream().map(JournaledTicketRepository::copy);
+    }
+
+    @Override
+    public long count() {
+        return memory.count();
+    }
+
+    /**
+     * Rolls the journal to a new segment and writes the current state as a snapshot for
+     * it. Every record in the earlier segments is already in memory by the time the roll
+     * returns. Writes keep flowing meanwhile: anything the walk over memory picks up from
+     * the new segment is replayed again on recovery, which is harmless because records
+     * are whole-ticket upserts and deletes.
+     */
+    public void snapshot() throws IOException {
+        long segment = journal.roll();
+        journal.writeSnapshot(segment, memory.stream().map(TicketJournalCodec::save));
+        writesSinceSnapshot.set(0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        snapshotter.shutdown();
+        try {
+            snapshotter.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            snapshot();
+        } finally {
+            journal.close();
+        }
+    }
+
+    private static List<Ticket> copies(List<Ticket> tickets) {
+        return tickets.stream().map(JournaledTicketRepository::copy).toList();
+    }
+
+    private static Ticket copy(Ticket ticket) {
+        return new Ticket(ticket.getId(), ticket.getTitle(), ticket.getDescription(), ticket.getPriority(),
+                ticket.getStatus());
+    }
+
+    private void awaitDurable(CompletableFuture<Void> written) {
+        try {
+            written.join();
+        } catch (CompletionException ex) {
+            throw new UncheckedIOException("Could not write ticket journal",
+                    ex.getCause() instanceof IOException io ? io : new IOException(ex.getCause()));
+        }
+        if (writesSinceSnapshot.incrementAndGet() >= snapshotEvery && !snapshotter.isShutdown()
+                && snapshotRunning.compareAndSet(false, true)) {
+            snapshotter.execute(() -> {
+                try {
+                    snapshot();
+                } catch (IOException | RuntimeException ex) {
+                    log.warn("Journal snapshot failed; will retry on the next write", ex);
+                } finally {
+                    snapshotRunning.set(false);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package com.johndoan.helpdesk.repo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only binary log split into numbered segment files, plus snapshots.
+ *
+ * Every record is framed as {@code [int length][int crc32c][payload]}. Appends are
+ * handed to a single writer thread which writes whatever has queued up and then calls
+ * {@code fsync} once for the whole batch (group commit): under load many writers share
+ * one disk flush. A snapshot {@code snapshot-N.bin} holds the full state as of the start
+ * of segment N, so recovery is "load the newest snapshot, replay segments >= N" and
+ * everything older can be deleted.
+ */
+final class TicketJournal implements AutoCloseable {
+
+    private static final Pattern SEGMENT = Pattern.compile("segment-(\\d+)\\.log");
+    private static final Pattern SNAPSHOT = Pattern.compile("snapshot-(\\d+)\\.bin");
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_BATCH = 4096;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final boolean fsync;
+    private final BlockingQueue<Command> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+
+    // Owned by the writer thread once it has started.
+    private long segmentIndex;
+    private FileChannel segment;
+    private long segmentSize;
+    private final List<Command> uncommitted = new ArrayList<>();
+
+    private volatile boolean closed;
+    // After a failed write the segment may end in a torn record; appending past it would
+    // hide good records behind it, so the journal refuses further writes.
+    private volatile Throwable failure;
+
+    private TicketJournal(Path directory, long segmentBytes, boolean fsync, long nextSegment) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.fsync = fsync;
+        openSegment(nextSegment);
+        this.writer = new Thread(this::writeLoop, "ticket-journal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Replays the newest snapshot and every later segment into {@code replay}, then opens
+     * a fresh segment for new appends. A partially written record at the end of the last
+     * segment (crash mid-write) is cut off; damage anywhere else is an error, and the
+     * damaged file is left exactly as it was (older segments are gone once a snapshot is
+     * written, so it may be the only copy).
+     */
+    static TicketJournal open(Path directory, long segmentBytes, boolean fsync,
+                              Consumer<ByteBuffer> replay) throws IOException {
+        Files.createDirectories(directory);
+        long snapshot = newest(directory, SNAPSHOT);
+        if (snapshot > 0) {
+            if (!readRecords(snapshotPath(directory, snapshot), replay, false)) {
+                throw new IOException("Corrupt snapshot " + snapshotPath(directory, snapshot));
+            }
+        }
+
+        List<Long> segments = indexes(directory, SEGMENT);
+        long last = 0;
+        for (Iterator<Long> it = segments.iterator(); it.hasNext(); ) {
+            long index = it.next();
+            if (index < snapshot) {
+                Files.deleteIfExists(segmentPath(directory, index)); // left over from an interrupted cleanup
+                continue;
+            }
+            boolean lastSegment = !it.hasNext();
+            boolean clean = readRecords(segmentPath(directory, index), replay, lastSegment);
+            if (!clean && !lastSegment) {
+                throw new IOException("Corrupt journal segment " + segmentPath(directory, index));
+            }
+            last = index;
+        }
+        return new TicketJournal(directory, segmentBytes, fsync, Math.max(last, snapshot) + 1);
+    }
+
+    /**
+     * Completes once the record is on disk (or written, when fsync is off). Just before
+     * that, {@code onWritten} runs on the writer thread: callbacks run one at a time in
+     * journal order, and never for a record that failed to write.
+     */
+    CompletableFuture<Void> append(byte[] payload, Runnable onWritten) {
+        Command command = new Command(payload, onWritten, new CompletableFuture<>());
+        enqueue(command);
+        return command.done().thenApply(index -> null);
+    }
+
+    /**
+     * Starts a new segment and returns its index. Every append queued before this call
+     * lands in an earlier segment.
+     */
+    long roll() {
+        Command command = new Command(Command.ROLL, null, new CompletableFuture<>());
+        enqueue(command);
+        return command.done().join();
+    }
+
+    /**
+     * Writes the full state as a snapshot covering every segment before {@code segmentIndex},
+     * then deletes those segments and older snapshots.
+     */
+    void writeSnapshot(long segmentIndex, Stream<byte[]> records) throws IOException {
+        Path target = snapshotPath(directory, segmentIndex);
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer snapshotBuffer = ByteBuffer.allocate(1 << 20);
+            for (Iterator<byte[]> it = records.iterator(); it.hasNext(); ) {
+                writeFramed(out, snapshotBuffer, it.next());
+            }
+            drain(out, snapshotBuffer);
+            out.force(true);
+        }
+        Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        for (long index : indexes(directory, SEGMENT)) {
+            if (index < segmentIndex) {
+                Files.deleteIfExists(segmentPath(directory, index));
+            }
+        }
+        for (long index : indexes(directory, SNAPSHOT)) {
+            if (index < segmentIndex) {
+                Files.deleteIfExists(snapshotPath(directory, index));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        queue.add(Command.CLOSE_SIGNAL);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        segment.close();
+    }
+
+    private void enqueue(Command command) {
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+        if (failure != null) {
+            throw refused();
+        }
+        queue.add(command);
+    }
+
+    private IllegalStateException refused() {
+        return new IllegalStateException("Journal failed on an earlier write", failure);
+    }
+
+    private void writeLoop() {
+        List<Command> batch = new ArrayList<>();
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                continue; // only CLOSE_SIGNAL stops the writer
+            }
+            queue.drainTo(batch, MAX_BATCH);
+            boolean stop = false;
+            try {
+                for (Command command : batch) {
+                    if (command == Command.CLOSE_SIGNAL) {
+                        stop = true;
+                    } else if (failure != null) {
+                        // Queued before the failure was seen: refused like any later append.
+                        command.done().completeExceptionally(refused());
+                    } else if (command.payload() == Command.ROLL) {
+                        commit();
+                        openSegment(segmentIndex + 1);
+                        command.done().complete(segmentIndex);
+                    } else {
+                        writeFramed(segment, buffer, command.payload());
+                        segmentSize += HEADER_BYTES + command.payload().length;
+                        uncommitted.add(command);
+                        if (segmentSize >= segmentBytes) {
+                            commit();
+                            openSegment(segmentIndex + 1);
+                        }
+                    }
+                }
+                commit();
+            } catch (Throwable ex) {
+                failure = ex;
+                buffer.clear();
+                for (Command command : uncommitted) {
+                    command.done().completeExceptionally(ex);
+                }
+                uncommitted.clear();
+                for (Command command : batch) {
+                    stop |= command == Command.CLOSE_SIGNAL;
+                    command.done().completeExceptionally(ex); // no-op for already completed ones
+                }
+            }
+            batch.clear();
+            if (stop) {
+                return;
+            }
+        }
+    }
+
+    private void commit() throws IOException {
+        if (uncommitted.isEmpty()) {
+            return;
+        }
+        drain(segment, buffer);
+        if (fsync) {
+            segment.force(false);
+        }
+        for (Command command : uncommitted) {
+            command.onWritten().run();
+            command.done().complete(segmentIndex);
+        }
+        uncommitted.clear();
+    }
+
+    private void openSegment(long index) throws IOException {
+        if (segment != null) {
+            segment.close();
+        }
+        segmentIndex = index;
+        segment = FileChannel.open(segmentPath(directory, index),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        segmentSize = 0;
+    }
+
+    private static void writeFramed(FileChannel out, ByteBuffer buf, byte[] payload) throws IOException {
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        if (buf.remaining() < HEADER_BYTES + payload.length) {
+            drain(out, buf);
+        }
+        if (buf.remaining() < HEADER_BYTES + payload.length) {
+            ByteBuffer large = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+            large.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+            while (large.hasRemaining()) {
+                out.write(large);
+            }
+            return;
+        }
+        buf.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+    }
+
+    private static void drain(FileChannel out, ByteBuffer buf) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) {
+            out.write(buf);
+        }
+        buf.clear();
+    }
+
+    /**
+     * Feeds every intact record to {@code consumer}. Returns false if the file ends in a
+     * torn or corrupt record; with {@code cutTornTail} the file is then truncated to its
+     * last good record, otherwise it is only read.
+     */
+    private static boolean readRecords(Path file, Consumer<ByteBuffer> consumer, boolean cutTornTail)
+            throws IOException {
+        try (FileChannel in = cutTornTail
+                ? FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = in.size();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            long position = 0;
+            while (position < size) {
+                header.clear();
+                if (in.read(header, position) < HEADER_BYTES) {
+                    break;
+                }
+                header.flip();
+                int length = header.getInt();
+                int checksum = header.getInt();
+                if (length < 0 || position + HEADER_BYTES + length > size) {
+                    break;
+                }
+                ByteBuffer payload = ByteBuffer.allocate(length);
+                while (payload.hasRemaining()) {
+                    in.read(payload, position + HEADER_BYTES + payload.position());
+                }
+                CRC32C crc = new CRC32C();
+                crc.update(payload.array());
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                consumer.accept(payload.flip());
+                position += HEADER_BYTES + length;
+            }
+            if (position < size) {
+                if (cutTornTail) {
+                    in.truncate(position);
+                }
+                return false;
+            }
+            return true;
+        }
+    }
+
+    private static long newest(Path directory, Pattern pattern) throws IOException {
+        List<Long> all = indexes(directory, pattern);
+        return all.isEmpty() ? 0 : all.get(all.size() - 1);
+    }
+
+    private static List<Long> indexes(Path directory, Pattern pattern) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(p -> pattern.matcher(p.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(m -> Long.parseLong(m.group(1)))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static Path segmentPath(Path directory, long index) {
+        return directory.resolve(String.format("segment-%020d.log", index));
+    }
+
+    private static Path snapshotPath(Path directory, long index) {
+        return directory.resolve(String.format("snapshot-%020d.bin", index));
+    }
+
+    private record Command(byte[] payload, Runnable onWritten, CompletableFuture<Long> done) {
+        static final byte[] ROLL = new byte[0];
+        static final Command CLOSE_SIGNAL = new Command(null, null, new CompletableFuture<>());
+    }
+}
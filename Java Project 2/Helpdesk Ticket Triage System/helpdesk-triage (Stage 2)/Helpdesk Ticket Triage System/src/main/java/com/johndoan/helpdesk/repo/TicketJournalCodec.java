@@ -0,0 +1,66 @@
+package com.johndoan.helpdesk.repo;
+
+import com.johndoan.helpdesk.domain.Priority;
+import com.johndoan.helpdesk.domain.Ticket;
+import com.johndoan.helpdesk.domain.TicketStatus;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary form of journal records. A save carries the whole ticket, so replaying the
+ * same record twice is harmless.
+ *
+ * <pre>
+ * SAVE:   [byte 1][long id][byte priority][byte status][int len][title utf-8][int len][description utf-8]
+ * DELETE: [byte 2][long id]
+ * </pre>
+ * Enums are stored by ordinal: only append new constants at the end.
+ */
+final class TicketJournalCodec {
+
+    private static final byte SAVE = 1;
+    private static final byte DELETE = 2;
+
+    private TicketJournalCodec() {
+    }
+
+    static byte[] save(Ticket ticket) {
+        byte[] title = ticket.getTitle().getBytes(StandardCharsets.UTF_8);
+        byte[] description = ticket.getDescription().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buf = ByteBuffer.allocate(1 + 8 + 1 + 1 + 4 + title.length + 4 + description.length);
+        buf.put(SAVE)
+                .putLong(ticket.getId())
+                .put((byte) ticket.getPriority().ordinal())
+                .put((byte) ticket.getStatus().ordinal())
+                .putInt(title.length).put(title)
+                .putInt(description.length).put(description);
+        return buf.array();
+    }
+
+    static byte[] delete(long id) {
+        return ByteBuffer.allocate(1 + 8).put(DELETE).putLong(id).array();
+    }
+
+    static void apply(ByteBuffer record, TicketRepository target) {
+        byte type = record.get();
+        long id = record.getLong();
+        switch (type) {
+            case SAVE -> {
+                Priority priority = Priority.values()[record.get()];
+                TicketStatus status = TicketStatus.values()[record.get()];
+                String title = string(record);
+                String description = string(record);
+                target.save(new Ticket(id, title, description, priority, status));
+            }
+            case DELETE -> target.deleteById(id);
+            default -> throw new IllegalStateException("Unknown journal record type " + type);
+        }
+    }
+
+    private static String string(ByteBuffer record) {
+        byte[] bytes = new byte[record.getInt()];
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
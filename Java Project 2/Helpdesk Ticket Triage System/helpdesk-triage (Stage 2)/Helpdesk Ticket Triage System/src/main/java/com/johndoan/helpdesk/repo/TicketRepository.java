@@ -1,13 +1,26 @@
 package com.johndoan.helpdesk.repo;
 
+import com.johndoan.helpdesk.domain.Priority;
 import com.johndoan.helpdesk.domain.Ticket;
+import com.johndoan.helpdesk.domain.TicketStatus;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface TicketRepository {
     Ticket save(Ticket ticket);
     Optional<Ticket> findById(long id);
     List<Ticket> findAll();
     void deleteById(long id);
-}
\ No newline at end of file
+
+    // Ordered by id
+    List<Ticket> findByStatus(TicketStatus status);
+    List<Ticket> findByPriority(Priority priority);
+    long countByStatus(TicketStatus status);
+    long countByPriority(Priority priority);
+
+    // Lazy view ordered by id; nothing is copied up front
+    Stream<Ticket> stream();
+    long count();
+}
@@ -0,0 +1,21 @@
+package com.johndoan.helpdesk.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 1, 2, 3, ... continuing after the highest existing id. Only unique for a single
+ * running instance.
+ */
+public class SequentialTicketIdGenerator implements TicketIdGenerator {
+
+    private final AtomicLong last;
+
+    public SequentialTicketIdGenerator(long highestExistingId) {
+        this.last = new AtomicLong(highestExistingId);
+    }
+
+    @Override
+    public long nextId() {
+        return last.incrementAndGet();
+    }
+}
@@ -0,0 +1,9 @@
+package com.johndoan.helpdesk.service;
+
+/**
+ * Source of ticket ids. Implementations must be thread-safe, never repeat an id, and
+ * hand out ids in increasing order.
+ */
+public interface TicketIdGenerator {
+    long nextId();
+}
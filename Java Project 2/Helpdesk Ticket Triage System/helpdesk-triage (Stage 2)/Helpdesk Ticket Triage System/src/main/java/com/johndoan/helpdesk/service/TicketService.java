@@ -8,22 +8,43 @@ import com.johndoan.helpdesk.repo.TicketRepository;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class TicketService {
 
     private final TicketRepository ticketRepository;
-    private final AtomicLong idGenerator = new AtomicLong(0);
+    private final TicketIdGenerator idGenerator;
 
-    public TicketService(TicketRepository ticketRepository) {
+    public TicketService(TicketRepository ticketRepository, TicketIdGenerator idGenerator) {
         this.ticketRepository = ticketRepository;
+        this.idGenerator = idGenerator;
     }
 
     public List<Ticket> getAllTickets() {
         return ticketRepository.findAll();
     }
 
+    // Either filter may be null; with both, the narrower index is walked and the other applied on top.
+    public List<Ticket> findTickets(TicketStatus status, Priority priority) {
+        if (status == null && priority == null) {
+            return getAllTickets();
+        }
+        if (status == null) {
+            return ticketRepository.findByPriority(priority);
+        }
+        if (priority == null) {
+            return ticketRepository.findByStatus(status);
+        }
+        if (ticketRepository.countByPriority(priority) < ticketRepository.countByStatus(status)) {
+            return ticketRepository.findByPriority(priority).stream()
+                    .filter(t -> t.getStatus() == status)
+                    .toList();
+        }
+        return ticketRepository.findByStatus(status).stream()
+                .filter(t -> t.getPriority() == priority)
+                .toList();
+    }
+
     public Ticket getTicketById(long id) {
         return ticketRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Ticket not found: " + id));
@@ -31,7 +52,7 @@ public class TicketService {
 
 
     public Ticket createTicket(String title, String description, Priority priority) {
-        long id = idGenerator.incrementAndGet();
+        long id = idGenerator.nextId();
         Ticket ticket = new Ticket(id, title, description, priority, TicketStatus.NEW);
         return ticketRepository.save(ticket);
     }
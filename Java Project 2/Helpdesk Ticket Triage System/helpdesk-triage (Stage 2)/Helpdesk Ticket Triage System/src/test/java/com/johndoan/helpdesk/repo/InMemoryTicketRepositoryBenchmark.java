@@ -0,0 +1,121 @@
+package com.johndoan.helpdesk.repo;
+
+import com.johndoan.helpdesk.domain.Priority;
+import com.johndoan.helpdesk.domain.Ticket;
+import com.johndoan.helpdesk.domain.TicketStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Skip-list repository vs the old ConcurrentHashMap one, and the cost of journaling on
+ * top of it (fsync on, group commit). Not part of the test run:
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.johndoan.helpdesk.repo.InMemoryTicketRepositoryBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InMemoryTicketRepositoryBenchmark {
+
+    @Param({"1000", "100000"})
+    int size;
+
+    @Param({"skiplist", "legacy", "journaled"})
+    String impl;
+
+    TicketRepository repo;
+    Path journalDir;
+
+    @Setup(Level.Trial)
+    public void fill() throws IOException {
+        repo = switch (impl) {
+            case "skiplist" -> new InMemoryTicketRepository();
+            case "legacy" -> new LegacyInMemoryTicketRepository();
+            default -> {
+                journalDir = Files.createTempDirectory("ticket-journal");
+                yield JournaledTicketRepository.open(journalDir, 64L << 20, true, Long.MAX_VALUE);
+            }
+        };
+        Priority[] priorities = Priority.values();
+        TicketStatus[] statuses = TicketStatus.values();
+        for (int i = 1; i <= size; i++) {
+            repo.save(new Ticket(i, "title " + i, "description " + i,
+                    priorities[i % priorities.length], statuses[i % statuses.length]));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws IOException {
+        if (repo instanceof JournaledTicketRepository journaled) {
+            journaled.close();
+            try (var files = Files.walk(journalDir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Ticket> listAll() {
+        return repo.findAll();
+    }
+
+    @Benchmark
+    public List<Ticket> listByStatus() {
+        return repo.findByStatus(TicketStatus.NEW);
+    }
+
+    @Benchmark
+    public void streamFirstPage(Blackhole bh) {
+        repo.stream().limit(50).forEach(bh::consume);
+    }
+
+    // What TicketService does: load, change in place, save.
+    @Benchmark
+    @Threads(4)
+    public Ticket concurrentUpdate() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Ticket ticket = repo.findById(random.nextInt(size) + 1).orElseThrow();
+        ticket.setStatus(TicketStatus.values()[random.nextInt(4)]);
+        return repo.save(ticket);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object concurrentRead() {
+        return repo.findById(ThreadLocalRandom.current().nextInt(size) + 1);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(InMemoryTicketRepositoryBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
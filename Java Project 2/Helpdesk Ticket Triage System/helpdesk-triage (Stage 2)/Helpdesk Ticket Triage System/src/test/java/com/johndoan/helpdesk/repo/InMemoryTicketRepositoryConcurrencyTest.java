@@ -0,0 +1,115 @@
+package com.johndoan.helpdesk.repo;
+
+import com.johndoan.helpdesk.domain.Priority;
+import com.johndoan.helpdesk.domain.Ticket;
+import com.johndoan.helpdesk.domain.TicketStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryTicketRepositoryConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int OPS_PER_THREAD = 50_000;
+    private static final int ID_RANGE = 500; // small, so threads keep colliding on the same ids
+
+    @Test
+    void indexesStayConsistentUnderConcurrentWrites() throws Exception {
+        InMemoryTicketRepository repo = new InMemoryTicketRepository();
+        TicketStatus[] statuses = TicketStatus.values();
+        Priority[] priorities = Priority.values();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(THREADS + 1)) {
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < OPS_PER_THREAD; i++) {
+                        long id = random.nextInt(ID_RANGE) + 1;
+                        if (random.nextInt(10) == 0) {
+                            repo.deleteById(id);
+                        } else {
+                            repo.save(new Ticket(id, "t" + id, "d" + id,
+                                    priorities[random.nextInt(priorities.length)],
+                                    statuses[random.nextInt(statuses.length)]));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            // A reader walking the ordered views the whole time: must never fail or see ids out of order.
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 2_000; i++) {
+                    long previous = 0;
+                    for (Ticket ticket : repo.findByStatus(TicketStatus.NEW)) {
+                        assertTrue(ticket.getId() > previous);
+                        previous = ticket.getId();
+                    }
+                }
+                return null;
+            }));
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        List<Ticket> all = repo.findAll();
+        assertEquals(repo.count(), all.size());
+        for (int i = 1; i < all.size(); i++) {
+            assertTrue(all.get(i - 1).getId() < all.get(i).getId());
+        }
+
+        int statusTotal = 0;
+        for (TicketStatus status : statuses) {
+            long expected = all.stream().filter(t -> t.getStatus() == status).count();
+            assertEquals(expected, repo.statusIndexSize(status), "status index " + status);
+            assertEquals(expected, repo.findByStatus(status).size());
+            assertEquals(expected, repo.countByStatus(status));
+            statusTotal += repo.statusIndexSize(status);
+        }
+        assertEquals(all.size(), statusTotal);
+
+        int priorityTotal = 0;
+        for (Priority priority : priorities) {
+            long expected = all.stream().filter(t -> t.getPriority() == priority).count();
+            assertEquals(expected, repo.priorityIndexSize(priority), "priority index " + priority);
+            assertEquals(expected, repo.countByPriority(priority));
+            priorityTotal += repo.priorityIndexSize(priority);
+        }
+        assertEquals(all.size(), priorityTotal);
+    }
+
+    @Test
+    void inPlaceUpdateMovesTicketBetweenIndexes() {
+        InMemoryTicketRepository repo = new InMemoryTicketRepository();
+        Ticket ticket = repo.save(new Ticket(1, "VPN", "down", Priority.LOW));
+
+        ticket.setStatus(TicketStatus.RESOLVED);
+        ticket.setPriority(Priority.HIGH);
+        repo.save(ticket);
+
+        assertTrue(repo.findByStatus(TicketStatus.NEW).isEmpty());
+        assertEquals(List.of(ticket), repo.findByStatus(TicketStatus.RESOLVED));
+        assertEquals(0, repo.priorityIndexSize(Priority.LOW));
+        assertEquals(List.of(ticket), repo.findByPriority(Priority.HIGH));
+
+        repo.deleteById(1);
+        assertEquals(0, repo.count());
+        assertEquals(0, repo.statusIndexSize(TicketStatus.RESOLVED));
+        assertEquals(0, repo.countByStatus(TicketStatus.RESOLVED));
+        assertEquals(0, repo.countByPriority(Priority.HIGH));
+    }
+}
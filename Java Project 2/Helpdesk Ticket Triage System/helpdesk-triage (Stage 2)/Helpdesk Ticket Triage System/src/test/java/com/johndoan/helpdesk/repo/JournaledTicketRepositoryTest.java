@@ -0,0 +1,231 @@
+package com.johndoan.helpdesk.repo;
+
+import com.johndoan.helpdesk.domain.Priority;
+import com.johndoan.helpdesk.domain.Ticket;
+import com.johndoan.helpdesk.domain.TicketStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JournaledTicketRepositoryTest {
+
+    private static final long SEGMENT_BYTES = 64 * 1024;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recoversSavesUpdatesAndDeletesAfterRestart() throws Exception {
+        try (JournaledTicketRepository repo = JournaledTicketRepository.open(dir, SEGMENT_BYTES, true, 1_000_000)) {
+            repo.save(new Ticket(1, "VPN down", "Cannot connect", Priority.HIGH));
+            Ticket printer = repo.save(new Ticket(2, "Printer jam", "Third floor", Priority.LOW));
+            repo.save(new Ticket(3, "Email", "Outlook crashes", Priority.MEDIUM));
+
+            printer.setStatus(TicketStatus.RESOLVED);
+            repo.save(printer);
+            repo.deleteById(3);
+        }
+
+        try (JournaledTicketRepository repo = JournaledTicketRepository.open(dir, SEGMENT_BYTES, true, 1_000_000)) {
+            assertEquals(List.of(1L, 2L), repo.stream().map(Ticket::getId).toList());
+            assertEquals(TicketStatus.RESOLVED, repo.findById(2).orElseThrow().getStatus());
+            assertEquals(List.of(2L), repo.findByStatus(TicketStatus.RESOLVED).stream().map(Ticket::getId).toList());
+        }
+    }
+
+    @Test
+    void snapshotsTruncateOldSegments() throws Exception {
+        try (JournaledTicketRepository repo = JournaledTicketRepository.open(dir, SEGMENT_BYTES, false, 1_000_000)) {
+            for (int i = 1; i <= 5_000; i++) {
+                repo.save(new Ticket(i, "title " + i, "description " + i, Priority.MEDIUM));
+            }
+            assertTrue(files("segment-").size() > 1);
+
+            repo.snapshot();
+            assertEquals(1, files("snapshot-").size());
+            assertEquals(1, files("segment-").size()); // only the fresh, empty one
+
+            repo.deleteById(1);
+        }
+
+        try (JournaledTicketRepository repo = JournaledTicketRepository.open(dir, SEGMENT_BYTES, false, 1_000_000)) {
+            assertEquals(4_999, repo.count());
+            assertEquals("title 5000", repo.findById(5000).orElseThrow().getTitle());
+        }
+    }
+
+    @Test
+    void ignoresTornRecordAtEndOfLog() throws Exception {
+        try (JournaledTicketRepository repo = JournaledTicketRepository.open(dir, SEGMENT_BYTES, true, 1_000_000)) {
+            repo.save(new Ticket(1, "VPN down", "Cannot connect", Priority.HIGH));
+        }
+        // Simulate a crash half-way through the next append, after the close-time snapshot.
+        Path segment = files("segment-").get(files("segment-").size() - 1);
+        Files.write(segment, new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        try (JournaledTicketRepository repo = JournaledTicketRepository.open(dir, SEGMENT_BYTES, true, 1_000_000)) {
+            assertEquals(1, repo.count());
+            repo.save(new Ticket(2, "Printer jam", "Third floor", Priority.LOW));
+        }
+        try (JournaledTicketRepository repo = JournaledTicketRepository.open(dir, SEGMENT_BYTES, true, 1_000_000)) {
+            assertEquals(2, repo.count());
+        }
+    }
+
+    @Test
+    void corruptSnapshotOrMiddleSegmentIsReportedAndLeftUntouched() throws Exception {
+        Path crashed = dir.resolve("crashed");
+        try (JournaledTicketRepository repo = JournaledTicketRepository.open(dir, 512, true, 1_000_000)) {
+            for (int i = 1; i <= 50; i++) {
+                repo.save(new Ticket(i, "title " + i, "description " + i, Priority.LOW));
+            }
+            // What a crash would leave behind: several segments, no snapshot.
+            Files.createDirectory(crashed);
+            for (Path segment : files("segment-")) {
+                Files.copy(segment, crashed.resolve(segment.getFileName()));
+            }
+        }
+
+        List<Path> segments = files(crashed, "segment-");
+        assertTrue(segments.size() > 2);
+        Path middle = segments.get(1);
+        byte[] damaged = Files.readAllBytes(middle);
+        damaged[damaged.length / 2] ^= 0x7f;
+        Files.write(middle, damaged);
+        assertThrows(IOException.class, () -> JournaledTicketRepository.open(crashed, 512, true, 1_000_000));
+        assertArrayEquals(damaged, Files.readAllBytes(middle));
+
+        Path snapshot = files("snapshot-").get(0);
+        Files.write(snapshot, new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+        byte[] before = Files.readAllBytes(snapshot);
+        assertThrows(IOException.class, () -> JournaledTicketRepository.open(dir, 512, true, 1_000_000));
+        assertArrayEquals(before, Files.readAllBytes(snapshot));
+    }
+
+    @Test
+    void failedWriteIsNotVisibleInMemory() throws Exception {
+        try (JournaledTicketRepository repo = JournaledTicketRepository.open(dir, 1, true, 1_000_000)) {
+            // Every write fills a segment; the next one can't be created, so the journal fails
+            // right after this first write.
+            Files.createFile(dir.resolve(String.format("segment-%020d.log", 2)));
+            repo.save(new Ticket(1, "VPN down", "Cannot connect", Priority.HIGH));
+
+            assertThrows(RuntimeException.class,
+                    () -> repo.save(new Ticket(2, "Printer jam", "Third floor", Priority.LOW)));
+            assertTrue(repo.findById(2).isEmpty());
+            assertEquals(1, repo.count());
+        } catch (UncheckedIOException | IllegalStateException ex) {
+            // close() can't snapshot through a failed journal; that's expected here.
+        }
+    }
+
+    @Test
+    void failedUpdateLeavesTheStoredTicketUnchanged() throws Exception {
+        try (JournaledTicketRepository repo = JournaledTicketRepository.open(dir, 1, true, 1_000_000)) {
+            Files.createFile(dir.resolve(String.format("segment-%020d.log", 2)));
+            repo.save(new Ticket(1, "VPN down", "Cannot connect", Priority.HIGH));
+
+            // What TicketService does for a PUT: change the ticket it read, then save it.
+            Ticket ticket = repo.findById(1).orElseThrow();
+            ticket.setTitle("VPN fixed");
+            ticket.setStatus(TicketStatus.RESOLVED);
+            assertThrows(RuntimeException.class, () -> repo.save(ticket));
+
+            Ticket stored = repo.findById(1).orElseThrow();
+            assertEquals("VPN down", stored.getTitle());
+            assertEquals(TicketStatus.NEW, stored.getStatus());
+            assertTrue(repo.findByStatus(TicketStatus.RESOLVED).isEmpty());
+        } catch (UncheckedIOException | IllegalStateException ex) {
+            // close() can't snapshot through a failed journal; that's expected here.
+        }
+    }
+
+    @Test
+    void appendsQueuedBehindAFailedWriteAreRefused() throws Exception {
+        CountDownLatch inFirstWrite = new CountDownLatch(1);
+        CountDownLatch queued = new CountDownLatch(1);
+        AtomicInteger applied = new AtomicInteger();
+        TicketJournal journal = TicketJournal.open(dir, SEGMENT_BYTES, true, record -> { });
+        try {
+            // The first write fails on the writer thread while two more appends wait in the queue.
+            CompletableFuture<Void> first = journal.append(new byte[]{1}, () -> {
+                inFirstWrite.countDown();
+                awaitQuietly(queued);
+                throw new IllegalStateException("simulated write failure");
+            });
+            inFirstWrite.await();
+            CompletableFuture<Void> second = journal.append(new byte[]{2}, applied::incrementAndGet);
+            CompletableFuture<Void> third = journal.append(new byte[]{3}, applied::incrementAndGet);
+            queued.countDown();
+
+            for (CompletableFuture<Void> write : List.of(first, second, third)) {
+                assertThrows(CompletionException.class, write::join);
+            }
+            assertEquals(0, applied.get());
+            assertThrows(IllegalStateException.class, () -> journal.append(new byte[]{4}, applied::incrementAndGet));
+        } finally {
+            journal.close();
+        }
+
+        List<Byte> replayed = new ArrayList<>();
+        TicketJournal.open(dir, SEGMENT_BYTES, true, record -> replayed.add(record.get())).close();
+        assertEquals(List.of((byte) 1), replayed); // nothing was written after the failure
+    }
+
+    @Test
+    void concurrentWritersWithBackgroundSnapshotsLoseNothing() throws Exception {
+        try (JournaledTicketRepository repo = JournaledTicketRepository.open(dir, SEGMENT_BYTES, false, 500);
+             ExecutorService pool = Executors.newFixedThreadPool(8)) {
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                pool.submit(() -> {
+                    for (int i = 0; i < 1_000; i++) {
+                        long id = thread * 1_000L + i + 1;
+                        repo.save(new Ticket(id, "t" + id, "d" + id, Priority.LOW));
+                    }
+                });
+            }
+        }
+
+        try (JournaledTicketRepository repo = JournaledTicketRepository.open(dir, SEGMENT_BYTES, false, 500)) {
+            assertEquals(8_000, repo.count());
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<Path> files(String prefix) throws Exception {
+        return files(dir, prefix);
+    }
+
+    private static List<Path> files(Path dir, String prefix) throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().startsWith(prefix)).sorted().toList();
+        }
+    }
+}
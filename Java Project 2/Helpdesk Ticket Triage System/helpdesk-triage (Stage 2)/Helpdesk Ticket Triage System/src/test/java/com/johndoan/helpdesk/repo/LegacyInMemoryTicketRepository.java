@@ -0,0 +1,74 @@
+package com.johndoan.helpdesk.repo;
+
+import com.johndoan.helpdesk.domain.Priority;
+import com.johndoan.helpdesk.domain.Ticket;
+import com.johndoan.helpdesk.domain.TicketStatus;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * The previous ConcurrentHashMap store (copy + sort on every list), kept only as the
+ * baseline for {@link InMemoryTicketRepositoryBenchmark}.
+ */
+class LegacyInMemoryTicketRepository implements TicketRepository {
+
+    private final ConcurrentHashMap<Long, Ticket> store = new ConcurrentHashMap<>();
+
+    @Override
+    public Ticket save(Ticket ticket) {
+        store.put(ticket.getId(), ticket);
+        return ticket;
+    }
+
+    @Override
+    public Optional<Ticket> findById(long id) {
+        return Optional.ofNullable(store.get(id));
+    }
+
+    @Override
+    public List<Ticket> findAll() {
+        List<Ticket> all = new ArrayList<>(store.values());
+        all.sort(Comparator.comparingLong(Ticket::getId));
+        return all;
+    }
+
+    @Override
+    public void deleteById(long id) {
+        store.remove(id);
+    }
+
+    @Override
+    public List<Ticket> findByStatus(TicketStatus status) {
+        return findAll().stream().filter(t -> t.getStatus() == status).toList();
+    }
+
+    @Override
+    public List<Ticket> findByPriority(Priority priority) {
+        return findAll().stream().filter(t -> t.getPriority() == priority).toList();
+    }
+
+    @Override
+    public long countByStatus(TicketStatus status) {
+        return store.values().stream().filter(t -> t.getStatus() == status).count();
+    }
+
+    @Override
+    public long countByPriority(Priority priority) {
+        return store.values().stream().filter(t -> t.getPriority() == priority).count();
+    }
+
+    @Override
+    public Stream<Ticket> stream() {
+        return findAll().stream();
+    }
+
+    @Override
+    public long count() {
+        return store.size();
+    }
+}
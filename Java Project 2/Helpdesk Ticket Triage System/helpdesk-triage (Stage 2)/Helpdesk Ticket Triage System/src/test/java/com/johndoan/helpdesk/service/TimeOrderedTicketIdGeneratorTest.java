@@ -0,0 +1,74 @@
+package com.johndoan.helpdesk.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeOrderedTicketIdGeneratorTest {
+
+    private final AtomicLong millis = new AtomicLong(Instant.parse("2026-03-01T12:00:00Z").toEpochMilli());
+    private final Clock clock = new Clock() {
+        @Override public ZoneOffset getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(ZoneId zone) { return this; }
+        @Override public Instant instant() { return Instant.ofEpochMilli(millis.get()); }
+    };
+
+    @Test
+    void idsIncreaseThroughBurstsAndClockSteps() {
+        TimeOrderedTicketIdGenerator ids = new TimeOrderedTicketIdGenerator(5, 0, clock);
+        Set<Long> seen = new HashSet<>();
+        long previous = 0;
+        for (int i = 0; i < 1_000; i++) {
+            if (i == 500) {
+                millis.addAndGet(-10_000); // NTP step backwards
+            }
+            long id = ids.nextId();
+            assertTrue(id > previous);
+            assertTrue(id < (1L << 53), "fits a JavaScript number");
+            assertEquals(5, (id >>> 6) & 63, "node bits");
+            assertTrue(seen.add(id));
+            previous = id;
+        }
+    }
+
+    @Test
+    void embedsCreationTime() {
+        long id = new TimeOrderedTicketIdGenerator(0, 0, clock).nextId();
+        assertEquals(Instant.ofEpochMilli(millis.get()), TimeOrderedTicketIdGenerator.timestampOf(id));
+    }
+
+    @Test
+    void startsAboveHighestExistingId() {
+        long existing = new TimeOrderedTicketIdGenerator(1, 0, clock).nextId();
+        millis.addAndGet(-60_000); // restarted on a host whose clock is a minute behind
+
+        long next = new TimeOrderedTicketIdGenerator(1, existing, clock).nextId();
+        assertTrue(next > existing);
+    }
+
+    @Test
+    void differentNodesNeverCollide() {
+        TimeOrderedTicketIdGenerator a = new TimeOrderedTicketIdGenerator(1, 0, clock);
+        TimeOrderedTicketIdGenerator b = new TimeOrderedTicketIdGenerator(2, 0, clock);
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < 500; i++) {
+            assertTrue(seen.add(a.nextId()));
+            assertTrue(seen.add(b.nextId()));
+        }
+    }
+
+    @Test
+    void rejectsOutOfRangeNode() {
+        assertThrows(IllegalArgumentException.class, () -> new TimeOrderedTicketIdGenerator(64, 0));
+    }
+}
@@ -2,8 +2,10 @@ package com.johndoan.helpdesk;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class HelpdeskTriageApplication {
     public static void main(String[] args) {
         SpringApplication.run(HelpdeskTriageApplication.class, args);
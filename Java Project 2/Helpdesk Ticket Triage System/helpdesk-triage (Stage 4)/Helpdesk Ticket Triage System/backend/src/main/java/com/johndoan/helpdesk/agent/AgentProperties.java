@@ -0,0 +1,26 @@
+package com.johndoan.helpdesk.agent;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Agents and assignment strategy, bound from {@code helpdesk.agents.*}.
+ */
+@ConfigurationProperties(prefix = "helpdesk.agents")
+public class AgentProperties {
+
+    public enum Strategy { ROUND_ROBIN, LEAST_LOADED }
+
+    /** Agents new tickets are assigned to. Empty: tickets are created unassigned. */
+    private List<String> names = new ArrayList<>();
+
+    private Strategy strategy = Strategy.LEAST_LOADED;
+
+    public List<String> getNames() { return names; }
+    public void setNames(List<String> names) { this.names = names; }
+
+    public Strategy getStrategy() { return strategy; }
+    public void setStrategy(Strategy strategy) { this.strategy = strategy; }
+}
@@ -0,0 +1,157 @@
+package com.johndoan.helpdesk.agent;
+
+import com.johndoan.helpdesk.domain.Ticket;
+import com.johndoan.helpdesk.service.TicketListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Number of open tickets per agent, kept in memory and updated on every ticket change
+ * through {@link TicketListener} (and rebuilt by the startup replay).
+ *
+ * Agents are also kept in a set ordered by load, so finding the least loaded one is
+ * O(log agents) instead of a {@code COUNT(*) ... GROUP BY assignee} per new ticket.
+ *
+ * Picking an agent for a new ticket also reserves it: the count goes up straight away,
+ * so a whole bulk chunk, or concurrent creates, spread over the agents instead of all
+ * going to whoever was least loaded before any of them was saved. When the ticket is
+ * saved the reservation turns into its assignment; if the save fails it is
+ * {@linkplain #release released}.
+ */
+@Component
+public class AgentWorkloadIndex implements TicketListener {
+
+    private static final Comparator<AgentLoad> BY_LOAD =
+            Comparator.comparingInt(AgentLoad::openTickets).thenComparing(AgentLoad::agent);
+
+    private final Object lock = new Object();
+    // ticket id -> agent, for open assigned tickets only
+    private final Map<Long, String> assignments = new HashMap<>();
+    private final Map<String, Integer> counts = new HashMap<>();
+    // agent -> picks already counted but whose tickets haven't been saved yet
+    private final Map<String, Integer> reserved = new HashMap<>();
+    private final TreeSet<AgentLoad> byLoad = new TreeSet<>(BY_LOAD);
+
+    public AgentWorkloadIndex(AgentProperties properties) {
+        for (String agent : properties.getNames()) {
+            register(agent);
+        }
+    }
+
+    @Override
+    public void ticketSaved(Ticket ticket) {
+        String agent = ticket.isOpen() ? ticket.getAssignee() : null;
+        synchronized (lock) {
+            String previous = agent == null
+                    ? assignments.remove(ticket.getId())
+                    : assignments.put(ticket.getId(), agent);
+            if (agent != null && agent.equals(previous)) {
+                return;
+            }
+            if (previous != null) {
+                adjust(previous, -1);
+            }
+            if (agent != null && !consumeReservation(agent)) {
+                adjust(agent, +1);
+            }
+        }
+    }
+
+    @Override
+    public void ticketDeleted(long id) {
+        synchronized (lock) {
+            String previous = assignments.remove(id);
+            if (previous != null) {
+                adjust(previous, -1);
+            }
+        }
+    }
+
+    /**
+     * Agent with the fewest open tickets among {@code candidates} (ties go to the first
+     * name), reserved for a ticket about to be saved; null if there is none.
+     */
+    public String reserveLeastLoaded(Collection<String> candidates) {
+        synchronized (lock) {
+            for (AgentLoad load : byLoad) {
+                if (candidates.contains(load.agent())) {
+                    reserve(load.agent());
+                    return load.agent();
+                }
+            }
+            return null;
+        }
+    }
+
+    /** Counts a ticket about to be saved for {@code agent}. */
+    public void reserve(String agent) {
+        synchronized (lock) {
+            register(agent);
+            adjust(agent, +1);
+            reserved.merge(agent, 1, Integer::sum);
+        }
+    }
+
+    /** Gives back a reservation whose ticket was never saved. */
+    public void release(String agent) {
+        synchronized (lock) {
+            if (consumeReservation(agent)) {
+                adjust(agent, -1);
+            }
+        }
+    }
+
+    public int openTickets(String agent) {
+        synchronized (lock) {
+            return counts.getOrDefault(agent, 0);
+        }
+    }
+
+    /** Every known agent, least loaded first. */
+    public List<AgentLoad> loads() {
+        synchronized (lock) {
+            return new ArrayList<>(byLoad);
+        }
+    }
+
+    private void register(String agent) {
+        synchronized (lock) {
+            if (counts.putIfAbsent(agent, 0) == null) {
+                byLoad.add(new AgentLoad(agent, 0));
+            }
+        }
+    }
+
+    // Reservations are per agent, not per ticket: any save that assigns the agent can take
+    // one over, and the counts come out the same.
+    private boolean consumeReservation(String agent) {
+        Integer pending = reserved.get(agent);
+        if (pending == null) {
+            return false;
+        }
+        if (pending == 1) {
+            reserved.remove(agent);
+        } else {
+            reserved.put(agent, pending - 1);
+        }
+        return true;
+    }
+
+    private void adjust(String agent, int delta) {
+        int before = counts.getOrDefault(agent, 0);
+        int after = before + delta;
+        byLoad.remove(new AgentLoad(agent, before));
+        byLoad.add(new AgentLoad(agent, after));
+        counts.put(agent, after);
+    }
+
+    public record AgentLoad(String agent, int openTickets) {
+    }
+}
@@ -0,0 +1,57 @@
+package com.johndoan.helpdesk.agent;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Picks the agent for a new ticket using the configured strategy, and reserves it in
+ * the {@link AgentWorkloadIndex} until the ticket is saved.
+ */
+@Component
+public class TicketAssigner {
+
+    private final List<String> agents;
+    private final Set<String> agentSet;
+    private final AgentProperties.Strategy strategy;
+    private final AgentWorkloadIndex workload;
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    public TicketAssigner(AgentProperties properties, AgentWorkloadIndex workload) {
+        this.agents = List.copyOf(properties.getNames());
+        this.agentSet = Set.copyOf(agents);
+        this.strategy = properties.getStrategy();
+        this.workload = workload;
+    }
+
+    /**
+     * Returns null when no agents are configured. The caller must {@link #release} the
+     * agent if the ticket is then not saved.
+     */
+    public String reserveAgent() {
+        if (agents.isEmpty()) {
+            return null;
+        }
+        return switch (strategy) {
+            case ROUND_ROBIN -> {
+                String agent = agents.get(Math.floorMod(cursor.getAndIncrement(), agents.size()));
+                workload.reserve(agent);
+                yield agent;
+            }
+            case LEAST_LOADED -> workload.reserveLeastLoaded(agentSet);
+        };
+    }
+
+    public void release(String agent) {
+        if (agent != null) {
+            workload.release(agent);
+        }
+    }
+
+    /** With no agents configured any name is accepted. */
+    public boolean isKnownAgent(String agent) {
+        return agents.isEmpty() || agentSet.contains(agent);
+    }
+}
@@ -0,0 +1,28 @@
+package com.johndoan.helpdesk.api;
+
+import com.johndoan.helpdesk.agent.AgentWorkloadIndex;
+import com.johndoan.helpdesk.api.dto.AgentLoadResponse;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/agents")
+public class AgentController {
+
+    private final AgentWorkloadIndex workload;
+
+    public AgentController(AgentWorkloadIndex workload) {
+        this.workload = workload;
+    }
+
+    // Open tickets per agent, least loaded first; served from memory.
+    @GetMapping("/load")
+    public List<AgentLoadResponse> load() {
+        return workload.loads().stream()
+                .map(load -> new AgentLoadResponse(load.agent(), load.openTickets()))
+                .toList();
+    }
+}
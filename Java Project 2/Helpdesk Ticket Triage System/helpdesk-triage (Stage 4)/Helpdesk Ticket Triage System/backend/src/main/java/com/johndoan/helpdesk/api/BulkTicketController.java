@@ -0,0 +1,257 @@
+package com.johndoan.helpdesk.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.johndoan.helpdesk.api.dto.BulkItemResult;
+import com.johndoan.helpdesk.api.dto.BulkItemResult.Outcome;
+import com.johndoan.helpdesk.api.dto.BulkUpdateTicketRequest;
+import com.johndoan.helpdesk.api.dto.CreateTicketRequest;
+import com.johndoan.helpdesk.domain.Priority;
+import com.johndoan.helpdesk.domain.Ticket;
+import com.johndoan.helpdesk.exception.BadRequestException;
+import com.johndoan.helpdesk.service.TicketPatch;
+import com.johndoan.helpdesk.service.TicketService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk create/update for migrations and mass-closing.
+ *
+ * The request body is a JSON array that is read one element at a time, validated,
+ * and persisted in chunks (one transaction per chunk, batched JDBC statements).
+ * The response is a JSON array with one {@link BulkItemResult} per element, written
+ * and flushed as each chunk completes, so neither side holds the whole payload.
+ */
+@RestController
+@RequestMapping("/api/tickets/bulk")
+public class BulkTicketController {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkTicketController.class);
+
+    private final TicketService ticketService;
+    private final TicketMapper ticketMapper;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter resultWriter;
+    private final Validator validator;
+    private final int chunkSize;
+
+    public BulkTicketController(TicketService ticketService,
+                                TicketMapper ticketMapper,
+                                ObjectMapper objectMapper,
+                                Validator validator,
+                                @Value("${helpdesk.bulk.chunk-size:500}") int chunkSize) {
+        this.ticketService = ticketService;
+        this.ticketMapper = ticketMapper;
+        this.objectMapper = objectMapper;
+        // Flushing is done per chunk, not per element.
+        this.resultWriter = objectMapper.writerFor(BulkItemResult.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public void createAll(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        process(request, response, CreateTicketRequest.class, this::checkCreate, this::createChunk);
+    }
+
+    @PatchMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public void patchAll(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        process(request, response, BulkUpdateTicketRequest.class, this::checkPatch, this::patchChunk);
+    }
+
+    /**
+     * Streams the array through {@code check}, which turns each element into what
+     * {@code persist} saves (or says why it can't), and persists valid ones in chunks.
+     */
+    private <T, V> void process(HttpServletRequest request,
+                                HttpServletResponse response,
+                                Class<T> type,
+                                Function<T, Checked<V>> check,
+                                Function<List<Item<V>>, List<BulkItemResult>> persist) throws IOException {
+        JsonParser parser = objectMapper.getFactory().createParser(request.getInputStream());
+        try {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new BadRequestException("Request body must be a JSON array");
+            }
+        } catch (JsonProcessingException ex) {
+            throw new BadRequestException("Malformed JSON");
+        }
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+
+        try (parser; JsonGenerator out = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            out.writeStartArray();
+            List<Item<V>> chunk = new ArrayList<>(chunkSize);
+            int index = 0;
+            try {
+                JsonToken token;
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    if (token == null) {
+                        throw new JsonParseException(parser, "Unexpected end of input");
+                    }
+                    // Each element is read as a small tree first, so a bad element (wrong
+                    // enum value, wrong type) is reported on its own without losing our
+                    // position in the stream.
+                    JsonNode node = parser.readValueAsTree();
+                    Checked<V> checked;
+                    try {
+                        checked = check.apply(objectMapper.treeToValue(node, type));
+                    } catch (JsonProcessingException | IllegalArgumentException ex) {
+                        checked = Checked.invalid("Malformed element or invalid enum value");
+                    }
+
+                    if (checked.problem() != null) {
+                        write(out, BulkItemResult.failure(index, Outcome.INVALID, null, checked.problem()));
+                    } else {
+                        chunk.add(new Item<>(index, checked.value()));
+                        if (chunk.size() == chunkSize) {
+                            flush(chunk, persist, out);
+                        }
+                    }
+                    index++;
+                }
+                flush(chunk, persist, out);
+            } catch (JsonProcessingException ex) {
+                // The rest of the stream is unreadable: keep what was valid so far and stop.
+                flush(chunk, persist, out);
+                write(out, BulkItemResult.failure(index, Outcome.FAILED, null, "Malformed JSON; stopped here"));
+            }
+            out.writeEndArray();
+        }
+    }
+
+    private <V> void flush(List<Item<V>> chunk,
+                           Function<List<Item<V>>, List<BulkItemResult>> persist,
+                           JsonGenerator out) throws IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<BulkItemResult> results;
+        try {
+            results = persist.apply(chunk);
+        } catch (RuntimeException ex) {
+            // The 200 and the start of the array are already sent: report the chunk and
+            // carry on, so the array is always closed.
+            log.warn("Bulk chunk of {} tickets failed", chunk.size(), ex);
+            results = chunk.stream()
+                    .map(item -> BulkItemResult.failure(item.index(), Outcome.FAILED, null, "Could not persist chunk"))
+                    .toList();
+        }
+        for (BulkItemResult result : results) {
+            write(out, result);
+        }
+        out.flush();
+        chunk.clear();
+    }
+
+    private List<BulkItemResult> createChunk(List<Item<Ticket>> chunk) {
+        List<Ticket> tickets = chunk.stream()
+                .map(Item::value)
+                .toList();
+        List<Ticket> saved = ticketService.createTickets(tickets);
+
+        List<BulkItemResult> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            results.add(BulkItemResult.success(chunk.get(i).index(), Outcome.CREATED, saved.get(i).getId()));
+        }
+        return results;
+    }
+
+    private List<BulkItemResult> patchChunk(List<Item<BulkUpdateTicketRequest>> chunk) {
+        List<TicketPatch> patches = chunk.stream()
+                .map(item -> {
+                    BulkUpdateTicketRequest req = item.value();
+                    return new TicketPatch(req.getId(), req.getTitle(), req.getDescription(),
+                            req.getPriority(), req.getStatus());
+                })
+                .toList();
+        Map<Long, Ticket> updated = ticketService.patchTickets(patches);
+
+        return chunk.stream()
+                .map(item -> {
+                    long id = item.value().getId();
+                    return updated.containsKey(id)
+                            ? BulkItemResult.success(item.index(), Outcome.UPDATED, id)
+                            : BulkItemResult.failure(item.index(), Outcome.NOT_FOUND, id, "Ticket not found: " + id);
+                })
+                .toList();
+    }
+
+    /**
+     * Also settles each element's priority the way a single create does, so an element
+     * with no priority and no confident suggestion is INVALID on its own instead of
+     * failing its whole chunk on the NOT NULL column.
+     */
+    private Checked<Ticket> checkCreate(CreateTicketRequest req) {
+        String problem = validate(req);
+        if (problem == null && req.getDescription() == null) {
+            problem = "description: must not be null";
+        }
+        if (problem != null) {
+            return Checked.invalid(problem);
+        }
+        Priority priority = ticketService.resolvePriority(req.getPriority(),
+                ticketService.suggestPriority(req.getTitle(), req.getDescription()));
+        if (priority == null) {
+            return Checked.invalid("priority: must not be null");
+        }
+        return Checked.valid(ticketMapper.toNewTicket(req, priority));
+    }
+
+    private Checked<BulkUpdateTicketRequest> checkPatch(BulkUpdateTicketRequest req) {
+        String problem = validate(req);
+        return problem == null ? Checked.valid(req) : Checked.invalid(problem);
+    }
+
+    private <T> String validate(T value) {
+        String msg = validator.validate(value).stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+        return msg.isEmpty() ? null : msg;
+    }
+
+    private void write(JsonGenerator out, BulkItemResult result) throws IOException {
+        resultWriter.writeValue(out, result);
+    }
+
+    private record Item<T>(int index, T value) {
+    }
+
+    /** What an element becomes once checked, or why it is INVALID. */
+    private record Checked<V>(V value, String problem) {
+
+        static <V> Checked<V> valid(V value) {
+            return new Checked<>(value, null);
+        }
+
+        static <V> Checked<V> invalid(String problem) {
+            return new Checked<>(null, problem);
+        }
+    }
+}
@@ -1,49 +1,112 @@
 package com.johndoan.helpdesk.api;
 
+import com.johndoan.helpdesk.api.dto.AssignTicketRequest;
 import com.johndoan.helpdesk.api.dto.CreateTicketRequest;
+import com.johndoan.helpdesk.api.dto.SimilarTicketResponse;
 import com.johndoan.helpdesk.api.dto.TicketResponse;
 import com.johndoan.helpdesk.api.dto.UpdateTicketRequest;
 import com.johndoan.helpdesk.domain.Ticket;
+import com.johndoan.helpdesk.search.DuplicateDetector;
 import com.johndoan.helpdesk.service.TicketService;
+import com.johndoan.helpdesk.triage.PriorityClassifier;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.net.URI;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/tickets")
 public class TicketController {
 
+    // Clients may keep responses but must revalidate them (If-None-Match) before use.
+    private static final CacheControl REVALIDATE = CacheControl.noCache();
+    private static final String POSSIBLE_DUPLICATES = "X-Possible-Duplicates";
+    private static final String SUGGESTED_PRIORITY = "X-Suggested-Priority";
+    private static final int DUPLICATES_ON_CREATE = 5;
+
     private final TicketService ticketService;
     private final TicketMapper ticketMapper;
+    private final TicketEtags etags;
 
-    public TicketController(TicketService ticketService, TicketMapper ticketMapper) {
+    public TicketController(TicketService ticketService, TicketMapper ticketMapper, TicketEtags etags) {
         this.ticketService = ticketService;
         this.ticketMapper = ticketMapper;
+        this.etags = etags;
     }
 
+    // Reads check the ETag before loading anything, so an unchanged poll is a 304 from one small query.
     @GetMapping
-    public List<TicketResponse> getAll() {
-        return ticketService.getAllTickets().stream()
+    public ResponseEntity<List<TicketResponse>> getAll(WebRequest request) {
+        String etag = etags.forList();
+        if (request.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+        List<TicketResponse> body = ticketService.getAllTickets().stream()
+                .map(ticketMapper::toResponse)
+                .toList();
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(body);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<TicketResponse>> search(@RequestParam(name = "q", required = false) String query,
+                                                       @RequestParam(defaultValue = "20") int limit,
+                                                       WebRequest request) {
+        String etag = etags.forList("search", query, limit);
+        if (request.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+        List<TicketResponse> body = ticketService.searchTickets(query, limit).stream()
                 .map(ticketMapper::toResponse)
                 .toList();
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(body);
     }
 
     @GetMapping("/{id}")
-    public TicketResponse getById(@PathVariable long id) {
-        return ticketMapper.toResponse(ticketService.getTicketById(id));
+    public ResponseEntity<TicketResponse> getById(@PathVariable long id, WebRequest request) {
+        String etag = etags.forTicket(id);
+        if (request.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE)
+                .body(ticketMapper.toResponse(ticketService.getTicketById(id)));
+    }
+
+    @GetMapping("/{id}/similar")
+    public List<SimilarTicketResponse> similar(@PathVariable long id, @RequestParam(defaultValue = "10") int limit) {
+        List<DuplicateDetector.Match> matches = ticketService.findSimilar(id, limit);
+        Map<Long, Ticket> byId = ticketService.getTicketsById(matches.stream().map(DuplicateDetector.Match::id).toList());
+        return matches.stream()
+                .filter(match -> byId.containsKey(match.id()))
+                .map(match -> ticketMapper.toSimilar(byId.get(match.id()), match.similarity()))
+                .toList();
     }
 
     @PostMapping
     public ResponseEntity<TicketResponse> create(@RequestBody CreateTicketRequest req) {
-        Ticket created = ticketService.createTicket(req.getTitle(), req.getDescription(), req.getPriority());
+        PriorityClassifier.Prediction suggestion = ticketService.suggestPriority(req.getTitle(), req.getDescription());
+        Ticket created = ticketService.createTicket(req.getTitle(), req.getDescription(), req.getPriority(), suggestion);
         TicketResponse body = ticketMapper.toResponse(created);
 
-        return ResponseEntity
-                .created(URI.create("/api/tickets/" + created.getId()))
-                .body(body);
+        ResponseEntity.BodyBuilder response = ResponseEntity.created(URI.create("/api/tickets/" + created.getId()));
+        if (suggestion != null) {
+            response.header(SUGGESTED_PRIORITY,
+                    String.format(Locale.ROOT, "%s; confidence=%.2f", suggestion.priority(), suggestion.confidence()));
+        }
+        // Ids of likely duplicates, most similar first, so the client can offer to link them.
+        List<DuplicateDetector.Match> duplicates = ticketService.findSimilar(created.getId(), DUPLICATES_ON_CREATE);
+        if (!duplicates.isEmpty()) {
+            response.header(POSSIBLE_DUPLICATES, duplicates.stream()
+                    .map(match -> Long.toString(match.id()))
+                    .collect(Collectors.joining(",")));
+        }
+        return response.body(body);
     }
 
     @PutMapping("/{id}")
@@ -70,9 +133,18 @@ public class TicketController {
         return ticketMapper.toResponse(updated);
     }
 
+    @PutMapping("/{id}/assignee")
+    public TicketResponse assign(@PathVariable long id, @RequestBody AssignTicketRequest req) {
+        return ticketMapper.toResponse(ticketService.assignTicket(id, req.getAssignee()));
+    }
+
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void delete(@PathVariable long id) {
         ticketService.deleteTicket(id);
     }
+
+    private static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,80 @@
+package com.johndoan.helpdesk.api;
+
+import com.johndoan.helpdesk.repo.TicketListVersion;
+import com.johndoan.helpdesk.service.TicketService;
+import com.johndoan.helpdesk.sla.SlaEngine;
+import com.johndoan.helpdesk.sla.SlaEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Strong ETags for ticket reads, computed from {@code updatedAt} projections instead of
+ * the tickets themselves.
+ *
+ * Responses also carry {@code slaState}, which changes with time rather than with
+ * {@code updatedAt}. A ticket tag therefore includes how many of that ticket's SLA
+ * boundaries have passed, so it only moves when the ticket itself crosses one. A list
+ * shows every ticket's state, so list tags include an epoch that moves whenever the
+ * SLA engine fires, and the {@link TicketListChanges} counter. Both include the boot time so a restart (possibly with new SLA
+ * targets) invalidates all tags.
+ */
+@Component
+public class TicketEtags {
+
+    private final TicketService ticketService;
+    private final SlaEngine slaEngine;
+    private final TicketListChanges listChanges;
+    private final long bootEpoch = System.currentTimeMillis();
+    private final AtomicLong listSlaEpoch = new AtomicLong();
+
+    public TicketEtags(TicketService ticketService, SlaEngine slaEngine, TicketListChanges listChanges) {
+        this.ticketService = ticketService;
+        this.slaEngine = slaEngine;
+        this.listChanges = listChanges;
+    }
+
+    @EventListener
+    public void onSlaEvent(SlaEvent event) {
+        listSlaEpoch.incrementAndGet();
+    }
+
+    /** Throws NotFoundException for unknown ids, like loading the ticket would. */
+    public String forTicket(long id) {
+        return hash("ticket", id, ticketService.lastModified(id), bootEpoch,
+                slaEngine.passedBoundaries(id, Instant.now()));
+    }
+
+    public String forList(Object... query) {
+        TicketListVersion version = ticketService.listVersion();
+        Object[] parts = new Object[query.length + 6];
+        parts[0] = "list";
+        parts[1] = version.count();
+        parts[2] = version.lastUpdatedAt();
+        parts[3] = listChanges.version();
+        parts[4] = bootEpoch;
+        parts[5] = listSlaEpoch.get();
+        System.arraycopy(query, 0, parts, 6, query.length);
+        return hash(parts);
+    }
+
+    private static String hash(Object... parts) {
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (Object part : parts) {
+            sha256.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+            sha256.update((byte) 0);
+        }
+        return "\"" + HexFormat.of().formatHex(sha256.digest(), 0, 8) + "\"";
+    }
+}
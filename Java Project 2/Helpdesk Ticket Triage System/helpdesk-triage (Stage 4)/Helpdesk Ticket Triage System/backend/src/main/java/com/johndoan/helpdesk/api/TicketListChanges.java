@@ -0,0 +1,33 @@
+package com.johndoan.helpdesk.api;
+
+import com.johndoan.helpdesk.domain.Ticket;
+import com.johndoan.helpdesk.service.TicketListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts ticket saves and deletes, for list ETags. {@code count(*)} plus
+ * {@code max(updated_at)} can come back unchanged after a real change: delete one
+ * ticket and import another with an older {@code updatedAt}, and both stay the same.
+ * This counter moves on every change.
+ */
+@Component
+class TicketListChanges implements TicketListener {
+
+    private final AtomicLong version = new AtomicLong();
+
+    long version() {
+        return version.get();
+    }
+
+    @Override
+    public void ticketSaved(Ticket ticket) {
+        version.incrementAndGet();
+    }
+
+    @Override
+    public void ticketDeleted(long id) {
+        version.incrementAndGet();
+    }
+}
@@ -1,18 +1,72 @@
 package com.johndoan.helpdesk.api;
 
+import com.johndoan.helpdesk.api.dto.CreateTicketRequest;
+import com.johndoan.helpdesk.api.dto.SimilarTicketResponse;
+import com.johndoan.helpdesk.api.dto.TicketRecord;
 import com.johndoan.helpdesk.api.dto.TicketResponse;
+import com.johndoan.helpdesk.domain.Priority;
 import com.johndoan.helpdesk.domain.Ticket;
+import com.johndoan.helpdesk.domain.TicketStatus;
+import com.johndoan.helpdesk.sla.SlaPolicy;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
+
 @Component
 public class TicketMapper {
+
+    private final SlaPolicy slaPolicy;
+
+    public TicketMapper(SlaPolicy slaPolicy) {
+        this.slaPolicy = slaPolicy;
+    }
+
     public TicketResponse toResponse(Ticket ticket) {
         return new TicketResponse(
                 ticket.getId(),
                 ticket.getTitle(),
                 ticket.getDescription(),
                 ticket.getPriority(),
-                ticket.getStatus()
+                ticket.getStatus(),
+                ticket.getAssignee(),
+                slaPolicy.responseDueAt(ticket),
+                slaPolicy.resolutionDueAt(ticket),
+                slaPolicy.state(ticket, Instant.now())
         );
     }
-}
\ No newline at end of file
+
+    public SimilarTicketResponse toSimilar(Ticket ticket, double similarity) {
+        return new SimilarTicketResponse(ticket.getId(), ticket.getTitle(), ticket.getPriority(),
+                ticket.getStatus(), similarity);
+    }
+
+    public Ticket toNewTicket(CreateTicketRequest req, Priority priority) {
+        Ticket ticket = new Ticket(req.getTitle(), req.getDescription(), priority, TicketStatus.NEW);
+        ticket.setPrioritySuggested(priority != req.getPriority());
+        return ticket;
+    }
+
+    public TicketRecord toRecord(Ticket ticket) {
+        TicketRecord record = new TicketRecord();
+        record.setId(ticket.getId());
+        record.setTitle(ticket.getTitle());
+        record.setDescription(ticket.getDescription());
+        record.setPriority(ticket.getPriority());
+        record.setStatus(ticket.getStatus());
+        record.setAssignee(ticket.getAssignee());
+        record.setCreatedAt(ticket.getCreatedAt());
+        record.setUpdatedAt(ticket.getUpdatedAt());
+        record.setRespondedAt(ticket.getRespondedAt());
+        record.setResolvedAt(ticket.getResolvedAt());
+        record.setPrioritySuggested(ticket.isPrioritySuggested() ? Boolean.TRUE : null);
+        return record;
+    }
+
+    public Ticket fromRecord(TicketRecord record) {
+        TicketStatus status = record.getStatus() != null ? record.getStatus() : TicketStatus.NEW;
+        Ticket ticket = Ticket.restore(record.getTitle(), record.getDescription(), record.getPriority(), status,
+                record.getAssignee(), record.getCreatedAt(), record.getUpdatedAt(), record.getRespondedAt(), record.getResolvedAt());
+        ticket.setPrioritySuggested(Boolean.TRUE.equals(record.getPrioritySuggested()));
+        return ticket;
+    }
+}
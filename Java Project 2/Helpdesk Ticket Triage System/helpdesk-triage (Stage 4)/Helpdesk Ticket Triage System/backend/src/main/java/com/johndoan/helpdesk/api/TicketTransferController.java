@@ -0,0 +1,240 @@
+package com.johndoan.helpdesk.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.johndoan.helpdesk.api.dto.BulkItemResult;
+import com.johndoan.helpdesk.api.dto.BulkItemResult.Outcome;
+import com.johndoan.helpdesk.api.dto.ImportSummary;
+import com.johndoan.helpdesk.api.dto.TicketRecord;
+import com.johndoan.helpdesk.domain.Ticket;
+import com.johndoan.helpdesk.service.TicketService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Backup and migration in NDJSON (one JSON ticket per line).
+ *
+ * Export streams rows from the database straight into the response; import reads the
+ * body line by line and persists it in chunks. Neither side ever holds the full set of
+ * tickets, so heap use stays flat regardless of how many there are.
+ *
+ * Import is append-only: every line becomes a new ticket with a new id, so an export
+ * restores faithfully only into an empty database. Tickets keep the status, assignee
+ * and timestamps they were exported with; nothing is assigned or reclassified.
+ */
+@RestController
+@RequestMapping("/api/tickets")
+public class TicketTransferController {
+
+    public static final String NDJSON = "application/x-ndjson";
+    private static final int MAX_REPORTED_ERRORS = 100;
+    // Fits the largest valid record even with every character written as a six-character JSON escape.
+    private static final int MAX_LINE_CHARS = 16 * 1024;
+
+    private final TicketService ticketService;
+    private final TicketMapper ticketMapper;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter recordWriter;
+    private final ObjectReader recordReader;
+    private final Validator validator;
+    private final int chunkSize;
+
+    public TicketTransferController(TicketService ticketService,
+                                    TicketMapper ticketMapper,
+                                    ObjectMapper objectMapper,
+                                    Validator validator,
+                                    @Value("${helpdesk.bulk.chunk-size:500}") int chunkSize) {
+        this.ticketService = ticketService;
+        this.ticketMapper = ticketMapper;
+        this.objectMapper = objectMapper;
+        this.recordWriter = objectMapper.writerFor(TicketRecord.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.recordReader = objectMapper.readerFor(TicketRecord.class);
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+    }
+
+    @GetMapping(value = "/export", produces = NDJSON)
+    public void exportAll(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(NDJSON);
+        response.setHeader("Content-Disposition", "attachment; filename=\"tickets.ndjson\"");
+
+        try (JsonGenerator out = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            out.setRootValueSeparator(null);
+            try {
+                ticketService.forEachTicket(ticket -> {
+                    try {
+                        recordWriter.writeValue(out, ticketMapper.toRecord(ticket));
+                        out.writeRaw('\n');
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause(); // client went away
+            }
+        }
+    }
+
+    /**
+     * Imports a copy of the exported tickets, not a restore: each one gets a new id, and
+     * importing into a database that already holds them duplicates them. Lines longer
+     * than {@value #MAX_LINE_CHARS} characters are rejected as INVALID without being
+     * read into memory.
+     */
+    @PostMapping(value = "/import", consumes = NDJSON)
+    public ImportSummary importAll(HttpServletRequest request) throws IOException {
+        Counters counters = new Counters();
+        List<Ticket> chunk = new ArrayList<>(chunkSize);
+        List<Integer> chunkLines = new ArrayList<>(chunkSize);
+
+        try (Reader in = new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8)) {
+            BoundedLineReader reader = new BoundedLineReader(in, MAX_LINE_CHARS);
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (reader.truncated()) {
+                    counters.reject(BulkItemResult.failure(lineNumber, Outcome.INVALID, null,
+                            "Line longer than " + MAX_LINE_CHARS + " characters"));
+                    continue;
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                String problem;
+                TicketRecord record = null;
+                try {
+                    record = recordReader.readValue(line);
+                    problem = validate(record);
+                } catch (JsonProcessingException ex) {
+                    problem = "Malformed JSON or invalid enum value";
+                }
+
+                if (problem != null) {
+                    counters.reject(BulkItemResult.failure(lineNumber, Outcome.INVALID, null, problem));
+                    continue;
+                }
+                chunk.add(ticketMapper.fromRecord(record));
+                chunkLines.add(lineNumber);
+                if (chunk.size() == chunkSize) {
+                    persist(chunk, chunkLines, counters);
+                }
+            }
+        }
+        persist(chunk, chunkLines, counters);
+        return new ImportSummary(counters.imported, counters.rejected, counters.errors);
+    }
+
+    private void persist(List<Ticket> chunk, List<Integer> chunkLines, Counters counters) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            ticketService.restoreTickets(chunk);
+            counters.imported += chunk.size();
+        } catch (DataAccessException ex) {
+            for (int lineNumber : chunkLines) {
+                counters.reject(BulkItemResult.failure(lineNumber, Outcome.FAILED, null, "Could not persist chunk"));
+            }
+        }
+        chunk.clear();
+        chunkLines.clear();
+    }
+
+    private String validate(TicketRecord record) {
+        String msg = validator.validate(record).stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+        return msg.isEmpty() ? null : msg;
+    }
+
+    /**
+     * {@link java.io.BufferedReader#readLine()} keeps a whole line however long it is. This
+     * keeps at most {@code maxChars} of one and skips the rest. Carriage returns are
+     * dropped: NDJSON has them only as line-ending or whitespace.
+     */
+    private static final class BoundedLineReader {
+        private final Reader in;
+        private final int maxChars;
+        private final char[] buffer = new char[8192];
+        private final StringBuilder line = new StringBuilder();
+        private int position;
+        private int limit;
+        private boolean truncated;
+
+        BoundedLineReader(Reader in, int maxChars) {
+            this.in = in;
+            this.maxChars = maxChars;
+        }
+
+        /** The next line without its terminator, or null at the end of the input. */
+        String readLine() throws IOException {
+            line.setLength(0);
+            truncated = false;
+            boolean read = false;
+            while (true) {
+                if (position == limit) {
+                    limit = Math.max(in.read(buffer), 0);
+                    position = 0;
+                    if (limit == 0) {
+                        return read ? line.toString() : null;
+                    }
+                }
+                read = true;
+                char c = buffer[position++];
+                if (c == '\n') {
+                    return line.toString();
+                }
+                if (c == '\r') {
+                    continue;
+                }
+                if (line.length() < maxChars) {
+                    line.append(c);
+                } else {
+                    truncated = true;
+                }
+            }
+        }
+
+        /** Whether the last line read was longer than {@code maxChars}. */
+        boolean truncated() {
+            return truncated;
+        }
+    }
+
+    private static final class Counters {
+        long imported;
+        long rejected;
+        final List<BulkItemResult> errors = new ArrayList<>();
+
+        void reject(BulkItemResult error) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(error);
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.johndoan.helpdesk.api.dto;
+
+public class AgentLoadResponse {
+    private final String agent;
+    private final int openTickets;
+
+    public AgentLoadResponse(String agent, int openTickets) {
+        this.agent = agent;
+        this.openTickets = openTickets;
+    }
+
+    public String getAgent() { return agent; }
+    public int getOpenTickets() { return openTickets; }
+}
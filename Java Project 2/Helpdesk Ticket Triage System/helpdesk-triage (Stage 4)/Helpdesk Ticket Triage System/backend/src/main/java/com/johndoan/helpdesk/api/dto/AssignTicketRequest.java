@@ -0,0 +1,9 @@
+package com.johndoan.helpdesk.api.dto;
+
+public class AssignTicketRequest {
+    // null or blank unassigns the ticket
+    private String assignee;
+
+    public String getAssignee() { return assignee; }
+    public void setAssignee(String assignee) { this.assignee = assignee; }
+}
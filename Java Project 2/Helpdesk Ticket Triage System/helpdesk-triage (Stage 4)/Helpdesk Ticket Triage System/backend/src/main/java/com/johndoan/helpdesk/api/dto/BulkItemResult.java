@@ -0,0 +1,38 @@
+package com.johndoan.helpdesk.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome for one element of a bulk request; {@code index} is its position in the
+ * submitted array.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkItemResult {
+
+    public enum Outcome { CREATED, UPDATED, INVALID, NOT_FOUND, FAILED }
+
+    private final int index;
+    private final Outcome outcome;
+    private final Long id;
+    private final String message;
+
+    private BulkItemResult(int index, Outcome outcome, Long id, String message) {
+        this.index = index;
+        this.outcome = outcome;
+        this.id = id;
+        this.message = message;
+    }
+
+    public static BulkItemResult success(int index, Outcome outcome, long id) {
+        return new BulkItemResult(index, outcome, id, null);
+    }
+
+    public static BulkItemResult failure(int index, Outcome outcome, Long id, String message) {
+        return new BulkItemResult(index, outcome, id, message);
+    }
+
+    public int getIndex() { return index; }
+    public Outcome getOutcome() { return outcome; }
+    public Long getId() { return id; }
+    public String getMessage() { return message; }
+}
@@ -0,0 +1,36 @@
+package com.johndoan.helpdesk.api.dto;
+
+import com.johndoan.helpdesk.domain.Priority;
+import com.johndoan.helpdesk.domain.TicketStatus;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public class BulkUpdateTicketRequest {
+    @NotNull
+    private Long id;
+
+    @Size(max = 120)
+    private String title;
+
+    @Size(max = 2000)
+    private String description;
+
+    private Priority priority;
+
+    private TicketStatus status;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public Priority getPriority() { return priority; }
+    public void setPriority(Priority priority) { this.priority = priority; }
+
+    public TicketStatus getStatus() { return status; }
+    public void setStatus(TicketStatus status) { this.status = status; }
+}
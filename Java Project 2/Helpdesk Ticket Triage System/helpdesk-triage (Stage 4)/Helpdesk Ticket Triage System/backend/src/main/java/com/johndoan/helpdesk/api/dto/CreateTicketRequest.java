@@ -2,15 +2,17 @@ package com.johndoan.helpdesk.api.dto;
 
 import com.johndoan.helpdesk.domain.Priority;
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 
 public class CreateTicketRequest {
     @NotBlank
+    @Size(max = 120)
     private String title;
 
+    @Size(max = 2000)
     private String description;
 
-    @NotNull
+    // Optional: the priority classifier fills it in when it has a confident suggestion.
     private Priority priority;
 
     public String getTitle() { return title; }
@@ -0,0 +1,24 @@
+package com.johndoan.helpdesk.api.dto;
+
+import java.util.List;
+
+/**
+ * Result of an NDJSON import. Only the first few rejected lines are listed; their
+ * {@code index} is the 1-based line number.
+ */
+public class ImportSummary {
+
+    private final long imported;
+    private final long rejected;
+    private final List<BulkItemResult> errors;
+
+    public ImportSummary(long imported, long rejected, List<BulkItemResult> errors) {
+        this.imported = imported;
+        this.rejected = rejected;
+        this.errors = errors;
+    }
+
+    public long getImported() { return imported; }
+    public long getRejected() { return rejected; }
+    public List<BulkItemResult> getErrors() { return errors; }
+}
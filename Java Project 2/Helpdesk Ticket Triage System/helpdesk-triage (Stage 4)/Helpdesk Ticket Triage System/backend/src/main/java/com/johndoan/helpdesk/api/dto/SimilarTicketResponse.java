@@ -0,0 +1,27 @@
+package com.johndoan.helpdesk.api.dto;
+
+import com.johndoan.helpdesk.domain.Priority;
+import com.johndoan.helpdesk.domain.TicketStatus;
+
+public class SimilarTicketResponse {
+    private final long id;
+    private final String title;
+    private final Priority priority;
+    private final TicketStatus status;
+    // Estimated Jaccard similarity of the title + description, 0..1
+    private final double similarity;
+
+    public SimilarTicketResponse(long id, String title, Priority priority, TicketStatus status, double similarity) {
+        this.id = id;
+        this.title = title;
+        this.priority = priority;
+        this.status = status;
+        this.similarity = similarity;
+    }
+
+    public long getId() { return id; }
+    public String getTitle() { return title; }
+    public Priority getPriority() { return priority; }
+    public TicketStatus getStatus() { return status; }
+    public double getSimilarity() { return similarity; }
+}
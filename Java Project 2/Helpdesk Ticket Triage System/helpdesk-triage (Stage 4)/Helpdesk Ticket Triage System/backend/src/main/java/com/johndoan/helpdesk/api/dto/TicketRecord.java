@@ -0,0 +1,73 @@
+package com.johndoan.helpdesk.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.johndoan.helpdesk.domain.Priority;
+import com.johndoan.helpdesk.domain.TicketStatus;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.Instant;
+
+/**
+ * One line of an NDJSON export/import. {@code id} is informational on import:
+ * import is append-only and imported tickets get new ids.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TicketRecord {
+    private Long id;
+
+    @NotBlank
+    @Size(max = 120)
+    private String title;
+
+    @NotNull
+    @Size(max = 2000)
+    private String description;
+
+    @NotNull
+    private Priority priority;
+
+    private TicketStatus status;
+    @Size(max = 80)
+    private String assignee;
+    private Instant createdAt;
+    private Instant updatedAt;
+    private Instant respondedAt;
+    private Instant resolvedAt;
+    // Only written when true: the priority classifier chose the priority.
+    private Boolean prioritySuggested;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public Priority getPriority() { return priority; }
+    public void setPriority(Priority priority) { this.priority = priority; }
+
+    public TicketStatus getStatus() { return status; }
+    public void setStatus(TicketStatus status) { this.status = status; }
+
+    public String getAssignee() { return assignee; }
+    public void setAssignee(String assignee) { this.assignee = assignee; }
+
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+
+    public Instant getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+
+    public Instant getRespondedAt() { return respondedAt; }
+    public void setRespondedAt(Instant respondedAt) { this.respondedAt = respondedAt; }
+
+    public Instant getResolvedAt() { return resolvedAt; }
+    public void setResolvedAt(Instant resolvedAt) { this.resolvedAt = resolvedAt; }
+
+    public Boolean getPrioritySuggested() { return prioritySuggested; }
+    public void setPrioritySuggested(Boolean prioritySuggested) { this.prioritySuggested = prioritySuggested; }
+}
@@ -2,6 +2,9 @@ package com.johndoan.helpdesk.api.dto;
 
 import com.johndoan.helpdesk.domain.Priority;
 import com.johndoan.helpdesk.domain.TicketStatus;
+import com.johndoan.helpdesk.sla.SlaState;
+
+import java.time.Instant;
 
 public class TicketResponse {
     private long id;
@@ -9,13 +12,22 @@ public class TicketResponse {
     private String description;
     private Priority priority;
     private TicketStatus status;
+    private String assignee;
+    private Instant responseDueAt;
+    private Instant resolutionDueAt;
+    private SlaState slaState;
 
-    public TicketResponse(long id, String title, String description, Priority priority, TicketStatus status) {
+    public TicketResponse(long id, String title, String description, Priority priority, TicketStatus status,
+                          String assignee, Instant responseDueAt, Instant resolutionDueAt, SlaState slaState) {
         this.id = id;
         this.title = title;
         this.description = description;
         this.priority = priority;
         this.status = status;
+        this.assignee = assignee;
+        this.responseDueAt = responseDueAt;
+        this.resolutionDueAt = resolutionDueAt;
+        this.slaState = slaState;
     }
 
     public long getId() { return id; }
@@ -23,4 +35,8 @@ public class TicketResponse {
     public String getDescription() { return description; }
     public Priority getPriority() { return priority; }
     public TicketStatus getStatus() { return status; }
+    public String getAssignee() { return assignee; }
+    public Instant getResponseDueAt() { return responseDueAt; }
+    public Instant getResolutionDueAt() { return resolutionDueAt; }
+    public SlaState getSlaState() { return slaState; }
 }
\ No newline at end of file
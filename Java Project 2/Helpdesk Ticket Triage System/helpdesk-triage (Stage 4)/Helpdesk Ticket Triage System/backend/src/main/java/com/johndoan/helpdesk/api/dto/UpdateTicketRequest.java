@@ -4,11 +4,14 @@ import com.johndoan.helpdesk.domain.Priority;
 import com.johndoan.helpdesk.domain.TicketStatus;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 
 public class UpdateTicketRequest {
     @NotBlank
+    @Size(max = 120)
     private String title;
 
+    @Size(max = 2000)
     private String description;
 
     @NotNull
@@ -4,11 +4,19 @@ import jakarta.persistence.*;
 import java.time.Instant;
 
 @Entity
-@Table(name = "tickets")
+@Table(name = "tickets", indexes = {
+        @Index(name = "idx_tickets_status", columnList = "status"),
+        @Index(name = "idx_tickets_priority", columnList = "priority"),
+        @Index(name = "idx_tickets_created_at", columnList = "createdAt"),
+        @Index(name = "idx_tickets_updated_at", columnList = "updatedAt")
+})
 public class Ticket {
 
+    // Pooled sequence instead of IDENTITY: ids are reserved in blocks of 50, so inserts
+    // don't need a round-trip each and Hibernate can batch them.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ticket_seq")
+    @SequenceGenerator(name = "ticket_seq", sequenceName = "ticket_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 120)
@@ -31,6 +39,23 @@ public class Ticket {
     @Column(nullable = false)
     private Instant updatedAt;
 
+    // First time the ticket left NEW / last time it reached RESOLVED or CLOSED (SLA tracking).
+    private Instant respondedAt;
+
+    private Instant resolvedAt;
+
+    @Column(length = 80)
+    private String assignee;
+
+    // The priority classifier chose the priority (filled it in or overrode the request)
+    // and no one has set it since.
+    @Column(nullable = false)
+    private boolean prioritySuggested;
+
+    // Set by restore(): the exported respondedAt/resolvedAt are kept as they are, even null.
+    @Transient
+    private boolean restored;
+
     // JPA requires a no-args constructor
     protected Ticket() {}
 
@@ -41,14 +66,35 @@ public class Ticket {
         this.status = status;
     }
 
+    // Recreates a ticket from an export, keeping its original timestamps.
+    public static Ticket restore(String title, String description, Priority priority, TicketStatus status,
+                                 String assignee, Instant createdAt, Instant updatedAt,
+                                 Instant respondedAt, Instant resolvedAt) {
+        Ticket ticket = new Ticket(title, description, priority, status);
+        ticket.assignee = assignee;
+        ticket.createdAt = createdAt;
+        ticket.updatedAt = updatedAt;
+        ticket.respondedAt = respondedAt;
+        ticket.resolvedAt = resolvedAt;
+        ticket.restored = true;
+        return ticket;
+    }
+
     @PrePersist
     void onCreate() {
         Instant now = Instant.now();
-        this.createdAt = now;
-        this.updatedAt = now;
+        if (this.createdAt == null) {
+            this.createdAt = now;
+        }
+        if (this.updatedAt == null) {
+            this.updatedAt = this.createdAt;
+        }
         if (this.status == null) {
             this.status = TicketStatus.NEW;
         }
+        if (!restored) {
+            recordTransition(now);
+        }
     }
 
     @PreUpdate
@@ -63,9 +109,39 @@ public class Ticket {
     public TicketStatus getStatus() { return status; }
     public Instant getCreatedAt() { return createdAt; }
     public Instant getUpdatedAt() { return updatedAt; }
+    public Instant getRespondedAt() { return respondedAt; }
+    public Instant getResolvedAt() { return resolvedAt; }
+    public String getAssignee() { return assignee; }
+    public boolean isPrioritySuggested() { return prioritySuggested; }
 
     public void setTitle(String title) { this.title = title; }
     public void setDescription(String description) { this.description = description; }
-    public void setPriority(Priority priority) { this.priority = priority; }
-    public void setStatus(TicketStatus status) { this.status = status; }
+    public void setAssignee(String assignee) { this.assignee = assignee; }
+    public void setPrioritySuggested(boolean prioritySuggested) { this.prioritySuggested = prioritySuggested; }
+
+    // A priority someone sets, even to the value it already had, is no longer the classifier's.
+    public void setPriority(Priority priority) {
+        this.priority = priority;
+        this.prioritySuggested = false;
+    }
+
+    public void setStatus(TicketStatus status) {
+        this.status = status;
+        recordTransition(Instant.now());
+    }
+
+    public boolean isOpen() {
+        return status != TicketStatus.RESOLVED && status != TicketStatus.CLOSED;
+    }
+
+    private void recordTransition(Instant now) {
+        if (status != TicketStatus.NEW && respondedAt == null) {
+            respondedAt = now;
+        }
+        if (isOpen()) {
+            resolvedAt = null; // reopened
+        } else if (resolvedAt == null) {
+            resolvedAt = now;
+        }
+    }
 }
\ No newline at end of file
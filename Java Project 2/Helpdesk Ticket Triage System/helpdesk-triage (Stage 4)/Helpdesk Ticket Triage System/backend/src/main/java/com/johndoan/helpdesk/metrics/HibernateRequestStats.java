@@ -0,0 +1,41 @@
+package com.johndoan.helpdesk.metrics;
+
+import org.hibernate.Interceptor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Feeds every SQL statement and entity load into the current {@link RequestStats}.
+ * Registered on the session factory, so it must stay stateless.
+ */
+@Component
+public class HibernateRequestStats implements StatementInspector, Interceptor, HibernatePropertiesCustomizer {
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put("hibernate.session_factory.statement_inspector", this);
+        hibernateProperties.put("hibernate.session_factory.interceptor", this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        RequestStats stats = RequestStats.current();
+        if (stats != null) {
+            stats.statement(sql);
+        }
+        return sql;
+    }
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        RequestStats stats = RequestStats.current();
+        if (stats != null) {
+            stats.entityLoaded();
+        }
+        return false;
+    }
+}
@@ -0,0 +1,95 @@
+package com.johndoan.helpdesk.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Records SQL statements and entity loads per API request, and flags likely N+1
+ * queries and slow requests.
+ *
+ * Request latency itself is already timed by Spring's {@code http.server.requests};
+ * this adds what the database did for it. Flagged requests always increment a counter
+ * but only a sample of them is logged, as a single key=value line.
+ */
+@Component
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestMetricsFilter.class);
+
+    private final MeterRegistry registry;
+    private final RequestMetricsProperties properties;
+
+    public RequestMetricsFilter(MeterRegistry registry, RequestMetricsProperties properties) {
+        this.registry = registry;
+        this.properties = properties;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestStats stats = RequestStats.begin();
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestStats.end();
+            record(request, response, stats, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, RequestStats stats, long millis) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        // Raw paths carry ids; never use them as tag values.
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        Tags tags = Tags.of("method", request.getMethod(), "uri", uri);
+
+        DistributionSummary.builder("helpdesk.request.statements")
+                .description("SQL statements per request")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(stats.statements());
+        DistributionSummary.builder("helpdesk.request.entity.loads")
+                .description("Entities loaded per request")
+                .tags(tags)
+                .register(registry)
+                .record(stats.entityLoads());
+
+        Map.Entry<String, Integer> repeated = stats.mostRepeatedSelect();
+        boolean nPlusOne = repeated != null && repeated.getValue() >= properties.getNPlusOneThreshold();
+        boolean slow = millis >= properties.getSlowRequest().toMillis();
+        if (nPlusOne) {
+            Counter.builder("helpdesk.request.n_plus_one").tags(tags).register(registry).increment();
+        }
+        if (slow) {
+            Counter.builder("helpdesk.request.slow").tags(tags).register(registry).increment();
+        }
+        if ((nPlusOne || slow) && ThreadLocalRandom.current().nextDouble() < properties.getLogSampleRate()) {
+            log.warn("event={} method={} uri={} status={} duration_ms={} statements={} entity_loads={} "
+                            + "top_select_count={} top_select=\"{}\"",
+                    nPlusOne ? "n_plus_one" : "slow_request", request.getMethod(), uri, response.getStatus(),
+                    millis, stats.statements(), stats.entityLoads(),
+                    repeated != null ? repeated.getValue() : 0, repeated != null ? repeated.getKey() : "");
+        }
+    }
+}
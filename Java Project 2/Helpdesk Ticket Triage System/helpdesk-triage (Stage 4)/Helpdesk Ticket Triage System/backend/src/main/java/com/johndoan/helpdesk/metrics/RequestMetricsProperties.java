@@ -0,0 +1,30 @@
+package com.johndoan.helpdesk.metrics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Per-request diagnostics, bound from {@code helpdesk.metrics.*}.
+ */
+@ConfigurationProperties(prefix = "helpdesk.metrics")
+public class RequestMetricsProperties {
+
+    /** Requests slower than this are counted and (sampled) logged. */
+    private Duration slowRequest = Duration.ofMillis(500);
+
+    /** The same select running this many times in one request is flagged as a likely N+1. */
+    private int nPlusOneThreshold = 10;
+
+    /** Fraction of flagged requests that are logged; counters always see all of them. */
+    private double logSampleRate = 0.1;
+
+    public Duration getSlowRequest() { return slowRequest; }
+    public void setSlowRequest(Duration slowRequest) { this.slowRequest = slowRequest; }
+
+    public int getNPlusOneThreshold() { return nPlusOneThreshold; }
+    public void setNPlusOneThreshold(int nPlusOneThreshold) { this.nPlusOneThreshold = nPlusOneThreshold; }
+
+    public double getLogSampleRate() { return logSampleRate; }
+    public void setLogSampleRate(double logSampleRate) { this.logSampleRate = logSampleRate; }
+}
@@ -0,0 +1,80 @@
+package com.johndoan.helpdesk.metrics;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * SQL statements and entity loads Hibernate issued while serving the current request.
+ *
+ * Bound to the request thread by {@link RequestMetricsFilter}; work outside a request
+ * (startup replay, SLA timers) is not counted.
+ */
+final class RequestStats {
+
+    private static final ThreadLocal<RequestStats> CURRENT = new ThreadLocal<>();
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private int statements;
+    private int entityLoads;
+    // statement shape -> executions, selects only (batched inserts repeat by design)
+    private final Map<String, Integer> selects = new HashMap<>();
+
+    static RequestStats begin() {
+        RequestStats stats = new RequestStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    static RequestStats current() {
+        return CURRENT.get();
+    }
+
+    void statement(String sql) {
+        statements++;
+        String shape = shape(sql);
+        if (shape.startsWith("select")) {
+            selects.merge(shape, 1, Integer::sum);
+        }
+    }
+
+    void entityLoaded() {
+        entityLoads++;
+    }
+
+    int statements() {
+        return statements;
+    }
+
+    int entityLoads() {
+        return entityLoads;
+    }
+
+    /** The select that ran most often in this request, or null if there was none. */
+    Map.Entry<String, Integer> mostRepeatedSelect() {
+        Map.Entry<String, Integer> top = null;
+        for (Map.Entry<String, Integer> e : selects.entrySet()) {
+            if (top == null || e.getValue() > top.getValue()) {
+                top = e;
+            }
+        }
+        return top;
+    }
+
+    /** SQL with literals and IN lists collapsed, so the same query with other arguments matches. */
+    static String shape(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,26 @@
+package com.johndoan.helpdesk.metrics;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code GET /actuator/slowqueries?limit=N}: statement shapes with the highest maximum
+ * execution time since startup, with count, total and mean.
+ */
+@Component
+@Endpoint(id = "slowqueries")
+public class SlowQueriesEndpoint {
+
+    private final SqlQueryRecorder recorder;
+
+    public SlowQueriesEndpoint(SqlQueryRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @ReadOperation
+    public SqlQueryRecorder.SlowQueriesReport slowest(@Nullable Integer limit) {
+        return recorder.report(limit != null && limit > 0 ? limit : recorder.defaultLimit());
+    }
+}
@@ -0,0 +1,36 @@
+package com.johndoan.helpdesk.metrics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * JDBC statement timing, bound from {@code helpdesk.sql.*}.
+ */
+@ConfigurationProperties(prefix = "helpdesk.sql")
+public class SlowQueryProperties {
+
+    /** Statements taking at least this long are logged. */
+    private Duration slowThreshold = Duration.ofMillis(100);
+
+    /** Slow statements waiting to be logged; beyond this they are dropped (and counted). */
+    private int logQueueCapacity = 1000;
+
+    /** Distinct statement shapes tracked; later ones are folded into "(other)". */
+    private int maxShapes = 500;
+
+    /** Shapes returned by /actuator/slowqueries when no limit is given. */
+    private int topShapes = 20;
+
+    public Duration getSlowThreshold() { return slowThreshold; }
+    public void setSlowThreshold(Duration slowThreshold) { this.slowThreshold = slowThreshold; }
+
+    public int getLogQueueCapacity() { return logQueueCapacity; }
+    public void setLogQueueCapacity(int logQueueCapacity) { this.logQueueCapacity = logQueueCapacity; }
+
+    public int getMaxShapes() { return maxShapes; }
+    public void setMaxShapes(int maxShapes) { this.maxShapes = maxShapes; }
+
+    public int getTopShapes() { return topShapes; }
+    public void setTopShapes(int topShapes) { this.topShapes = topShapes; }
+}
@@ -0,0 +1,163 @@
+package com.johndoan.helpdesk.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Times every JDBC statement (the data source is wrapped by datasource-proxy in
+ * {@code MetricsConfig}) and keeps totals per statement shape for {@link SlowQueriesEndpoint}.
+ *
+ * Statements over the threshold are logged from a background thread so a slow disk or
+ * console never adds to request latency. Only the shape is logged: literals are replaced
+ * with {@code ?} and bind values are never read, just counted.
+ */
+@Component
+public class SqlQueryRecorder implements QueryExecutionListener, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlQueryRecorder.class);
+    private static final String START_NANOS = "helpdesk.startNanos";
+    private static final String OTHER = "(other)";
+
+    private final SlowQueryProperties properties;
+    private final long slowNanos;
+    private final MeterRegistry registry;
+    private final Map<String, ShapeStats> shapes = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final LongAdder droppedLogs = new LongAdder();
+    private final ThreadPoolExecutor logWriter;
+
+    public SqlQueryRecorder(SlowQueryProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.slowNanos = properties.getSlowThreshold().toNanos();
+        this.registry = registry;
+        this.logWriter = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getLogQueueCapacity()),
+                r -> {
+                    Thread t = new Thread(r, "slow-query-log");
+                    t.setDaemon(true);
+                    return t;
+                },
+                (r, executor) -> droppedLogs.increment());
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long start = execInfo.getCustomValue(START_NANOS, Long.class);
+        long nanos = start != null ? System.nanoTime() - start : TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime());
+
+        // A batch repeats one statement; time the execution once per distinct shape.
+        Set<String> executed = new LinkedHashSet<>();
+        int params = 0;
+        for (QueryInfo query : queryInfoList) {
+            executed.add(RequestStats.shape(query.getQuery()));
+            if (!query.getParametersList().isEmpty()) {
+                params = query.getParametersList().get(0).size();
+            }
+        }
+        for (String shape : executed) {
+            statsFor(shape).record(nanos);
+            timerFor(shape).record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        if (nanos >= slowNanos) {
+            int batch = Math.max(execInfo.getBatchSize(), 1);
+            boolean success = execInfo.isSuccess();
+            String sql = String.join("; ", executed);
+            int paramCount = params;
+            logWriter.execute(() -> log.warn(
+                    "event=slow_query elapsed_ms={} success={} batch={} params={} sql=\"{}\"",
+                    TimeUnit.NANOSECONDS.toMillis(nanos), success, batch, paramCount, sql));
+        }
+    }
+
+    public SlowQueriesReport report(int limit) {
+        List<QueryShapeStats> slowest = shapes.entrySet().stream()
+                .map(e -> e.getValue().snapshot(e.getKey()))
+                .sorted(Comparator.comparingDouble(QueryShapeStats::maxMillis).reversed()
+                        .thenComparing(Comparator.comparingDouble(QueryShapeStats::totalMillis).reversed()))
+                .limit(limit)
+                .toList();
+        return new SlowQueriesReport(properties.getSlowThreshold().toMillis(), droppedLogs.sum(), slowest);
+    }
+
+    public int defaultLimit() {
+        return properties.getTopShapes();
+    }
+
+    private ShapeStats statsFor(String shape) {
+        ShapeStats stats = shapes.get(shape);
+        if (stats != null) {
+            return stats;
+        }
+        // Bound memory when queries are built with inlined values.
+        String key = shapes.size() < properties.getMaxShapes() ? shape : OTHER;
+        return shapes.computeIfAbsent(key, k -> new ShapeStats());
+    }
+
+    private Timer timerFor(String shape) {
+        int space = shape.indexOf(' ');
+        String type = space > 0 ? shape.substring(0, space) : shape;
+        String tag = switch (type) {
+            case "select", "insert", "update", "delete", "merge" -> type;
+            default -> "other";
+        };
+        return timers.computeIfAbsent(tag, t -> Timer.builder("helpdesk.sql")
+                .description("JDBC statement execution time")
+                .tag("type", t)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    @Override
+    public void destroy() {
+        logWriter.shutdown();
+    }
+
+    private static final class ShapeStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+
+        void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        QueryShapeStats snapshot(String sql) {
+            long n = count.sum();
+            double total = totalNanos.sum() / 1e6;
+            return new QueryShapeStats(sql, n, total, n == 0 ? 0 : total / n, maxNanos.get() / 1e6);
+        }
+    }
+
+    public record QueryShapeStats(String sql, long count, double totalMillis, double meanMillis, double maxMillis) {
+    }
+
+    public record SlowQueriesReport(long slowThresholdMillis, long droppedLogEntries, List<QueryShapeStats> shapes) {
+    }
+}
@@ -0,0 +1,7 @@
+package com.johndoan.helpdesk.repo;
+
+import java.time.Instant;
+
+// Changes on every create, update and delete, so it can stand in for the whole list in an ETag.
+public record TicketListVersion(long count, Instant lastUpdatedAt) {
+}
@@ -1,7 +1,32 @@
 package com.johndoan.helpdesk.repo;
 
 import com.johndoan.helpdesk.domain.Ticket;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface TicketRepository extends JpaRepository<Ticket, Long> {
-}
\ No newline at end of file
+
+    // Must be consumed inside a transaction and closed. Rows are fetched from the driver
+    // in blocks and loaded read-only (no dirty-checking snapshots).
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select t from Ticket t order by t.id")
+    Stream<Ticket> streamAll();
+
+    // ETag sources: a primary key projection and an index-only aggregate, no entities loaded.
+    @Query("select t.updatedAt from Ticket t where t.id = :id")
+    Optional<Instant> findUpdatedAtById(@Param("id") long id);
+
+    @Query("select new com.johndoan.helpdesk.repo.TicketListVersion(count(t), max(t.updatedAt)) from Ticket t")
+    TicketListVersion listVersion();
+}
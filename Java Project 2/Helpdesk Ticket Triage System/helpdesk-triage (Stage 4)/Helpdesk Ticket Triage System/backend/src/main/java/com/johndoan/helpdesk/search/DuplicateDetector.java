@@ -0,0 +1,360 @@
+package com.johndoan.helpdesk.search;
+
+import com.johndoan.helpdesk.domain.Ticket;
+import com.johndoan.helpdesk.service.TicketListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Near-duplicate detection over ticket title and description with MinHash and
+ * locality-sensitive hashing.
+ *
+ * Each ticket's text is reduced to character 5-shingles and summarised by a
+ * {@value #HASHES}-value MinHash signature; the fraction of equal values estimates the
+ * Jaccard similarity of two tickets. The signature is cut into {@value #BANDS} bands of
+ * {@value #ROWS} values, and tickets sharing any band land in the same bucket, so a lookup
+ * only compares against those candidates (pairs at 0.5 similarity collide with ~75%
+ * probability, at 0.7 with ~98%). At most {@value #MAX_CANDIDATES} candidates are
+ * checked per lookup, which keeps it well under a millisecond however many tickets
+ * share boilerplate text.
+ *
+ * Everything is held in primitive arrays (a few hundred bytes per ticket). Replaced and
+ * deleted tickets leave dead slots behind that are compacted once they outnumber the
+ * live ones.
+ */
+@Component
+public class DuplicateDetector implements TicketListener {
+
+    static final int HASHES = 30;
+    static final int BANDS = 10;
+    static final int ROWS = HASHES / BANDS;
+    private static final int SHINGLE = 5;
+    private static final int MAX_CANDIDATES = 1000;
+    private static final int EMPTY = -1;
+    private static final int MIN_COMPACTION = 1024;
+
+    // Multiply-shift hash family: h_i(x) = high 32 bits of (A[i] * x + B[i]).
+    private static final long[] A = new long[HASHES];
+    private static final long[] B = new long[HASHES];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EEDL);
+        for (int i = 0; i < HASHES; i++) {
+            A[i] = random.nextLong() | 1;
+            B[i] = random.nextLong();
+        }
+    }
+
+    private final double minSimilarity;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Per slot: ticket id (EMPTY once dead), hash of the indexed text, signature,
+    // and the next slot in each band's bucket chain.
+    private long[] ids = new long[1024];
+    private long[] textHashes = new long[1024];
+    private int[] signatures = new int[1024 * HASHES];
+    private int[] next = new int[1024 * BANDS];
+    private int slots;
+    private int dead;
+    private final Map<Long, Integer> slotById = new HashMap<>();
+
+    // Per band: open-addressing table from band key to the newest slot in that bucket.
+    private final BandTable[] bands = new BandTable[BANDS];
+
+    public DuplicateDetector(@Value("${helpdesk.duplicates.min-similarity:0.5}") double minSimilarity) {
+        this.minSimilarity = minSimilarity;
+        for (int b = 0; b < BANDS; b++) {
+            bands[b] = new BandTable();
+        }
+    }
+
+    @Override
+    public void ticketSaved(Ticket ticket) {
+        index(ticket.getId(), ticket.getTitle(), ticket.getDescription());
+    }
+
+    @Override
+    public void ticketDeleted(long id) {
+        remove(id);
+    }
+
+    void index(long id, String title, String description) {
+        long textHash = 31L * (title == null ? 0 : title.hashCode()) + (description == null ? 0 : description.hashCode());
+        lock.readLock().lock();
+        try {
+            Integer slot = slotById.get(id);
+            // Status, priority and assignee changes don't touch the text.
+            if (slot != null && textHashes[slot] == textHash) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        int[] signature = signature(title, description);
+        lock.writeLock().lock();
+        try {
+            Integer previous = slotById.remove(id);
+            if (previous != null) {
+                kill(previous);
+            }
+            if (signature != null) {
+                slotById.put(id, add(id, textHash, signature));
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotById.remove(id);
+            if (slot != null) {
+                kill(slot);
+                compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Tickets whose estimated similarity to ticket {@code id} is at least the configured
+     * minimum, most similar first. Empty if the ticket is unknown.
+     */
+    public List<Match> similarTo(long id, int limit) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slotById.get(id);
+            if (slot == null || limit <= 0) {
+                return List.of();
+            }
+            return matches(slot, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Match> matches(int slot, int limit) {
+        int base = slot * HASHES;
+        Set<Integer> seen = new HashSet<>();
+        List<Match> found = new ArrayList<>();
+        int budget = MAX_CANDIDATES;
+        for (int b = 0; b < BANDS && budget > 0; b++) {
+            int candidate = bands[b].head(bandKey(signatures, base, b));
+            for (; candidate != EMPTY && budget > 0; candidate = next[candidate * BANDS + b]) {
+                if (candidate == slot || ids[candidate] == EMPTY || !seen.add(candidate)) {
+                    continue;
+                }
+                budget--;
+                double similarity = similarity(base, candidate * HASHES);
+                if (similarity >= minSimilarity) {
+                    found.add(new Match(ids[candidate], similarity));
+                }
+            }
+        }
+        found.sort(Comparator.comparingDouble(Match::similarity).reversed().thenComparingLong(Match::id));
+        return found.size() > limit ? List.copyOf(found.subList(0, limit)) : found;
+    }
+
+    private double similarity(int a, int b) {
+        int equal = 0;
+        for (int i = 0; i < HASHES; i++) {
+            if (signatures[a + i] == signatures[b + i]) {
+                equal++;
+            }
+        }
+        return (double) equal / HASHES;
+    }
+
+    private int add(long id, long textHash, int[] signature) {
+        if (slots == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            textHashes = Arrays.copyOf(textHashes, capacity);
+            signatures = Arrays.copyOf(signatures, capacity * HASHES);
+            next = Arrays.copyOf(next, capacity * BANDS);
+        }
+        int slot = slots++;
+        ids[slot] = id;
+        textHashes[slot] = textHash;
+        System.arraycopy(signature, 0, signatures, slot * HASHES, HASHES);
+        for (int b = 0; b < BANDS; b++) {
+            next[slot * BANDS + b] = bands[b].push(bandKey(signature, 0, b), slot);
+        }
+        return slot;
+    }
+
+    private void kill(int slot) {
+        ids[slot] = EMPTY;
+        dead++;
+    }
+
+    // Rebuilds all arrays from the live slots once dead ones are the majority.
+    private void compactIfNeeded() {
+        if (dead < MIN_COMPACTION || dead < slots - dead) {
+            return;
+        }
+        long[] oldIds = ids;
+        long[] oldTextHashes = textHashes;
+        int[] oldSignatures = signatures;
+        int oldSlots = slots;
+
+        int capacity = Math.max(1024, Integer.highestOneBit(Math.max(1, oldSlots - dead)) * 2);
+        ids = new long[capacity];
+        textHashes = new long[capacity];
+        signatures = new int[capacity * HASHES];
+        next = new int[capacity * BANDS];
+        slots = 0;
+        dead = 0;
+        slotById.clear();
+        for (int b = 0; b < BANDS; b++) {
+            bands[b] = new BandTable();
+        }
+
+        int[] signature = new int[HASHES];
+        for (int old = 0; old < oldSlots; old++) {
+            if (oldIds[old] != EMPTY) {
+                System.arraycopy(oldSignatures, old * HASHES, signature, 0, HASHES);
+                slotById.put(oldIds[old], add(oldIds[old], oldTextHashes[old], signature));
+            }
+        }
+    }
+
+    /** MinHash signature of the text's character shingles, or null if there is no text. */
+    static int[] signature(String title, String description) {
+        String text = normalize(title, description);
+        if (text.isEmpty()) {
+            return null;
+        }
+        int[] signature = new int[HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        int last = Math.max(0, text.length() - SHINGLE);
+        for (int start = 0; start <= last; start++) {
+            long shingle = 0;
+            int end = Math.min(text.length(), start + SHINGLE);
+            for (int i = start; i < end; i++) {
+                shingle = shingle * 0x100000001B3L + text.charAt(i);
+            }
+            for (int i = 0; i < HASHES; i++) {
+                int h = (int) ((A[i] * shingle + B[i]) >>> 32);
+                if (h < signature[i]) {
+                    signature[i] = h;
+                }
+            }
+        }
+        return signature;
+    }
+
+    // Lowercased words separated by single spaces, so punctuation and spacing don't matter.
+    private static String normalize(String title, String description) {
+        StringBuilder text = new StringBuilder();
+        for (String token : TicketSearchIndex.tokenize(title)) {
+            text.append(token).append(' ');
+        }
+        for (String token : TicketSearchIndex.tokenize(description)) {
+            text.append(token).append(' ');
+        }
+        return text.toString().trim();
+    }
+
+    private static int bandKey(int[] signature, int base, int band) {
+        int h = 0x9E3779B9 * (band + 1);
+        for (int i = band * ROWS; i < (band + 1) * ROWS; i++) {
+            h = (h ^ signature[base + i]) * 0x01000193;
+            h ^= h >>> 15;
+        }
+        return h;
+    }
+
+    public record Match(long id, double similarity) {
+    }
+
+    /** Open-addressing int -> int map holding the newest slot of each bucket. */
+    private static final class BandTable {
+        private int[] keys = new int[256];
+        private int[] heads = filled(256);
+        private int size;
+
+        int head(int key) {
+            int mask = keys.length - 1;
+            for (int i = mix(key) & mask; heads[i] != EMPTY; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return heads[i];
+                }
+            }
+            return EMPTY;
+        }
+
+        /** Makes {@code slot} the bucket's head and returns the previous head. */
+        int push(int key, int slot) {
+            if ((size + 1) * 4 > keys.length * 3) {
+                grow();
+            }
+            int mask = keys.length - 1;
+            int i = mix(key) & mask;
+            for (; heads[i] != EMPTY; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    int previous = heads[i];
+                    heads[i] = slot;
+                    return previous;
+                }
+            }
+            keys[i] = key;
+            heads[i] = slot;
+            size++;
+            return EMPTY;
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            int[] oldHeads = heads;
+            keys = new int[oldKeys.length * 2];
+            heads = filled(keys.length);
+            int mask = keys.length - 1;
+            for (int j = 0; j < oldKeys.length; j++) {
+                if (oldHeads[j] != EMPTY) {
+                    int i = mix(oldKeys[j]) & mask;
+                    while (heads[i] != EMPTY) {
+                        i = (i + 1) & mask;
+                    }
+                    keys[i] = oldKeys[j];
+                    heads[i] = oldHeads[j];
+                }
+            }
+        }
+
+        private static int mix(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+
+        private static int[] filled(int length) {
+            int[] array = new int[length];
+            Arrays.fill(array, EMPTY);
+            return array;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.johndoan.helpdesk.search;
+
+import com.johndoan.helpdesk.domain.Ticket;
+import com.johndoan.helpdesk.service.TicketListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over ticket title and description.
+ *
+ * Postings live in a sorted map so a prefix query ("vp" -> "vpn") is a range scan
+ * instead of a pass over every ticket. A short prefix can match thousands of terms,
+ * so it is expanded to at most {@value #MAX_PREFIX_EXPANSIONS}: the word itself if it
+ * is a term, then the terms in the most tickets. Results are ranked with BM25. The index is
+ * maintained incrementally through {@link TicketListener}; re-indexing a ticket
+ * replaces its previous postings.
+ */
+@Component
+public class TicketSearchIndex implements TicketListener {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // term -> (ticket id -> term frequency)
+    private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    // ticket id -> its term frequencies, so updates and deletes can retract old postings
+    private final Map<Long, Document> documents = new HashMap<>();
+    private long totalLength;
+
+    @Override
+    public void ticketSaved(Ticket ticket) {
+        index(ticket.getId(), ticket.getTitle(), ticket.getDescription());
+    }
+
+    @Override
+    public void ticketDeleted(long id) {
+        remove(id);
+    }
+
+    void index(long id, String title, String description) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = 0;
+        for (String token : tokenize(title)) {
+            frequencies.merge(token, 1, Integer::sum);
+            length++;
+        }
+        for (String token : tokenize(description)) {
+            frequencies.merge(token, 1, Integer::sum);
+            length++;
+        }
+
+        lock.writeLock().lock();
+        try {
+            retract(id);
+            for (Map.Entry<String, Integer> e : frequencies.entrySet()) {
+                postings.computeIfAbsent(e.getKey(), k -> new HashMap<>()).put(id, e.getValue());
+            }
+            documents.put(id, new Document(frequencies, length));
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            retract(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of the best matching tickets, highest score first. Every
+     * query token of two or more characters also matches terms it is a prefix of.
+     */
+    public List<Long> search(String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Map<Long, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int docCount = documents.size();
+            if (docCount == 0) {
+                return List.of();
+            }
+            double avgLength = (double) totalLength / docCount;
+
+            for (String token : tokens) {
+                for (Map.Entry<String, Map<Long, Integer>> term : matchingTerms(token).entrySet()) {
+                    Map<Long, Integer> docs = term.getValue();
+                    double idf = Math.log(1 + (docCount - docs.size() + 0.5) / (docs.size() + 0.5));
+                    for (Map.Entry<Long, Integer> posting : docs.entrySet()) {
+                        int tf = posting.getValue();
+                        int length = documents.get(posting.getKey()).length();
+                        double norm = tf + K1 * (1 - B + B * length / avgLength);
+                        scores.merge(posting.getKey(), idf * tf * (K1 + 1) / norm, Double::sum);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return topK(scores, limit);
+    }
+
+    private NavigableMap<String, Map<Long, Integer>> matchingTerms(String token) {
+        if (token.length() < MIN_PREFIX_LENGTH) {
+            Map<Long, Integer> exact = postings.get(token);
+            TreeMap<String, Map<Long, Integer>> single = new TreeMap<>();
+            if (exact != null) {
+                single.put(token, exact);
+            }
+            return single;
+        }
+        NavigableMap<String, Map<Long, Integer>> range =
+                postings.subMap(token, true, token + Character.MAX_VALUE, false);
+        if (range.size() <= MAX_PREFIX_EXPANSIONS) {
+            return range;
+        }
+        // Keep the most frequent expansions, not the alphabetically first ones.
+        TreeMap<String, Map<Long, Integer>> capped = new TreeMap<>();
+        Map<Long, Integer> exact = range.get(token);
+        if (exact != null) {
+            capped.put(token, exact);
+        }
+        int room = MAX_PREFIX_EXPANSIONS - capped.size();
+        PriorityQueue<Map.Entry<String, Map<Long, Integer>>> top =
+                new PriorityQueue<>(Comparator.comparingInt(e -> e.getValue().size()));
+        for (Map.Entry<String, Map<Long, Integer>> e : range.entrySet()) {
+            if (e.getKey().equals(token)) {
+                continue;
+            }
+            top.offer(e);
+            if (top.size() > room) {
+                top.poll();
+            }
+        }
+        for (Map.Entry<String, Map<Long, Integer>> e : top) {
+            capped.put(e.getKey(), e.getValue());
+        }
+        return capped;
+    }
+
+    private void retract(long id) {
+        Document previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.frequencies().keySet()) {
+            Map<Long, Integer> docs = postings.get(term);
+            if (docs != null) {
+                docs.remove(id);
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= previous.length();
+    }
+
+    private static List<Long> topK(Map<Long, Double> scores, int limit) {
+        Comparator<Map.Entry<Long, Double>> byScore = Map.Entry.<Long, Double>comparingByValue()
+                .thenComparing(Map.Entry.<Long, Double>comparingByKey().reversed());
+        PriorityQueue<Map.Entry<Long, Double>> heap = new PriorityQueue<>(byScore);
+        for (Map.Entry<Long, Double> e : scores.entrySet()) {
+            heap.offer(e);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        List<Long> ids = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            ids.add(heap.poll().getKey());
+        }
+        Collections.reverse(ids);
+        return ids;
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private record Document(Map<String, Integer> frequencies, int length) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.johndoan.helpdesk.service;
+
+import com.johndoan.helpdesk.domain.Ticket;
+
+/**
+ * In-memory views over tickets (search index, SLA timers, ...) implement this to be
+ * kept in sync by {@link TicketService}. Callbacks run after the change has been
+ * persisted. On startup every existing ticket is replayed through
+ * {@link #ticketSaved(Ticket)}, so implementations must treat it as an upsert.
+ */
+public interface TicketListener {
+
+    void ticketSaved(Ticket ticket);
+
+    void ticketDeleted(long id);
+}
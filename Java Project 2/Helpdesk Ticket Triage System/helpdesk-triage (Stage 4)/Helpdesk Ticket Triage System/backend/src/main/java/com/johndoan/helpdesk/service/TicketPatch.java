@@ -0,0 +1,16 @@
+package com.johndoan.helpdesk.service;
+
+import com.johndoan.helpdesk.domain.Priority;
+import com.johndoan.helpdesk.domain.TicketStatus;
+
+/**
+ * One element of a bulk PATCH. Null fields are left unchanged.
+ */
+public record TicketPatch(
+        long id,
+        String title,
+        String description,
+        Priority priority,
+        TicketStatus status
+) {
+}
@@ -1,35 +1,187 @@
 package com.johndoan.helpdesk.service;
 
+import com.johndoan.helpdesk.agent.TicketAssigner;
 import com.johndoan.helpdesk.domain.Priority;
 import com.johndoan.helpdesk.domain.Ticket;
 import com.johndoan.helpdesk.domain.TicketStatus;
+import com.johndoan.helpdesk.exception.BadRequestException;
 import com.johndoan.helpdesk.exception.NotFoundException;
+import com.johndoan.helpdesk.repo.TicketListVersion;
 import com.johndoan.helpdesk.repo.TicketRepository;
+import com.johndoan.helpdesk.search.DuplicateDetector;
+import com.johndoan.helpdesk.search.TicketSearchIndex;
+import com.johndoan.helpdesk.triage.PriorityClassifier;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "helpdesk.service", histogram = true)
 public class TicketService {
 
+    private static final int MAX_SEARCH_LIMIT = 100;
+    // Same as the assignee column
+    private static final int MAX_ASSIGNEE_LENGTH = 80;
+    // Same as the fetch size on TicketRepository.streamAll
+    private static final int STREAM_BATCH_SIZE = 500;
+
     private final TicketRepository ticketRepository;
+    private final TicketSearchIndex searchIndex;
+    private final DuplicateDetector duplicateDetector;
+    private final TicketAssigner assigner;
+    private final PriorityClassifier priorityClassifier;
+    private final List<TicketListener> listeners;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final EntityManager entityManager;
 
-    public TicketService(TicketRepository ticketRepository) {
+    public TicketService(TicketRepository ticketRepository, TicketSearchIndex searchIndex,
+                         DuplicateDetector duplicateDetector, TicketAssigner assigner,
+                         PriorityClassifier priorityClassifier, List<TicketListener> listeners, TransactionTemplate transactionTemplate,
+                         EntityManager entityManager) {
         this.ticketRepository = ticketRepository;
+        this.searchIndex = searchIndex;
+        this.duplicateDetector = duplicateDetector;
+        this.assigner = assigner;
+        this.priorityClassifier = priorityClassifier;
+        this.listeners = listeners;
+        this.transactionTemplate = transactionTemplate;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.entityManager = entityManager;
+    }
+
+    // Listeners keep their state in memory only, so replay every ticket to them on startup.
+    @PostConstruct
+    void replayTickets() {
+        forEachTicket(this::notifySaved);
     }
 
     public List<Ticket> getAllTickets() {
         return ticketRepository.findAll();
     }
 
+    /**
+     * Hands every ticket, ordered by id, to {@code action} from a single read-only query.
+     * The persistence context is cleared every {@value #STREAM_BATCH_SIZE} rows, so memory
+     * use does not grow with the number of tickets.
+     */
+    public void forEachTicket(Consumer<Ticket> action) {
+        readOnlyTransactionTemplate.executeWithoutResult(tx -> {
+            try (Stream<Ticket> tickets = ticketRepository.streamAll()) {
+                Iterator<Ticket> it = tickets.iterator();
+                int count = 0;
+                while (it.hasNext()) {
+                    action.accept(it.next());
+                    if (++count % STREAM_BATCH_SIZE == 0) {
+                        entityManager.clear();
+                    }
+                }
+            }
+        });
+    }
+
     public Ticket getTicketById(long id) {
         return ticketRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Ticket not found: " + id));
     }
 
+    public Instant lastModified(long id) {
+        return ticketRepository.findUpdatedAtById(id)
+                .orElseThrow(() -> new NotFoundException("Ticket not found: " + id));
+    }
+
+    public TicketListVersion listVersion() {
+        return ticketRepository.listVersion();
+    }
+
+    /** Priority the classifier would give a ticket with this text, or null if it has no confident suggestion. */
+    public PriorityClassifier.Prediction suggestPriority(String title, String description) {
+        return priorityClassifier.suggest(title, description);
+    }
+
+    /**
+     * Priority a new ticket gets: the classifier's suggestion when the caller gave none
+     * or the classifier is set to override, otherwise the requested one. Null if neither.
+     */
+    public Priority resolvePriority(Priority requested, PriorityClassifier.Prediction suggestion) {
+        if (suggestion != null && (requested == null || priorityClassifier.overrides())) {
+            return suggestion.priority();
+        }
+        return requested;
+    }
+
     public Ticket createTicket(String title, String description, Priority priority) {
+        return createTicket(title, description, priority, suggestPriority(title, description));
+    }
+
+    /**
+     * Creates a ticket, taking its priority from {@code suggestion} when the caller gave
+     * none or the classifier is set to override.
+     */
+    public Ticket createTicket(String title, String description, Priority requested,
+                               PriorityClassifier.Prediction suggestion) {
+        Priority priority = resolvePriority(requested, suggestion);
+        if (priority == null) {
+            throw new BadRequestException("priority is required");
+        }
         Ticket ticket = new Ticket(title, description, priority, TicketStatus.NEW); // change OPEN if needed
-        return ticketRepository.save(ticket);
+        ticket.setPrioritySuggested(priority != requested);
+        String agent = assigner.reserveAgent();
+        ticket.setAssignee(agent);
+        Ticket saved;
+        try {
+            saved = ticketRepository.save(ticket);
+        } catch (RuntimeException ex) {
+            assigner.release(agent);
+            throw ex;
+        }
+        notifySaved(saved);
+        return saved;
+    }
+
+    /**
+     * Persists a chunk of new tickets in one transaction so Hibernate can batch the inserts.
+     * Listeners are only notified once the chunk has committed.
+     */
+    public List<Ticket> createTickets(List<Ticket> tickets) {
+        List<String> reserved = new ArrayList<>();
+        for (Ticket ticket : tickets) {
+            if (ticket.getAssignee() == null && ticket.isOpen()) {
+                String agent = assigner.reserveAgent();
+                ticket.setAssignee(agent);
+                reserved.add(agent);
+            }
+        }
+        try {
+            return restoreTickets(tickets);
+        } catch (RuntimeException ex) {
+            reserved.forEach(assigner::release);
+            throw ex;
+        }
+    }
+
+    /**
+     * Like {@link #createTickets}, but saves the tickets exactly as given: for restoring an
+     * export, where an unassigned ticket stays unassigned.
+     */
+    public List<Ticket> restoreTickets(List<Ticket> tickets) {
+        List<Ticket> saved = transactionTemplate.execute(tx -> ticketRepository.saveAll(tickets));
+        saved.forEach(this::notifySaved);
+        return saved;
     }
 
     public Ticket updateTicket(long id, String title, String description, Priority priority, TicketStatus status) {
@@ -40,7 +192,9 @@ public class TicketService {
         existing.setPriority(priority);
         existing.setStatus(status);
 
-        return ticketRepository.save(existing);
+        Ticket saved = ticketRepository.save(existing);
+        notifySaved(saved);
+        return saved;
     }
 
     public Ticket patchTicket(long id, String title, String description, Priority priority, TicketStatus status) {
@@ -51,7 +205,51 @@ public class TicketService {
         if (priority != null) existing.setPriority(priority);
         if (status != null) existing.setStatus(status);
 
-        return ticketRepository.save(existing);
+        Ticket saved = ticketRepository.save(existing);
+        notifySaved(saved);
+        return saved;
+    }
+
+    /**
+     * Applies a chunk of partial updates in one transaction: one select for all ids,
+     * then batched updates at commit. Ids that don't exist are left out of the result.
+     */
+    public Map<Long, Ticket> patchTickets(List<TicketPatch> patches) {
+        Map<Long, Ticket> updated = transactionTemplate.execute(tx -> {
+            List<Long> ids = patches.stream().map(TicketPatch::id).toList();
+            Map<Long, Ticket> existing = ticketRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(Ticket::getId, Function.identity()));
+            for (TicketPatch patch : patches) {
+                Ticket ticket = existing.get(patch.id());
+                if (ticket == null) continue;
+
+                if (patch.title() != null) ticket.setTitle(patch.title());
+                if (patch.description() != null) ticket.setDescription(patch.description());
+                if (patch.priority() != null) ticket.setPriority(patch.priority());
+                if (patch.status() != null) ticket.setStatus(patch.status());
+            }
+            return existing;
+        });
+        updated.values().forEach(this::notifySaved);
+        return updated;
+    }
+
+    /** Assigns the ticket to {@code assignee}, or unassigns it when null or blank. */
+    public Ticket assignTicket(long id, String assignee) {
+        String agent = assignee == null || assignee.isBlank() ? null : assignee.trim();
+        // With no agents configured any name is known, so the length has to be checked here.
+        if (agent != null && agent.length() > MAX_ASSIGNEE_LENGTH) {
+            throw new BadRequestException("assignee must be at most " + MAX_ASSIGNEE_LENGTH + " characters");
+        }
+        if (agent != null && !assigner.isKnownAgent(agent)) {
+            throw new BadRequestException("Unknown agent: " + agent);
+        }
+        Ticket existing = getTicketById(id);
+        existing.setAssignee(agent);
+
+        Ticket saved = ticketRepository.save(existing);
+        notifySaved(saved);
+        return saved;
     }
 
     public void deleteTicket(long id) {
@@ -59,5 +257,51 @@ public class TicketService {
             throw new NotFoundException("Ticket not found: " + id);
         }
         ticketRepository.deleteById(id);
+        for (TicketListener listener : listeners) {
+            listener.ticketDeleted(id);
+        }
+    }
+
+    /** Likely duplicates of the ticket, most similar first; served from the in-memory LSH index. */
+    public List<DuplicateDetector.Match> findSimilar(long id, int limit) {
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+        if (!ticketRepository.existsById(id)) {
+            throw new NotFoundException("Ticket not found: " + id);
+        }
+        return duplicateDetector.similarTo(id, limit);
+    }
+
+    public Map<Long, Ticket> getTicketsById(List<Long> ids) {
+        return ticketRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Ticket::getId, Function.identity()));
+    }
+
+    public List<Ticket> searchTickets(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Query parameter 'q' must not be blank");
+        }
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+
+        List<Long> ids = searchIndex.search(query, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // findAllById does not keep the ranking order, so re-apply it.
+        Map<Long, Ticket> byId = ticketRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Ticket::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private void notifySaved(Ticket ticket) {
+        for (TicketListener listener : listeners) {
+            listener.ticketSaved(ticket);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,130 @@
+package com.johndoan.helpdesk.sla;
+
+import com.johndoan.helpdesk.domain.Ticket;
+import com.johndoan.helpdesk.service.TicketListener;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps a warning and a breach timer for every pending SLA deadline of every open
+ * ticket and publishes {@link SlaEvent}s when they fire, without polling the
+ * database.
+ *
+ * Timers live in a {@link HashedWheelTimer}, so (re)scheduling a ticket on each
+ * change is O(1). The engine is fed through {@link TicketListener}, which also
+ * replays all tickets on startup.
+ *
+ * Only deadlines still ahead are armed. A ticket saved (or replayed) after its
+ * due date is not reported again: its breach was published when it happened, or
+ * passed while the app was down, and either way {@link SlaPolicy#state} shows it
+ * as BREACHED.
+ *
+ * The engine also remembers every ticket's SLA boundaries (warning and due instants),
+ * so callers can tell whether a ticket's {@code slaState} has moved since a given
+ * time without loading it; see {@link #passedBoundaries}.
+ */
+@Component
+public class SlaEngine implements TicketListener, DisposableBean {
+
+    private static final int WHEEL_SIZE = 4096;
+
+    private final SlaPolicy policy;
+    private final ApplicationEventPublisher publisher;
+    private final HashedWheelTimer timer;
+    private final ConcurrentHashMap<Long, Armed> timers = new ConcurrentHashMap<>();
+
+    public SlaEngine(SlaPolicy policy, SlaProperties properties, ApplicationEventPublisher publisher) {
+        this.policy = policy;
+        this.publisher = publisher;
+        this.timer = new HashedWheelTimer(properties.getTick(), WHEEL_SIZE, "sla-timer");
+    }
+
+    @Override
+    public void ticketSaved(Ticket ticket) {
+        long id = ticket.getId();
+        Instant now = Instant.now();
+
+        List<HashedWheelTimer.Timeout> scheduled = new ArrayList<>(4);
+        List<Instant> boundaries = new ArrayList<>(4);
+        for (SlaPolicy.Deadline deadline : policy.pendingDeadlines(ticket)) {
+            boundaries.add(deadline.warnAt());
+            boundaries.add(deadline.dueAt());
+            if (deadline.warnAt().isAfter(now)) {
+                scheduled.add(schedule(id, deadline, SlaEvent.Type.WARNING, deadline.warnAt(), now));
+            }
+            if (deadline.dueAt().isAfter(now)) {
+                scheduled.add(schedule(id, deadline, SlaEvent.Type.BREACH, deadline.dueAt(), now));
+            }
+        }
+
+        // Swap atomically so concurrent saves of the same ticket can't leave stale timers behind.
+        timers.compute(id, (key, previous) -> {
+            cancel(previous);
+            return boundaries.isEmpty() ? null : new Armed(scheduled, boundaries);
+        });
+    }
+
+    @Override
+    public void ticketDeleted(long id) {
+        cancel(timers.remove(id));
+    }
+
+    /** Number of open tickets the engine is tracking. */
+    public int trackedTickets() {
+        return timers.size();
+    }
+
+    /**
+     * Number of the ticket's SLA boundaries at or before {@code now}. It only changes
+     * when the ticket is saved or when its {@code slaState} can change with time.
+     */
+    public int passedBoundaries(long ticketId, Instant now) {
+        Armed armed = timers.get(ticketId);
+        if (armed == null) {
+            return 0;
+        }
+        int passed = 0;
+        for (Instant boundary : armed.boundaries()) {
+            if (!boundary.isAfter(now)) {
+                passed++;
+            }
+        }
+        return passed;
+    }
+
+    /** Number of armed warning/breach timers. */
+    public int pendingTimers() {
+        return timer.size();
+    }
+
+    @Override
+    public void destroy() {
+        timer.close();
+    }
+
+    private HashedWheelTimer.Timeout schedule(long ticketId, SlaPolicy.Deadline deadline, SlaEvent.Type type,
+                                              Instant at, Instant now) {
+        SlaEvent event = new SlaEvent(ticketId, deadline.target(), type, deadline.dueAt());
+        return timer.schedule(Duration.between(now, at), () -> fire(event));
+    }
+
+    private void fire(SlaEvent event) {
+        publisher.publishEvent(event);
+    }
+
+    private static void cancel(Armed armed) {
+        if (armed != null) {
+            armed.timeouts().forEach(HashedWheelTimer.Timeout::cancel);
+        }
+    }
+
+    private record Armed(List<HashedWheelTimer.Timeout> timeouts, List<Instant> boundaries) {
+    }
+}
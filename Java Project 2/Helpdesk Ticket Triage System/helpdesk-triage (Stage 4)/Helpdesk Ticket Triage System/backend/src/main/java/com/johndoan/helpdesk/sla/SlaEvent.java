@@ -0,0 +1,12 @@
+package com.johndoan.helpdesk.sla;
+
+import java.time.Instant;
+
+/**
+ * Published by {@link SlaEngine} when a ticket crosses its warning threshold or
+ * misses a deadline.
+ */
+public record SlaEvent(long ticketId, SlaTarget target, Type type, Instant dueAt) {
+
+    public enum Type { WARNING, BREACH }
+}
@@ -0,0 +1,25 @@
+package com.johndoan.helpdesk.sla;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Default consumer of {@link SlaEvent}s. Listeners run on the timer thread, so
+ * anything slow (mail, chat notifications) should hand off to its own executor.
+ */
+@Component
+public class SlaEventLogger {
+
+    private static final Logger log = LoggerFactory.getLogger(SlaEventLogger.class);
+
+    @EventListener
+    public void onSlaEvent(SlaEvent event) {
+        if (event.type() == SlaEvent.Type.BREACH) {
+            log.warn("SLA breach: ticket {} missed its {} deadline ({})", event.ticketId(), event.target(), event.dueAt());
+        } else {
+            log.info("SLA warning: ticket {} is close to its {} deadline ({})", event.ticketId(), event.target(), event.dueAt());
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.johndoan.helpdesk.sla;
+
+import com.johndoan.helpdesk.domain.Ticket;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pure SLA arithmetic: due dates and state for a ticket, derived from its priority,
+ * {@code createdAt}, {@code respondedAt} and {@code resolvedAt}.
+ */
+@Component
+public class SlaPolicy {
+
+    private final SlaProperties properties;
+
+    public SlaPolicy(SlaProperties properties) {
+        this.properties = properties;
+    }
+
+    public Instant responseDueAt(Ticket ticket) {
+        return dueAt(ticket, SlaTarget.RESPONSE);
+    }
+
+    public Instant resolutionDueAt(Ticket ticket) {
+        return dueAt(ticket, SlaTarget.RESOLUTION);
+    }
+
+    public SlaState state(Ticket ticket, Instant now) {
+        Instant responseDue = responseDueAt(ticket);
+        Instant resolutionDue = resolutionDueAt(ticket);
+        if (responseDue == null || resolutionDue == null) {
+            return null;
+        }
+
+        Instant respondedAt = ticket.getRespondedAt();
+        if (late(respondedAt, responseDue, now) || late(ticket.getResolvedAt(), resolutionDue, now)) {
+            return SlaState.BREACHED;
+        }
+        if (!ticket.isOpen()) {
+            return SlaState.MET;
+        }
+
+        Instant warnAt = respondedAt == null
+                ? warningAt(ticket.getCreatedAt(), responseDue)
+                : warningAt(ticket.getCreatedAt(), resolutionDue);
+        return now.isBefore(warnAt) ? SlaState.ON_TRACK : SlaState.AT_RISK;
+    }
+
+    /** Deadlines still ahead of this ticket (none once it is resolved). */
+    public List<Deadline> pendingDeadlines(Ticket ticket) {
+        List<Deadline> deadlines = new ArrayList<>(2);
+        if (ticket.getCreatedAt() == null || !ticket.isOpen()) {
+            return deadlines;
+        }
+        if (ticket.getRespondedAt() == null) {
+            Instant due = responseDueAt(ticket);
+            deadlines.add(new Deadline(SlaTarget.RESPONSE, warningAt(ticket.getCreatedAt(), due), due));
+        }
+        Instant due = resolutionDueAt(ticket);
+        deadlines.add(new Deadline(SlaTarget.RESOLUTION, warningAt(ticket.getCreatedAt(), due), due));
+        return deadlines;
+    }
+
+    private Instant dueAt(Ticket ticket, SlaTarget target) {
+        if (ticket.getCreatedAt() == null || ticket.getPriority() == null) {
+            return null;
+        }
+        Duration allowed = (target == SlaTarget.RESPONSE ? properties.getResponse() : properties.getResolution())
+                .get(ticket.getPriority());
+        return allowed == null ? null : ticket.getCreatedAt().plus(allowed);
+    }
+
+    private Instant warningAt(Instant start, Instant due) {
+        long millis = Duration.between(start, due).toMillis();
+        return start.plusMillis((long) (millis * properties.getWarningThreshold()));
+    }
+
+    private static boolean late(Instant doneAt, Instant due, Instant now) {
+        return doneAt != null ? doneAt.isAfter(due) : now.isAfter(due);
+    }
+
+    public record Deadline(SlaTarget target, Instant warnAt, Instant dueAt) {
+    }
+}
@@ -0,0 +1,43 @@
+package com.johndoan.helpdesk.sla;
+
+import com.johndoan.helpdesk.domain.Priority;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * SLA targets per priority, bound from {@code helpdesk.sla.*}.
+ */
+@ConfigurationProperties(prefix = "helpdesk.sla")
+public class SlaProperties {
+
+    private Map<Priority, Duration> response = new EnumMap<>(Map.of(
+            Priority.HIGH, Duration.ofHours(1),
+            Priority.MEDIUM, Duration.ofHours(4),
+            Priority.LOW, Duration.ofDays(1)));
+
+    private Map<Priority, Duration> resolution = new EnumMap<>(Map.of(
+            Priority.HIGH, Duration.ofHours(8),
+            Priority.MEDIUM, Duration.ofDays(3),
+            Priority.LOW, Duration.ofDays(7)));
+
+    /** Fraction of the target after which a warning is raised (0.75 = 75% of the time used). */
+    private double warningThreshold = 0.75;
+
+    /** Resolution of the timer wheel; deadlines fire at most one tick late. */
+    private Duration tick = Duration.ofSeconds(1);
+
+    public Map<Priority, Duration> getResponse() { return response; }
+    public void setResponse(Map<Priority, Duration> response) { this.response = response; }
+
+    public Map<Priority, Duration> getResolution() { return resolution; }
+    public void setResolution(Map<Priority, Duration> resolution) { this.resolution = resolution; }
+
+    public double getWarningThreshold() { return warningThreshold; }
+    public void setWarningThreshold(double warningThreshold) { this.warningThreshold = warningThreshold; }
+
+    public Duration getTick() { return tick; }
+    public void setTick(Duration tick) { this.tick = tick; }
+}
@@ -0,0 +1,8 @@
+package com.johndoan.helpdesk.sla;
+
+public enum SlaState {
+    ON_TRACK,
+    AT_RISK,
+    BREACHED,
+    MET
+}
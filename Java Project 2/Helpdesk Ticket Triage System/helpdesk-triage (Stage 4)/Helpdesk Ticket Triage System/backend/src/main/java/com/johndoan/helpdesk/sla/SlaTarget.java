@@ -0,0 +1,8 @@
+package com.johndoan.helpdesk.sla;
+
+public enum SlaTarget {
+    /** First reaction: the ticket leaves NEW. */
+    RESPONSE,
+    /** The ticket reaches RESOLVED or CLOSED. */
+    RESOLUTION
+}
@@ -0,0 +1,41 @@
+package com.johndoan.helpdesk.triage;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Priority classifier settings, bound from {@code helpdesk.classifier.*}.
+ */
+@ConfigurationProperties(prefix = "helpdesk.classifier")
+public class ClassifierProperties {
+
+    /**
+     * OFF: no training or suggestions. SUGGEST: the caller's priority is kept and the
+     * suggestion is only reported. OVERRIDE: confident suggestions replace it.
+     */
+    public enum Mode { OFF, SUGGEST, OVERRIDE }
+
+    private Mode mode = Mode.SUGGEST;
+
+    /** Suggestions below this probability (0..1) are dropped. */
+    private double minConfidence = 0.6;
+
+    /** Resolved tickets needed before any suggestion is made. */
+    private int minTrainingTickets = 50;
+
+    /** How often newly resolved tickets are folded into the scoring model. */
+    private Duration retrainInterval = Duration.ofSeconds(5);
+
+    public Mode getMode() { return mode; }
+    public void setMode(Mode mode) { this.mode = mode; }
+
+    public double getMinConfidence() { return minConfidence; }
+    public void setMinConfidence(double minConfidence) { this.minConfidence = minConfidence; }
+
+    public int getMinTrainingTickets() { return minTrainingTickets; }
+    public void setMinTrainingTickets(int minTrainingTickets) { this.minTrainingTickets = minTrainingTickets; }
+
+    public Duration getRetrainInterval() { return retrainInterval; }
+    public void setRetrainInterval(Duration retrainInterval) { this.retrainInterval = retrainInterval; }
+}
@@ -0,0 +1,252 @@
+package com.johndoan.helpdesk.triage;
+
+import com.johndoan.helpdesk.domain.Priority;
+import com.johndoan.helpdesk.domain.Ticket;
+import com.johndoan.helpdesk.search.TicketSearchIndex;
+import com.johndoan.helpdesk.service.TicketListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Suggests a priority for a new ticket from its title and description with a
+ * multinomial naive Bayes model, trained on the priority resolved and closed tickets
+ * ended up with.
+ *
+ * Word unigrams and bigrams are hashed into {@code 2^}{@value #FEATURE_BITS} buckets
+ * (title and description separately), so the model is a few fixed-size primitive
+ * arrays however large the vocabulary gets. Resolved tickets arrive through
+ * {@link TicketListener}, which also replays history on startup; each is counted once
+ * into per-priority feature counts. A background thread turns the counts into a
+ * log-probability table every {@code retrain-interval} and publishes it, so scoring a
+ * ticket is one array read per feature and class and never waits on training.
+ *
+ * A ticket whose priority the classifier chose itself and nobody changed is not learned
+ * from: in override mode most tickets would be, and the model would only reinforce its
+ * own guesses. Only priorities a person set or changed are training data.
+ */
+@Component
+public class PriorityClassifier implements TicketListener, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(PriorityClassifier.class);
+
+    static final int FEATURE_BITS = 18;
+    private static final int FEATURES = 1 << FEATURE_BITS;
+    private static final Priority[] CLASSES = Priority.values();
+    private static final double ALPHA = 0.1;
+    private static final int TITLE_SEED = 0x7A1E5EED;
+    private static final int DESCRIPTION_SEED = 0x0DE5C5ED;
+
+    private final ClassifierProperties properties;
+    private final ScheduledExecutorService retrainer;
+
+    // Training state, guarded by itself: per-class feature counts, their totals, and examples seen.
+    private final int[][] counts = new int[CLASSES.length][FEATURES];
+    private final long[] totals = new long[CLASSES.length];
+    private final int[] examples = new int[CLASSES.length];
+    private final BitSet trained = new BitSet();
+    private boolean dirty;
+
+    // Last published model; null until enough tickets have been resolved.
+    private volatile Model model;
+
+    public PriorityClassifier(ClassifierProperties properties) {
+        this.properties = properties;
+        if (properties.getMode() == ClassifierProperties.Mode.OFF) {
+            this.retrainer = null;
+            return;
+        }
+        this.retrainer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "priority-classifier");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getRetrainInterval().toMillis();
+        retrainer.scheduleWithFixedDelay(this::retrainQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void ticketSaved(Ticket ticket) {
+        if (retrainer == null || ticket.isOpen() || ticket.getPriority() == null || ticket.isPrioritySuggested()) {
+            return;
+        }
+        learn(ticket.getId(), ticket.getTitle(), ticket.getDescription(), ticket.getPriority());
+    }
+
+    // What the model learned from a deleted ticket still holds, so there is nothing to undo.
+    @Override
+    public void ticketDeleted(long id) {
+    }
+
+    void learn(long id, String title, String description, Priority priority) {
+        int[] features = features(title, description);
+        if (features.length == 0) {
+            return;
+        }
+        int c = priority.ordinal();
+        synchronized (counts) {
+            // A ticket that is reopened and resolved again is only counted the first time.
+            if (id <= Integer.MAX_VALUE) {
+                if (trained.get((int) id)) {
+                    return;
+                }
+                trained.set((int) id);
+            }
+            int[] row = counts[c];
+            for (int feature : features) {
+                row[feature]++;
+            }
+            totals[c] += features.length;
+            examples[c]++;
+            dirty = true;
+        }
+    }
+
+    /**
+     * The most likely priority for a ticket with this text, or null if the classifier is
+     * off, has not seen enough resolved tickets yet, or is less sure than
+     * {@code min-confidence}.
+     */
+    public Prediction suggest(String title, String description) {
+        Model current = model;
+        if (current == null || retrainer == null) {
+            return null;
+        }
+        Prediction prediction = current.predict(features(title, description));
+        return prediction.confidence() >= properties.getMinConfidence() ? prediction : null;
+    }
+
+    /** True if confident suggestions should replace the priority the caller asked for. */
+    public boolean overrides() {
+        return properties.getMode() == ClassifierProperties.Mode.OVERRIDE;
+    }
+
+    /** Resolved tickets the published model was built from. */
+    public int trainingTickets() {
+        Model current = model;
+        return current == null ? 0 : current.examples();
+    }
+
+    /** Rebuilds the scoring model from the current counts if anything was learned since the last run. */
+    void retrain() {
+        int[][] countsCopy = new int[CLASSES.length][];
+        long[] totalsCopy;
+        int[] examplesCopy;
+        synchronized (counts) {
+            if (!dirty) {
+                return;
+            }
+            dirty = false;
+            for (int c = 0; c < CLASSES.length; c++) {
+                countsCopy[c] = counts[c].clone();
+            }
+            totalsCopy = totals.clone();
+            examplesCopy = examples.clone();
+        }
+        int seen = Arrays.stream(examplesCopy).sum();
+        if (seen < properties.getMinTrainingTickets()) {
+            return;
+        }
+        model = Model.build(countsCopy, totalsCopy, examplesCopy, seen);
+    }
+
+    private void retrainQuietly() {
+        try {
+            retrain();
+        } catch (RuntimeException e) {
+            log.warn("Priority classifier retraining failed", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (retrainer != null) {
+            retrainer.shutdownNow();
+        }
+    }
+
+    /** Hashed unigram and bigram bucket of every word in the title and description. */
+    static int[] features(String title, String description) {
+        List<String> titleTokens = TicketSearchIndex.tokenize(title);
+        List<String> descriptionTokens = TicketSearchIndex.tokenize(description);
+        int[] features = new int[2 * (titleTokens.size() + descriptionTokens.size())];
+        int n = addField(features, 0, titleTokens, TITLE_SEED);
+        n = addField(features, n, descriptionTokens, DESCRIPTION_SEED);
+        return n == features.length ? features : Arrays.copyOf(features, n);
+    }
+
+    private static int addField(int[] features, int n, List<String> tokens, int seed) {
+        int previous = 0;
+        for (int i = 0; i < tokens.size(); i++) {
+            int h = mix(seed ^ tokens.get(i).hashCode());
+            features[n++] = h >>> (32 - FEATURE_BITS);
+            if (i > 0) {
+                features[n++] = mix(previous * 0x01000193 + h) >>> (32 - FEATURE_BITS);
+            }
+            previous = h;
+        }
+        return n;
+    }
+
+    private static int mix(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    public record Prediction(Priority priority, double confidence) {
+    }
+
+    /**
+     * Immutable log-probabilities, laid out feature-major so the classes of one feature
+     * share a cache line.
+     */
+    private record Model(float[] weights, double[] priors, int examples) {
+
+        static Model build(int[][] counts, long[] totals, int[] examples, int seen) {
+            int classes = CLASSES.length;
+            float[] weights = new float[FEATURES * classes];
+            double[] priors = new double[classes];
+            for (int c = 0; c < classes; c++) {
+                priors[c] = Math.log((examples[c] + 1.0) / (seen + classes));
+                double denominator = Math.log(totals[c] + ALPHA * FEATURES);
+                // Most buckets were never seen for a class; they share one smoothed value.
+                float unseen = (float) (Math.log(ALPHA) - denominator);
+                int[] row = counts[c];
+                for (int f = 0; f < FEATURES; f++) {
+                    weights[f * classes + c] = row[f] == 0 ? unseen : (float) (Math.log(row[f] + ALPHA) - denominator);
+                }
+            }
+            return new Model(weights, priors, seen);
+        }
+
+        Prediction predict(int[] features) {
+            int classes = CLASSES.length;
+            double[] scores = priors.clone();
+            for (int feature : features) {
+                int base = feature * classes;
+                for (int c = 0; c < classes; c++) {
+                    scores[c] += weights[base + c];
+                }
+            }
+            int best = 0;
+            for (int c = 1; c < classes; c++) {
+                if (scores[c] > scores[best]) {
+                    best = c;
+                }
+            }
+            double sum = 0;
+            for (int c = 0; c < classes; c++) {
+                sum += Math.exp(scores[c] - scores[best]);
+            }
+            return new Prediction(CLASSES[best], 1.0 / sum);
+        }
+    }
+}
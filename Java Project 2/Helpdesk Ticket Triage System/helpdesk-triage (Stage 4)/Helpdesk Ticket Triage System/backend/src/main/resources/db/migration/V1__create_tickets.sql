@@ -0,0 +1,23 @@
+-- Baseline schema for the prod and local profiles (the default profile still lets
+-- Hibernate create the in-memory schema). Keep in sync with the Ticket entity;
+-- FlywaySchemaTest validates the two against each other.
+
+-- Ticket ids are allocated in blocks of 50 (allocationSize on Ticket.id).
+create sequence ticket_seq start with 1 increment by 50;
+
+create table tickets (
+    id           bigint                      not null primary key,
+    title        varchar(120)                not null,
+    description  varchar(2000)               not null,
+    priority     varchar(30)                 not null,
+    status       varchar(30)                 not null,
+    assignee     varchar(80),
+    created_at   timestamp(6) with time zone not null,
+    updated_at   timestamp(6) with time zone not null,
+    responded_at timestamp(6) with time zone,
+    resolved_at  timestamp(6) with time zone
+);
+
+create index idx_tickets_status on tickets (status);
+create index idx_tickets_priority on tickets (priority);
+create index idx_tickets_created_at on tickets (created_at);
@@ -0,0 +1,2 @@
+-- Conditional GETs read count(*) and max(updated_at) on every poll.
+create index idx_tickets_updated_at on tickets (updated_at);
@@ -0,0 +1,2 @@
+-- The priority classifier must not learn from priorities it chose itself.
+alter table tickets add column priority_suggested boolean default false not null;
@@ -0,0 +1,95 @@
+package com.johndoan.helpdesk.agent;
+
+import com.johndoan.helpdesk.domain.Priority;
+import com.johndoan.helpdesk.domain.Ticket;
+import com.johndoan.helpdesk.domain.TicketStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AgentWorkloadIndexTest {
+
+    @Test
+    void tracksOpenTicketsAcrossReassignResolveAndDelete() {
+        AgentWorkloadIndex index = new AgentWorkloadIndex(properties("alice", "bob"));
+
+        Ticket first = ticket(1, "alice");
+        index.ticketSaved(first);
+        index.ticketSaved(ticket(2, "alice"));
+        index.ticketSaved(first); // saving again without changes doesn't double count
+        assertEquals(2, index.openTickets("alice"));
+
+        first.setAssignee("bob");
+        index.ticketSaved(first);
+        assertEquals(1, index.openTickets("alice"));
+        assertEquals(1, index.openTickets("bob"));
+
+        first.setStatus(TicketStatus.RESOLVED);
+        index.ticketSaved(first);
+        assertEquals(0, index.openTickets("bob"));
+
+        first.setStatus(TicketStatus.IN_PROGRESS);
+        index.ticketSaved(first);
+        assertEquals(1, index.openTickets("bob"));
+
+        index.ticketDeleted(1);
+        index.ticketDeleted(2);
+        assertEquals(List.of(new AgentWorkloadIndex.AgentLoad("alice", 0), new AgentWorkloadIndex.AgentLoad("bob", 0)),
+                index.loads());
+    }
+
+    @Test
+    void picksLeastLoadedCandidateWithTiesByName() {
+        AgentWorkloadIndex index = new AgentWorkloadIndex(properties("carol", "alice", "bob"));
+        Set<String> all = Set.of("alice", "bob", "carol");
+
+        index.ticketSaved(ticket(1, "alice"));
+        index.ticketSaved(ticket(2, "bob"));
+        index.ticketSaved(ticket(3, "ex-agent")); // no longer configured: counted, never picked
+        assertEquals("carol", index.reserveLeastLoaded(all));
+        assertEquals(1, index.openTickets("ex-agent"));
+        // Everyone has one now; ties go to the first name.
+        assertEquals("alice", index.reserveLeastLoaded(all));
+    }
+
+    @Test
+    void picksAreReservedUntilTheirTicketsAreSaved() {
+        AgentWorkloadIndex index = new AgentWorkloadIndex(properties("alice", "bob"));
+        Set<String> all = Set.of("alice", "bob");
+
+        // A chunk picks all its agents before any ticket is saved, and still spreads out.
+        List<String> picks = List.of(index.reserveLeastLoaded(all), index.reserveLeastLoaded(all),
+                index.reserveLeastLoaded(all), index.reserveLeastLoaded(all));
+        assertEquals(List.of("alice", "bob", "alice", "bob"), picks);
+
+        // Saving takes the reservations over instead of counting the tickets again.
+        index.ticketSaved(ticket(1, "alice"));
+        index.ticketSaved(ticket(2, "bob"));
+        assertEquals(2, index.openTickets("alice"));
+        assertEquals(2, index.openTickets("bob"));
+
+        // The other two were rolled back.
+        index.release("alice");
+        index.release("bob");
+        index.release("bob"); // nothing left to release
+        assertEquals(1, index.openTickets("alice"));
+        assertEquals(1, index.openTickets("bob"));
+    }
+
+    private static AgentProperties properties(String... names) {
+        AgentProperties properties = new AgentProperties();
+        properties.setNames(List.of(names));
+        return properties;
+    }
+
+    private static Ticket ticket(long id, String assignee) {
+        Ticket ticket = new Ticket("Title " + id, "Description", Priority.MEDIUM, TicketStatus.NEW);
+        ReflectionTestUtils.setField(ticket, "id", id);
+        ticket.setAssignee(assignee);
+        return ticket;
+    }
+}
@@ -0,0 +1,90 @@
+package com.johndoan.helpdesk.api;
+
+import com.johndoan.helpdesk.service.TicketService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// A bad element must be reported INVALID on its own, not fail the chunk it would have been saved with.
+// Invalid elements are written straight away and the chunk's results after it commits, so results are
+// matched by index rather than position.
+@SpringBootTest
+@AutoConfigureMockMvc
+class BulkTicketControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @SpyBean
+    private TicketService ticketService;
+
+    @Test
+    void oversizedFieldsAreInvalidAndTheRestOfTheChunkIsCreated() throws Exception {
+        String longTitle = "t".repeat(121);
+        String longDescription = "d".repeat(2001);
+        String body = """
+                [
+                  { "title": "VPN down", "description": "Cannot connect", "priority": "HIGH" },
+                  { "title": "%s", "description": "x", "priority": "LOW" },
+                  { "title": "Printer jam", "description": "%s", "priority": "LOW" }
+                ]
+                """.formatted(longTitle, longDescription);
+
+        mockMvc.perform(post("/api/tickets/bulk").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[?(@.index == 0)].outcome").value("CREATED"))
+                .andExpect(jsonPath("$[?(@.index == 1)].outcome").value("INVALID"))
+                .andExpect(jsonPath("$[?(@.index == 1)].message").value("title: size must be between 0 and 120"))
+                .andExpect(jsonPath("$[?(@.index == 2)].outcome").value("INVALID"))
+                .andExpect(jsonPath("$[?(@.index == 2)].message")
+                        .value("description: size must be between 0 and 2000"));
+    }
+
+    @Test
+    void anUnexpectedChunkFailureIsReportedAndTheArrayIsStillClosed() throws Exception {
+        // The spy is reset after each test.
+        doThrow(new IllegalStateException("boom")).when(ticketService).createTickets(anyList());
+        String body = """
+                [
+                  { "title": "VPN down", "description": "Cannot connect", "priority": "HIGH" },
+                  { "title": "", "description": "x", "priority": "LOW" }
+                ]
+                """;
+
+        mockMvc.perform(post("/api/tickets/bulk").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[?(@.index == 0)].outcome").value("FAILED"))
+                .andExpect(jsonPath("$[?(@.index == 1)].outcome").value("INVALID"));
+    }
+
+    @Test
+    void missingPriorityWithoutSuggestionIsInvalidOnItsOwn() throws Exception {
+        // Too few tickets for the classifier to suggest anything in tests.
+        String body = """
+                [
+                  { "title": "VPN down", "description": "Cannot connect", "priority": "HIGH" },
+                  { "title": "Printer jam", "description": "Paper stuck" }
+                ]
+                """;
+
+        mockMvc.perform(post("/api/tickets/bulk").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[?(@.index == 0)].outcome").value("CREATED"))
+                .andExpect(jsonPath("$[?(@.index == 1)].outcome").value("INVALID"))
+                .andExpect(jsonPath("$[?(@.index == 1)].message").value("priority: must not be null"));
+    }
+}
@@ -1,4 +1,78 @@
 package com.johndoan.helpdesk.api;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// No agents configured, so any assignee name is accepted as long as it fits the column.
+// List ETags must change on every save and delete, whatever the tickets' updatedAt values.
+@SpringBootTest(properties = "helpdesk.agents.names=")
+@AutoConfigureMockMvc
 public class TicketControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void anOverlongAssigneeIsABadRequest() throws Exception {
+        long id = create("VPN down");
+
+        mockMvc.perform(put("/api/tickets/{id}/assignee", id).contentType(MediaType.APPLICATION_JSON)
+                        .content("{ \"assignee\": \"%s\" }".formatted("a".repeat(81))))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(put("/api/tickets/{id}/assignee", id).contentType(MediaType.APPLICATION_JSON)
+                        .content("{ \"assignee\": \"%s\" }".formatted("a".repeat(80))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.assignee").value("a".repeat(80)));
+    }
+
+    @Test
+    void listTagChangesWhenADeleteAndAnImportLeaveCountAndLatestUpdateAlone() throws Exception {
+        long older = create("Printer jam");
+        create("Email down"); // the most recently updated ticket from here on
+        String etag = listEtag();
+        mockMvc.perform(get("/api/tickets").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(delete("/api/tickets/{id}", older)).andExpect(status().isNoContent());
+        mockMvc.perform(post("/api/tickets/import").contentType(TicketTransferController.NDJSON)
+                        .content("""
+                                {"title":"Archived","description":"x","priority":"LOW","updatedAt":"2020-01-01T00:00:00Z"}
+                                """))
+                .andExpect(jsonPath("$.imported").value(1));
+
+        mockMvc.perform(get("/api/tickets").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    private String listEtag() throws Exception {
+        return mockMvc.perform(get("/api/tickets"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private long create(String title) throws Exception {
+        String response = mockMvc.perform(post("/api/tickets").contentType(MediaType.APPLICATION_JSON)
+                        .content("{ \"title\": \"%s\", \"description\": \"x\", \"priority\": \"LOW\" }".formatted(title)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode ticket = objectMapper.readTree(response);
+        return ticket.get("id").asLong();
+    }
 }
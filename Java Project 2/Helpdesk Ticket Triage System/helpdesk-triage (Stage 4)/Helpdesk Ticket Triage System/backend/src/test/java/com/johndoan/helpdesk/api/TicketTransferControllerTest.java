@@ -0,0 +1,73 @@
+package com.johndoan.helpdesk.api;
+
+import com.johndoan.helpdesk.domain.Ticket;
+import com.johndoan.helpdesk.domain.TicketStatus;
+import com.johndoan.helpdesk.repo.TicketRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TicketTransferControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Test
+    void importKeepsRecordsAsExportedAndRejectsOversizedLinesAlone() throws Exception {
+        String body = """
+                {"title":"Restored unassigned","description":"x","priority":"LOW","status":"IN_PROGRESS"}
+                {"title":"%s","description":"x","priority":"LOW"}
+                {"title":"Too long","description":"%s","priority":"LOW"}
+                """.formatted("t".repeat(121), "d".repeat(2001));
+
+        mockMvc.perform(post("/api/tickets/import")
+                        .contentType(TicketTransferController.NDJSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.rejected").value(2))
+                .andExpect(jsonPath("$.errors[0].index").value(2))
+                .andExpect(jsonPath("$.errors[0].outcome").value("INVALID"))
+                .andExpect(jsonPath("$.errors[1].index").value(3));
+
+        // A restore is not an intake: the open, unassigned ticket is not handed to an agent.
+        Ticket restored = ticketRepository.findAll().stream()
+                .filter(t -> t.getTitle().equals("Restored unassigned"))
+                .findFirst()
+                .orElseThrow();
+        assertNull(restored.getAssignee());
+        assertEquals(TicketStatus.IN_PROGRESS, restored.getStatus());
+        assertNull(restored.getRespondedAt()); // kept as exported, not set to the import time
+    }
+
+    @Test
+    void aLineTooLongToReadIsInvalidAndTheNextOneIsImported() throws Exception {
+        String body = """
+                {"title":"Huge","description":"%s","priority":"LOW"}
+                {"title":"After the huge line","description":"x","priority":"LOW"}
+                """.formatted("d".repeat(100_000));
+
+        mockMvc.perform(post("/api/tickets/import")
+                        .contentType(TicketTransferController.NDJSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.errors[0].index").value(1))
+                .andExpect(jsonPath("$.errors[0].outcome").value("INVALID"))
+                .andExpect(jsonPath("$.errors[0].message").value("Line longer than 16384 characters"));
+    }
+}
@@ -0,0 +1,52 @@
+package com.johndoan.helpdesk.load;
+
+import com.johndoan.helpdesk.HelpdeskTriageApplication;
+import com.johndoan.helpdesk.load.TicketLoadGenerator.LoadReport;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+
+import java.net.URI;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Boots the app twice, once on platform request threads and once on virtual threads,
+ * and drives the same mixed read/write load against both.
+ *
+ * Opt-in because it takes a while:
+ * {@code mvn test -Dtest=ThreadingLoadComparisonTest -Dhelpdesk.load=true [-Dhelpdesk.load.clients=400]}
+ */
+@EnabledIfSystemProperty(named = "helpdesk.load", matches = "true")
+class ThreadingLoadComparisonTest {
+
+    private static final int CLIENTS = Integer.getInteger("helpdesk.load.clients", 400);
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("helpdesk.load.seconds", 20));
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        LoadReport platform = runAgainst(false);
+        LoadReport virtual = runAgainst(true);
+
+        System.out.printf("%n%d clients for %ds%n  platform threads: %s%n  virtual threads:  %s%n%n",
+                CLIENTS, DURATION.toSeconds(), platform, virtual);
+        assertEquals(0, platform.errors());
+        assertEquals(0, virtual.errors());
+    }
+
+    private static LoadReport runAgainst(boolean virtualThreads) throws Exception {
+        try (var context = (ServletWebServerApplicationContext) new SpringApplicationBuilder(HelpdeskTriageApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.datasource.url=jdbc:h2:mem:load-" + virtualThreads + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN")
+                .run()) {
+            URI base = URI.create("http://localhost:" + context.getWebServer().getPort());
+            return new TicketLoadGenerator(base, CLIENTS, DURATION).run();
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.johndoan.helpdesk.load;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Closed-loop HTTP load against a running helpdesk backend: each client sends one
+ * request, waits for the answer and sends the next. Traffic mix is mostly reads
+ * (get by id, search) with creates and status patches mixed in.
+ *
+ * Run against any instance with
+ * {@code java ... TicketLoadGenerator http://localhost:8080 200 30}
+ * (base url, concurrent clients, seconds).
+ */
+public class TicketLoadGenerator {
+
+    private static final String[] WORDS = {"vpn", "printer", "email", "laptop", "password", "network", "outlook", "monitor"};
+    private static final String[] STATUSES = {"IN_PROGRESS", "RESOLVED", "NEW"};
+
+    private final URI baseUri;
+    private final int clients;
+    private final Duration duration;
+    private final HttpClient http;
+    private final AtomicLongArray knownIds = new AtomicLongArray(4096);
+    private final AtomicLong knownCount = new AtomicLong();
+
+    public TicketLoadGenerator(URI baseUri, int clients, Duration duration) {
+        this.baseUri = baseUri;
+        this.clients = clients;
+        this.duration = duration;
+        this.http = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public LoadReport run() throws Exception {
+        for (int i = 0; i < 200; i++) {
+            create();
+        }
+        run(Duration.ofSeconds(3)); // warm-up: JIT, connection pools
+        return run(duration);
+    }
+
+    private LoadReport run(Duration runFor) throws Exception {
+        long deadline = System.nanoTime() + runFor.toNanos();
+        List<Future<Worker>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                futures.add(executor.submit(() -> new Worker().runUntil(deadline)));
+            }
+        }
+        Worker total = new Worker();
+        for (Future<Worker> future : futures) {
+            total.merge(future.get());
+        }
+        return total.report(runFor);
+    }
+
+    private int send(HttpRequest request) throws Exception {
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 201) {
+            remember(response.body());
+        }
+        return response.statusCode();
+    }
+
+    private void create() throws Exception {
+        send(HttpRequest.newBuilder(baseUri.resolve("/api/tickets"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(ticketJson()))
+                .build());
+    }
+
+    private HttpRequest nextRequest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int roll = random.nextInt(100);
+        if (roll < 60) {
+            return HttpRequest.newBuilder(baseUri.resolve("/api/tickets/" + randomId())).GET().build();
+        }
+        if (roll < 75) {
+            return HttpRequest.newBuilder(baseUri.resolve("/api/tickets/search?limit=10&q=" + word())).GET().build();
+        }
+        if (roll < 90) {
+            return HttpRequest.newBuilder(baseUri.resolve("/api/tickets"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(ticketJson()))
+                    .build();
+        }
+        String status = STATUSES[random.nextInt(STATUSES.length)];
+        return HttpRequest.newBuilder(baseUri.resolve("/api/tickets/" + randomId()))
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"status\":\"" + status + "\"}"))
+                .build();
+    }
+
+    private long randomId() {
+        int known = (int) Math.min(knownCount.get(), knownIds.length());
+        return knownIds.get(ThreadLocalRandom.current().nextInt(Math.max(known, 1)));
+    }
+
+    private void remember(String body) {
+        int start = body.indexOf("\"id\":");
+        if (start < 0) {
+            return;
+        }
+        int end = start + 5;
+        while (end < body.length() && Character.isDigit(body.charAt(end))) {
+            end++;
+        }
+        long slot = knownCount.getAndIncrement() % knownIds.length();
+        knownIds.set((int) slot, Long.parseLong(body.substring(start + 5, end)));
+    }
+
+    private static String word() {
+        return WORDS[ThreadLocalRandom.current().nextInt(WORDS.length)];
+    }
+
+    private static String ticketJson() {
+        return "{\"title\":\"" + word() + " issue\",\"description\":\"" + word() + " " + word()
+                + " not working\",\"priority\":\"MEDIUM\"}";
+    }
+
+    private class Worker {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        Worker runUntil(long deadline) {
+            while (System.nanoTime() < deadline) {
+                long start = System.nanoTime();
+                try {
+                    int status = send(nextRequest());
+                    if (status >= 500) {
+                        errors++;
+                    }
+                } catch (Exception e) {
+                    errors++;
+                }
+                record(System.nanoTime() - start);
+            }
+            return this;
+        }
+
+        void record(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+
+        void merge(Worker other) {
+            for (int i = 0; i < other.count; i++) {
+                record(other.latencies[i]);
+            }
+            errors += other.errors;
+        }
+
+        LoadReport report(Duration runFor) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return new LoadReport(count, errors, count / (runFor.toMillis() / 1000.0),
+                    percentile(sorted, 0.50), percentile(sorted, 0.99));
+        }
+
+        private static Duration percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return Duration.ZERO;
+            }
+            return Duration.ofNanos(sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)]);
+        }
+    }
+
+    public record LoadReport(long requests, long errors, double throughput, Duration p50, Duration p99) {
+        @Override
+        public String toString() {
+            return String.format("%,d requests, %d errors, %.0f req/s, p50 %.2f ms, p99 %.2f ms",
+                    requests, errors, throughput, p50.toNanos() / 1e6, p99.toNanos() / 1e6);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        URI base = URI.create(args.length > 0 ? args[0] : "http://localhost:8080");
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        System.out.println(new TicketLoadGenerator(base, clients, Duration.ofSeconds(seconds)).run());
+    }
+}
@@ -0,0 +1,38 @@
+package com.johndoan.helpdesk.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RequestStatsTest {
+
+    @Test
+    void shapeIgnoresArgumentsAndFormatting() {
+        assertEquals("select t.id from tickets t where t.id in (?) and t.status=?",
+                RequestStats.shape("select t.id\n    from tickets t\n    where t.id in (?, ?, ?) and t.status='NEW'"));
+        assertEquals(RequestStats.shape("select * from tickets where id=42"),
+                RequestStats.shape("SELECT * FROM tickets WHERE id=7"));
+    }
+
+    @Test
+    void reportsMostRepeatedSelectOnly() {
+        RequestStats stats = new RequestStats();
+        assertNull(stats.mostRepeatedSelect());
+
+        for (int i = 0; i < 5; i++) {
+            stats.statement("insert into tickets (title,id) values (?,?)");
+        }
+        stats.statement("select * from tickets where id=?");
+        stats.statement("select * from tickets where id=?");
+        stats.entityLoaded();
+
+        Map.Entry<String, Integer> top = stats.mostRepeatedSelect();
+        assertEquals("select * from tickets where id=?", top.getKey());
+        assertEquals(2, top.getValue());
+        assertEquals(7, stats.statements());
+        assertEquals(1, stats.entityLoads());
+    }
+}
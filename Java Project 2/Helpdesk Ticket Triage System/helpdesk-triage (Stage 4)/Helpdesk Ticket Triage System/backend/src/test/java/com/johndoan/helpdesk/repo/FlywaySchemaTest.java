@@ -0,0 +1,46 @@
+package com.johndoan.helpdesk.repo;
+
+import com.johndoan.helpdesk.domain.Priority;
+import com.johndoan.helpdesk.domain.Ticket;
+import com.johndoan.helpdesk.domain.TicketStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs the migrations the prod/local profiles use and lets Hibernate validate the entity against them.
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:flyway-schema;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class FlywaySchemaTest {
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void migratedSchemaMatchesEntityAndIsIndexed() {
+        Ticket saved = ticketRepository.saveAndFlush(
+                new Ticket("VPN down", "Cannot connect", Priority.HIGH, TicketStatus.NEW));
+        assertNotNull(saved.getId());
+        assertEquals(1, ticketRepository.count());
+
+        List<String> indexes = jdbc.queryForList(
+                "select index_name from information_schema.indexes where table_name = 'tickets'", String.class);
+        assertTrue(indexes.containsAll(List.of("idx_tickets_status", "idx_tickets_priority",
+                        "idx_tickets_created_at", "idx_tickets_updated_at")),
+                indexes::toString);
+    }
+}
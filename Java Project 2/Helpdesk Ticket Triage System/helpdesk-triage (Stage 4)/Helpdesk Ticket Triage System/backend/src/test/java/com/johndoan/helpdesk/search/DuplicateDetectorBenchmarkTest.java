@@ -0,0 +1,105 @@
+package com.johndoan.helpdesk.search;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Lookup latency of {@link DuplicateDetector#similarTo} over 1M tickets. Most tickets are
+ * random sentences from a 5k-word vocabulary; every 50th repeats one of 200 "outage"
+ * texts with a small change, so lookups also hit crowded LSH buckets.
+ *
+ * Opt-in because it takes a while to build:
+ * {@code mvn test -Dtest=DuplicateDetectorBenchmarkTest -Dhelpdesk.benchmark=true [-Dhelpdesk.benchmark.tickets=1000000]}
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "helpdesk.benchmark", matches = "true")
+class DuplicateDetectorBenchmarkTest {
+
+    private static final int TICKETS = Integer.getInteger("helpdesk.benchmark.tickets", 1_000_000);
+    private static final int VOCABULARY = 5_000;
+    private static final int OUTAGES = 200;
+    private static final int RUNS = 2_000;
+    private static final int LIMIT = 10;
+
+    private final DuplicateDetector detector = new DuplicateDetector(0.5);
+    private final String[] words = new String[VOCABULARY];
+    private final String[] outages = new String[OUTAGES];
+
+    @BeforeAll
+    void build() {
+        for (int i = 0; i < VOCABULARY; i++) {
+            words[i] = "w" + Integer.toString(i, 36) + "x";
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < OUTAGES; i++) {
+            outages[i] = sentence(random, 25);
+        }
+
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long usedBefore = runtime.totalMemory() - runtime.freeMemory();
+        long start = System.nanoTime();
+        for (int id = 1; id <= TICKETS; id++) {
+            if (id % 50 == 0) {
+                detector.index(id, "Outage", outages[random.nextInt(OUTAGES)] + " " + words[random.nextInt(VOCABULARY)]);
+            } else {
+                detector.index(id, sentence(random, 5), sentence(random, 20));
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        System.gc();
+        long usedAfter = runtime.totalMemory() - runtime.freeMemory();
+        System.out.printf("indexed %d tickets in %d ms (%.1f us each), ~%d MB%n", TICKETS, nanos / 1_000_000,
+                nanos / 1_000.0 / TICKETS, (usedAfter - usedBefore) >> 20);
+        assertEquals(TICKETS, detector.size());
+    }
+
+    @Test
+    void lookups() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 5_000; i++) { // warm-up
+            detector.similarTo(1 + random.nextInt(TICKETS), LIMIT);
+            detector.similarTo(50L * (1 + random.nextInt(TICKETS / 50)), LIMIT);
+        }
+        // Outage tickets have thousands of near-duplicates; the rest have none.
+        long[] outage = new long[RUNS];
+        long[] other = new long[RUNS];
+        int outageMatches = 0;
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            int found = detector.similarTo(50L * (1 + random.nextInt(TICKETS / 50)), LIMIT).size();
+            outage[i] = System.nanoTime() - start;
+            if (found > 0) {
+                outageMatches++;
+            }
+            start = System.nanoTime();
+            detector.similarTo(1 + random.nextInt(TICKETS), LIMIT);
+            other[i] = System.nanoTime() - start;
+        }
+        report("similarTo (outage)", outage);
+        report("similarTo (random)", other);
+        assertTrue(outageMatches > RUNS / 2, "outage tickets should find their near-duplicates");
+    }
+
+    private static void report(String label, long[] nanos) {
+        Arrays.sort(nanos);
+        System.out.printf("%s: p50 %d us, p99 %d us, max %d us%n", label, nanos[nanos.length / 2] / 1_000,
+                nanos[nanos.length * 99 / 100] / 1_000, nanos[nanos.length - 1] / 1_000);
+    }
+
+    private String sentence(SplittableRandom random, int length) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            sentence.append(words[random.nextInt(VOCABULARY)]).append(' ');
+        }
+        return sentence.toString();
+    }
+}
@@ -0,0 +1,62 @@
+package com.johndoan.helpdesk.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DuplicateDetectorTest {
+
+    private static final String OUTAGE = "Since this morning the VPN client disconnects every few minutes "
+            + "and shared drives are unreachable from home.";
+
+    @Test
+    void findsNearDuplicatesButNotUnrelatedTickets() {
+        DuplicateDetector detector = new DuplicateDetector(0.5);
+        detector.index(1, "VPN keeps disconnecting", OUTAGE);
+        detector.index(2, "VPN keeps disconnecting!!", OUTAGE + " Please help.");
+        detector.index(3, "Printer jam", "Third floor printer shows a paper jam on tray 2.");
+
+        List<DuplicateDetector.Match> matches = detector.similarTo(2, 10);
+        assertEquals(1, matches.size());
+        assertEquals(1L, matches.get(0).id());
+        assertTrue(matches.get(0).similarity() >= 0.5);
+        assertTrue(detector.similarTo(3, 10).isEmpty());
+    }
+
+    @Test
+    void reindexAndRemoveRetractOldSignatures() {
+        DuplicateDetector detector = new DuplicateDetector(0.5);
+        detector.index(1, "VPN keeps disconnecting", OUTAGE);
+        detector.index(2, "VPN keeps disconnecting", OUTAGE);
+        assertEquals(List.of(2L), ids(detector.similarTo(1, 10)));
+
+        detector.index(2, "Monitor flicker", "The external monitor flickers when docked.");
+        assertTrue(detector.similarTo(1, 10).isEmpty());
+
+        detector.index(3, "VPN keeps disconnecting", OUTAGE);
+        detector.remove(3);
+        assertTrue(detector.similarTo(1, 10).isEmpty());
+        assertEquals(2, detector.size());
+    }
+
+    @Test
+    void staysCorrectAcrossCompaction() {
+        DuplicateDetector detector = new DuplicateDetector(0.5);
+        detector.index(1, "VPN keeps disconnecting", OUTAGE);
+        // Enough rewrites of one ticket to leave thousands of dead slots behind.
+        for (int i = 0; i < 5000; i++) {
+            detector.index(2, "Unrelated ticket " + i, "Body text number " + i);
+        }
+        detector.index(2, "VPN keeps disconnecting", OUTAGE);
+
+        assertEquals(List.of(2L), ids(detector.similarTo(1, 10)));
+        assertEquals(2, detector.size());
+    }
+
+    private static List<Long> ids(List<DuplicateDetector.Match> matches) {
+        return matches.stream().map(DuplicateDetector.Match::id).toList();
+    }
+}
@@ -0,0 +1,144 @@
+package com.johndoan.helpdesk.search;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Search latency over 1M tickets. Words come from a 50k-word vocabulary with a Zipf
+ * distribution (a few words are in a large share of the tickets, most are rare).
+ *
+ * Opt-in because it needs a few GB of heap and a minute to build:
+ * {@code mvn test -Dtest=TicketSearchIndexBenchmarkTest -Dhelpdesk.benchmark=true [-Dhelpdesk.benchmark.tickets=1000000]}
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "helpdesk.benchmark", matches = "true")
+class TicketSearchIndexBenchmarkTest {
+
+    private static final int TICKETS = Integer.getInteger("helpdesk.benchmark.tickets", 1_000_000);
+    private static final int VOCABULARY = 50_000;
+    private static final int RUNS = 200;
+    private static final int LIMIT = 20;
+
+    private final TicketSearchIndex index = new TicketSearchIndex();
+    private final String[] words = new String[VOCABULARY];
+    private double[] cumulative;
+
+    @BeforeAll
+    void build() {
+        for (int i = 0; i < VOCABULARY; i++) {
+            words[i] = word(i);
+        }
+        cumulative = new double[VOCABULARY];
+        double sum = 0;
+        for (int i = 0; i < VOCABULARY; i++) {
+            sum += 1.0 / (i + 1);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < VOCABULARY; i++) {
+            cumulative[i] /= sum;
+        }
+
+        SplittableRandom random = new SplittableRandom(42);
+        long start = System.nanoTime();
+        for (int id = 1; id <= TICKETS; id++) {
+            index.index(id, phrase(random, 5), phrase(random, 15));
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        System.out.printf("indexed %d tickets in %d ms (%d/s)%n", TICKETS, millis,
+                TICKETS * 1000L / Math.max(1, millis));
+        assertEquals(TICKETS, index.size());
+    }
+
+    @Test
+    void commonWord() {
+        time("common word (\"" + words[0] + "\")", words[0]);
+    }
+
+    @Test
+    void rareWord() {
+        time("rare word (\"" + words[VOCABULARY - 1] + "\")", words[VOCABULARY - 1]);
+    }
+
+    @Test
+    void prefix() {
+        String prefix = words[5].substring(0, 2);
+        time("prefix (\"" + prefix + "\")", prefix);
+    }
+
+    @Test
+    void threeWords() {
+        String query = words[3] + " " + words[200] + " " + words[9_000];
+        time("three words (\"" + query + "\")", query);
+    }
+
+    @Test
+    void updates() {
+        SplittableRandom random = new SplittableRandom(7);
+        long[] micros = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long id = 1 + random.nextInt(TICKETS);
+            long start = System.nanoTime();
+            index.index(id, phrase(random, 5), phrase(random, 15));
+            micros[i] = (System.nanoTime() - start) / 1_000;
+        }
+        report("re-index one ticket", micros);
+    }
+
+    private void time(String label, String query) {
+        List<Long> result = index.search(query, LIMIT); // warm-up
+        for (int i = 0; i < 20; i++) {
+            index.search(query, LIMIT);
+        }
+        long[] micros = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            result = index.search(query, LIMIT);
+            micros[i] = (System.nanoTime() - start) / 1_000;
+        }
+        report(label, micros);
+        assertFalse(result.isEmpty());
+    }
+
+    private static void report(String label, long[] micros) {
+        Arrays.sort(micros);
+        System.out.printf("%s: p50 %.2f ms, p99 %.2f ms%n", label,
+                micros[micros.length / 2] / 1000.0, micros[micros.length * 99 / 100] / 1000.0);
+    }
+
+    private String phrase(SplittableRandom random, int length) {
+        StringBuilder phrase = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            phrase.append(sample(random)).append(' ');
+        }
+        return phrase.toString();
+    }
+
+    /** A word with Zipf-distributed frequency: word 0 is the most common. */
+    private String sample(SplittableRandom random) {
+        int i = Arrays.binarySearch(cumulative, random.nextDouble());
+        return words[Math.min(i < 0 ? -i - 1 : i, VOCABULARY - 1)];
+    }
+
+    /** A distinct pronounceable-ish word for every number: consonant-vowel pairs. */
+    private static String word(int n) {
+        String consonants = "bcdfghklmnprstvz";
+        String vowels = "aeiou";
+        StringBuilder word = new StringBuilder();
+        do {
+            word.append(consonants.charAt(n % 16));
+            n /= 16;
+            word.append(vowels.charAt(n % 5));
+            n /= 5;
+        } while (n > 0);
+        return word.toString();
+    }
+}
@@ -0,0 +1,59 @@
+package com.johndoan.helpdesk.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TicketSearchIndexTest {
+
+    @Test
+    void ranksTitleAndDescriptionMatches() {
+        TicketSearchIndex index = new TicketSearchIndex();
+        index.index(1, "VPN not connecting", "User cannot connect to VPN from home. VPN client times out.");
+        index.index(2, "Email sync slow", "Outlook taking a long time to sync.");
+        index.index(3, "Printer jam", "Office printer jam, VPN unrelated.");
+
+        assertEquals(List.of(1L, 3L), index.search("vpn", 10));
+        assertEquals(List.of(2L), index.search("outlook sync", 10));
+    }
+
+    @Test
+    void matchesPrefixes() {
+        TicketSearchIndex index = new TicketSearchIndex();
+        index.index(1, "Printer jam", "Third floor printer");
+        index.index(2, "Print spooler crash", "Spooler service stops");
+
+        assertEquals(List.of(1L, 2L), index.search("print", 10).stream().sorted().toList());
+        assertEquals(List.of(2L), index.search("spool", 10));
+    }
+
+    @Test
+    void aShortPrefixKeepsItsMostFrequentExpansions() {
+        TicketSearchIndex index = new TicketSearchIndex();
+        // 100 rare terms sort before "vpz", which is in two tickets.
+        for (int i = 0; i < 100; i++) {
+            index.index(i, "vpa" + i, null);
+        }
+        index.index(100, "vpz gateway", null);
+        index.index(101, "vpz tunnel", null);
+
+        assertEquals(List.of(100L, 101L), index.search("vp", 200).stream().filter(id -> id >= 100).sorted().toList());
+    }
+
+    @Test
+    void reindexAndRemoveRetractOldPostings() {
+        TicketSearchIndex index = new TicketSearchIndex();
+        index.index(1, "Printer jam", "Office printer");
+        index.index(1, "Monitor flicker", "Screen flickers");
+
+        assertTrue(index.search("printer", 10).isEmpty());
+        assertEquals(List.of(1L), index.search("flicker", 10));
+
+        index.remove(1);
+        assertTrue(index.search("flicker", 10).isEmpty());
+        assertEquals(0, index.size());
+    }
+}
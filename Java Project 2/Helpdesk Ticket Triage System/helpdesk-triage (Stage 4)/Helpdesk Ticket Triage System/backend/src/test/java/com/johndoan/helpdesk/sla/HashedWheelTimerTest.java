@@ -0,0 +1,41 @@
+package com.johndoan.helpdesk.sla;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashedWheelTimerTest {
+
+    @Test
+    void firesInDeadlineOrderAndSkipsCancelled() throws Exception {
+        List<String> fired = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(2);
+
+        try (HashedWheelTimer timer = new HashedWheelTimer(Duration.ofMillis(5), 8, "test-timer")) {
+            timer.schedule(Duration.ofMillis(120), () -> { fired.add("late"); done.countDown(); });
+            timer.schedule(Duration.ofMillis(20), () -> { fired.add("early"); done.countDown(); });
+            HashedWheelTimer.Timeout cancelled = timer.schedule(Duration.ofMillis(60), () -> fired.add("cancelled"));
+            cancelled.cancel();
+
+            assertTrue(done.await(2, TimeUnit.SECONDS));
+            assertEquals(List.of("early", "late"), fired);
+            assertEquals(0, timer.size());
+        }
+    }
+
+    @Test
+    void overdueTimeoutsFireOnNextTick() throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        try (HashedWheelTimer timer = new HashedWheelTimer(Duration.ofMillis(5), 8, "test-timer")) {
+            timer.schedule(Duration.ofMillis(-1000), done::countDown);
+            assertTrue(done.await(1, TimeUnit.SECONDS));
+        }
+    }
+}
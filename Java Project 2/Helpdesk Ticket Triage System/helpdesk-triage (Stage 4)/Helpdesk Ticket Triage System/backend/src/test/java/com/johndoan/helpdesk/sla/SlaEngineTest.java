@@ -0,0 +1,59 @@
+package com.johndoan.helpdesk.sla;
+
+import com.johndoan.helpdesk.domain.Priority;
+import com.johndoan.helpdesk.domain.Ticket;
+import com.johndoan.helpdesk.domain.TicketStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SlaEngineTest {
+
+    private final List<Object> published = new CopyOnWriteArrayList<>();
+    private final SlaProperties properties = new SlaProperties();
+    private final SlaEngine engine = new SlaEngine(new SlaPolicy(properties), properties, published::add);
+
+    @AfterEach
+    void stop() {
+        engine.destroy();
+    }
+
+    @Test
+    void deadlinesAlreadyPastAreNotFiredAgain() throws Exception {
+        // HIGH: response due after 1h (already missed), resolution after 8h (warning at 6h).
+        Instant created = Instant.now().minus(Duration.ofHours(2));
+        Ticket ticket = Ticket.restore("VPN down", "Cannot connect", Priority.HIGH, TicketStatus.NEW,
+                null, created, created, null, null);
+        ReflectionTestUtils.setField(ticket, "id", 1L);
+
+        // Every save of the breached ticket (and the startup replay) goes through here.
+        engine.ticketSaved(ticket);
+        engine.ticketSaved(ticket);
+
+        assertEquals(2, engine.pendingTimers(), "only the resolution warning and breach");
+        Thread.sleep(properties.getTick().multipliedBy(3).toMillis());
+        assertEquals(List.of(), published);
+    }
+
+    @Test
+    void passedBoundariesOnlyMoveWhenTheTicketCrossesOne() {
+        Instant created = Instant.now().minus(Duration.ofHours(2));
+        Ticket ticket = Ticket.restore("VPN down", "Cannot connect", Priority.HIGH, TicketStatus.NEW,
+                null, created, created, null, null);
+        ReflectionTestUtils.setField(ticket, "id", 1L);
+        engine.ticketSaved(ticket);
+
+        Instant now = Instant.now();
+        assertEquals(2, engine.passedBoundaries(1L, now), "response warning and breach");
+        assertEquals(2, engine.passedBoundaries(1L, now.plus(Duration.ofHours(3))));
+        assertEquals(3, engine.passedBoundaries(1L, now.plus(Duration.ofHours(5))), "resolution warning");
+        assertEquals(0, engine.passedBoundaries(2L, now), "untracked ticket");
+    }
+}
@@ -0,0 +1,109 @@
+package com.johndoan.helpdesk.triage;
+
+import com.johndoan.helpdesk.domain.Priority;
+import com.johndoan.helpdesk.domain.Ticket;
+import com.johndoan.helpdesk.domain.TicketStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PriorityClassifierTest {
+
+    private static final String[] OUTAGES = {
+            "Production database down", "Payment service outage for all customers",
+            "Email server down for whole office", "VPN outage nobody can work", "Website down customers cannot order"};
+    private static final String[] REQUESTS = {
+            "How do I change my desktop wallpaper", "Request new mouse", "Question about printer settings",
+            "Please rename my shared folder", "How to add a calendar to outlook"};
+
+    private PriorityClassifier classifier;
+
+    @AfterEach
+    void tearDown() {
+        classifier.destroy();
+    }
+
+    @Test
+    void suggestsPriorityLearnedFromResolvedTickets() {
+        classifier = new PriorityClassifier(properties(ClassifierProperties.Mode.SUGGEST, 10));
+        train();
+        assertNull(classifier.suggest("Database down", "orders failing"), "no model before retraining");
+
+        classifier.retrain();
+
+        PriorityClassifier.Prediction outage = classifier.suggest("Checkout service down", "customers cannot pay, outage");
+        assertNotNull(outage);
+        assertEquals(Priority.HIGH, outage.priority());
+        assertTrue(outage.confidence() >= 0.6);
+
+        PriorityClassifier.Prediction question = classifier.suggest("How do I change printer settings", null);
+        assertNotNull(question);
+        assertEquals(Priority.LOW, question.priority());
+        assertEquals(20, classifier.trainingTickets());
+    }
+
+    @Test
+    void waitsForEnoughTrainingTicketsAndCountsEachTicketOnce() {
+        classifier = new PriorityClassifier(properties(ClassifierProperties.Mode.SUGGEST, 21));
+        train();
+        train(); // same ids again, as when a resolved ticket is edited or reopened and resolved
+        classifier.retrain();
+
+        assertNull(classifier.suggest("Database down", "orders failing"));
+        assertEquals(0, classifier.trainingTickets());
+    }
+
+    @Test
+    void learnsOnlyFromPrioritiesSomeoneSet() {
+        classifier = new PriorityClassifier(properties(ClassifierProperties.Mode.OVERRIDE, 1));
+        Ticket ticket = new Ticket("Database down", "orders failing", Priority.HIGH, TicketStatus.NEW);
+        ReflectionTestUtils.setField(ticket, "id", 1L);
+        ticket.setPrioritySuggested(true);
+        ticket.setStatus(TicketStatus.RESOLVED);
+
+        classifier.ticketSaved(ticket);
+        classifier.retrain();
+        assertEquals(0, classifier.trainingTickets());
+
+        ticket.setPriority(Priority.MEDIUM); // an agent corrects it
+        classifier.ticketSaved(ticket);
+        classifier.retrain();
+        assertEquals(1, classifier.trainingTickets());
+    }
+
+    @Test
+    void offModeNeitherTrainsNorSuggests() {
+        classifier = new PriorityClassifier(properties(ClassifierProperties.Mode.OFF, 1));
+        train();
+        classifier.retrain();
+
+        assertNull(classifier.suggest("Database down", "orders failing"));
+    }
+
+    private void train() {
+        long id = 1;
+        for (int round = 0; round < 2; round++) {
+            for (String outage : OUTAGES) {
+                classifier.learn(id++, outage, "Urgent: business is blocked", Priority.HIGH);
+            }
+            for (String request : REQUESTS) {
+                classifier.learn(id++, request, "whenever you have time", Priority.LOW);
+            }
+        }
+    }
+
+    private static ClassifierProperties properties(ClassifierProperties.Mode mode, int minTrainingTickets) {
+        ClassifierProperties properties = new ClassifierProperties();
+        properties.setMode(mode);
+        properties.setMinTrainingTickets(minTrainingTickets);
+        properties.setRetrainInterval(Duration.ofHours(1));
+        return properties;
+    }
+}
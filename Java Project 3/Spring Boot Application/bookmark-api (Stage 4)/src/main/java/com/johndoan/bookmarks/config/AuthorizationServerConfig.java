@@ -1,10 +1,11 @@
 package com.johndoan.bookmarks.config;
 
-import com.nimbusds.jose.jwk.JWKSet;
-import com.nimbusds.jose.jwk.RSAKey;
+import com.johndoan.bookmarks.security.SigningKeyProperties;
+import com.johndoan.bookmarks.security.SigningKeys;
 import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
 import com.nimbusds.jose.jwk.source.JWKSource;
 import com.nimbusds.jose.proc.SecurityContext;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
@@ -20,14 +21,13 @@ import org.springframework.security.oauth2.server.authorization.config.annotatio
 import org.springframework.security.oauth2.server.authorization.settings.AuthorizationServerSettings;
 import org.springframework.security.oauth2.server.authorization.settings.ClientSettings;
 import org.springframework.security.oauth2.server.authorization.settings.TokenSettings;
+import org.springframework.security.oauth2.server.authorization.token.JwtEncodingContext;
+import org.springframework.security.oauth2.server.authorization.token.OAuth2TokenCustomizer;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.LoginUrlAuthenticationEntryPoint;
 import org.springframework.security.web.util.matcher.MediaTypeRequestMatcher;
 
-import java.security.KeyPair;
-import java.security.KeyPairGenerator;
-import java.security.interfaces.RSAPrivateKey;
-import java.security.interfaces.RSAPublicKey;
+import java.time.Clock;
 import java.time.Duration;
 import java.util.UUID;
 
@@ -42,8 +42,12 @@ import java.util.UUID;
  * The access token's {@code sub} (subject) is the identity that owns bookmarks:
  * "bruno-client" for the app token, or the username (e.g. "john") for a user
  * who logged in.
+ *
+ * Tokens are signed with a key kept in {@code bookmarks.signing.key-file}
+ * ({@link SigningKeys}), so they survive a restart.
  */
 @Configuration
+@EnableConfigurationProperties(SigningKeyProperties.class)
 public class AuthorizationServerConfig {
 
     /**
@@ -104,17 +108,32 @@ public class AuthorizationServerConfig {
         return new InMemoryRegisteredClientRepository(brunoClient, brunoPkceClient);
     }
 
+    /** Loaded (or generated, or rotated) once at startup. */
     @Bean
-    public JWKSource<SecurityContext> jwkSource() {
-        KeyPair keyPair = generateRsaKey();
-        RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
-        RSAPrivateKey privateKey = (RSAPrivateKey) keyPair.getPrivate();
-        RSAKey rsaKey = new RSAKey.Builder(publicKey)
-                .privateKey(privateKey)
-                .keyID(UUID.randomUUID().toString())
-                .build();
-        JWKSet jwkSet = new JWKSet(rsaKey);
-        return new ImmutableJWKSet<>(jwkSet);
+    public SigningKeys signingKeys(SigningKeyProperties properties) {
+        return SigningKeys.load(properties, Clock.systemUTC());
+    }
+
+    /**
+     * Every retained key: the token encoder signs with one of them, the decoder
+     * below picks the one named by a token's {@code kid}, and {@code /oauth2/jwks}
+     * publishes their public halves.
+     */
+    @Bean
+    public JWKSource<SecurityContext> jwkSource(SigningKeys signingKeys) {
+        return new ImmutableJWKSet<>(signingKeys.jwkSet());
+    }
+
+    /**
+     * Tokens are RS256 by default, and the encoder refuses to choose when more
+     * than one key fits. The header therefore names the algorithm and the
+     * {@code kid} of the current signing key.
+     */
+    @Bean
+    public OAuth2TokenCustomizer<JwtEncodingContext> signingKeyCustomizer(SigningKeys signingKeys) {
+        return context -> context.getJwsHeader()
+                .algorithm(signingKeys.signatureAlgorithm())
+                .keyId(signingKeys.signingKey().getKeyID());
     }
 
     @Bean
@@ -126,14 +145,4 @@ public class AuthorizationServerConfig {
     public AuthorizationServerSettings authorizationServerSettings() {
         return AuthorizationServerSettings.builder().build();
     }
-
-    private static KeyPair generateRsaKey() {
-        try {
-            KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
-            keyPairGenerator.initialize(2048);
-            return keyPairGenerator.generateKeyPair();
-        } catch (Exception ex) {
-            throw new IllegalStateException("Unable to generate RSA key pair", ex);
-        }
-    }
 }
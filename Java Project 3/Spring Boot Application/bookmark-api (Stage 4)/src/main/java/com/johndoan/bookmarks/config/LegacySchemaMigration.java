@@ -0,0 +1,143 @@
+package com.johndoan.bookmarks.config;
+
+import com.johndoan.bookmarks.domain.Bookmark;
+import com.johndoan.bookmarks.service.UrlNormalizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * One-off upgrades for H2 databases created by earlier versions of the app.
+ * Hibernate's {@code ddl-auto: update} adds new tables and sequences but never
+ * moves data, so on startup this fills the gap. It runs once every bean
+ * (and so the schema) is ready but before the web server starts, so no request
+ * sees a half-upgraded database. On a fresh (or already upgraded) database every
+ * step is a no-op.
+ *
+ * <ul>
+ *   <li>Tags used to be plain strings in a {@code bookmark_tags(bookmark_id, tag)}
+ *       element-collection table. Its rows are copied into {@code tags} and
+ *       {@code bookmark_tag}, and the old table is dropped.</li>
+ *   <li>Ids used to come from IDENTITY columns and now come from sequences
+ *       (so inserts can be batched). A new sequence starts at 1, so it is moved
+ *       past the ids already in use.</li>
+ *   <li>{@code url_hash} is new. It is filled in for existing rows, oldest
+ *       first. A bookmark repeating the URL of an older one of the same owner
+ *       keeps a null hash (the unique index allows that) rather than being
+ *       deleted; it is logged, and gets a hash (or a 409) when next edited.</li>
+ *   <li>{@code url} used to be {@code VARCHAR(255)}. {@code ddl-auto: update} never
+ *       widens an existing column, so it is widened to
+ *       {@value Bookmark#MAX_URL_LENGTH} here.</li>
+ * </ul>
+ */
+@Component
+public class LegacySchemaMigration implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(LegacySchemaMigration.class);
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transactionTemplate;
+
+    public LegacySchemaMigration(JdbcTemplate jdbc, TransactionTemplate transactionTemplate) {
+        this.jdbc = jdbc;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        migrateTags();
+        widenUrls();
+        alignSequence("bookmark_seq", "bookmarks");
+        alignSequence("tag_seq", "tags");
+        hashUrls();
+    }
+
+    private void migrateTags() {
+        Integer legacyTables = jdbc.queryForObject(
+                "select count(*) from information_schema.tables where upper(table_name) = 'BOOKMARK_TAGS'",
+                Integer.class);
+        if (legacyTables == null || legacyTables == 0) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(tx -> {
+            int tags = jdbc.update("""
+                    insert into tags (id, owner, name)
+                    select next value for tag_seq, owner, tag from (
+                        select distinct b.owner, bt.tag from bookmark_tags bt join bookmarks b on b.id = bt.bookmark_id
+                        where bt.tag is not null
+                          and not exists (select 1 from tags t where t.owner = b.owner and t.name = bt.tag))
+                    """);
+            int links = jdbc.update("""
+                    insert into bookmark_tag (bookmark_id, tag_id)
+                    select distinct bt.bookmark_id, t.id from bookmark_tags bt
+                    join bookmarks b on b.id = bt.bookmark_id
+                    join tags t on t.owner = b.owner and t.name = bt.tag
+                    """);
+            jdbc.execute("drop table bookmark_tags");
+            log.info("Migrated {} tags and {} bookmark tag links from bookmark_tags", tags, links);
+        });
+    }
+
+    private void widenUrls() {
+        Integer length = jdbc.queryForObject("""
+                select max(character_maximum_length) from information_schema.columns
+                where upper(table_name) = 'BOOKMARKS' and upper(column_name) = 'URL'
+                """, Integer.class);
+        if (length == null || length >= Bookmark.MAX_URL_LENGTH) {
+            return;
+        }
+        jdbc.execute("alter table bookmarks alter column url set data type varchar(" + Bookmark.MAX_URL_LENGTH + ")");
+        log.info("Widened bookmarks.url from {} to {} characters", length, Bookmark.MAX_URL_LENGTH);
+    }
+
+    private void hashUrls() {
+        List<Object[]> rows = jdbc.query("select id, owner, url from bookmarks where url_hash is null order by id",
+                (rs, n) -> new Object[]{rs.getLong(1), rs.getString(2), rs.getString(3)});
+        if (rows.isEmpty()) {
+            return;
+        }
+        Set<List<String>> taken = new HashSet<>(jdbc.query(
+                "select owner, url_hash from bookmarks where url_hash is not null",
+                (rs, n) -> List.of(rs.getString(1), rs.getString(2))));
+        List<Object[]> updates = new ArrayList<>();
+        for (Object[] row : rows) {
+            String urlHash = UrlNormalizer.hash((String) row[2]);
+            if (taken.add(List.of((String) row[1], urlHash))) {
+                updates.add(new Object[]{urlHash, row[0]});
+            }
+        }
+        transactionTemplate.executeWithoutResult(tx ->
+                jdbc.batchUpdate("update bookmarks set url_hash = ? where id = ?", updates));
+        log.info("Hashed the URLs of {} bookmarks", updates.size());
+        if (updates.size() < rows.size()) {
+            log.warn("{} bookmarks repeat the URL of an older bookmark of the same owner and were left unhashed",
+                    rows.size() - updates.size());
+        }
+    }
+
+    /**
+     * Restarts {@code sequence} above the highest id in {@code table}. Hibernate
+     * hands out the {@value Bookmark#ID_ALLOCATION_SIZE} ids below each value it
+     * reads from the sequence, so the next value must clear the max id by that much.
+     */
+    private void alignSequence(String sequence, String table) {
+        Long maxId = jdbc.queryForObject("select max(id) from " + table, Long.class);
+        Long next = jdbc.queryForObject(
+                "select base_value from information_schema.sequences where upper(sequence_name) = ?",
+                Long.class, sequence.toUpperCase());
+        if (maxId == null || next == null || next - Bookmark.ID_ALLOCATION_SIZE > maxId) {
+            return;
+        }
+        long restart = maxId + Bookmark.ID_ALLOCATION_SIZE + 1;
+        jdbc.execute("alter sequence " + sequence + " restart with " + restart);
+        log.info("Restarted {} at {} (max id in {} is {})", sequence, restart, table, maxId);
+    }
+}
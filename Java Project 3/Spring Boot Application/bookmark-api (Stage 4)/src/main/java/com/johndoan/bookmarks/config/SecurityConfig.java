@@ -1,5 +1,13 @@
 package com.johndoan.bookmarks.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.johndoan.bookmarks.security.CachingJwtDecoder;
+import com.johndoan.bookmarks.security.RateLimitFilter;
+import com.johndoan.bookmarks.security.RateLimitProperties;
+import com.johndoan.bookmarks.security.RateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
@@ -12,8 +20,12 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
+
+import java.time.Clock;
 
 /**
  * Application security: two more filter chains beyond the Authorization Server's.
@@ -27,12 +39,29 @@ import org.springframework.security.web.SecurityFilterChain;
  */
 @Configuration
 @EnableWebSecurity
+@EnableConfigurationProperties(RateLimitProperties.class)
 public class SecurityConfig {
 
-    /** Chain #2: the JSON API. Bearer-token only, no sessions. */
+    /**
+     * Chain #2: the JSON API. Bearer-token only, no sessions.
+     *
+     * Tokens are decoded by the Authorization Server's {@link JwtDecoder} behind
+     * a {@link CachingJwtDecoder}, so a token's signature is checked once, not on
+     * every request. The cache belongs to this chain only (it isn't a bean), so
+     * the Authorization Server's own endpoints keep the plain decoder.
+     *
+     * Once the request is authorized, {@link RateLimitFilter} applies the
+     * caller's read / write / bulk budgets, so a 401 or 403 spends nothing.
+     */
     @Bean
     @Order(2)
-    public SecurityFilterChain apiSecurityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain apiSecurityFilterChain(HttpSecurity http, JwtDecoder jwtDecoder,
+                                                      MeterRegistry meterRegistry, RateLimiter rateLimiter,
+                                                      ObjectMapper objectMapper,
+                                                      @Value("${bookmarks.jwt-cache.max-size:10000}") int jwtCacheSize)
+            throws Exception {
+        CachingJwtDecoder cachingDecoder = new CachingJwtDecoder(jwtDecoder, jwtCacheSize, Clock.systemUTC());
+        cachingDecoder.bindTo(meterRegistry);
         http
                 .securityMatcher("/api/**")
                 .authorizeHttpRequests(auth -> auth
@@ -42,10 +71,17 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.DELETE, "/api/bookmarks/**").hasAuthority("SCOPE_bookmark.write")
                         .anyRequest().authenticated())
                 .csrf(csrf -> csrf.disable())
-                .oauth2ResourceServer(oauth2 -> oauth2.jwt(Customizer.withDefaults()));
+                .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> jwt.decoder(cachingDecoder)))
+                .addFilterAfter(new RateLimitFilter(rateLimiter, objectMapper), AuthorizationFilter.class);
         return http.build();
     }
 
+    /** Per-subject token buckets for the API; also charged by the bulk endpoints. */
+    @Bean
+    public RateLimiter rateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        return new RateLimiter(properties, System::nanoTime, meterRegistry);
+    }
+
     /**
      * Chain #3: the browser side. Serves the auto-generated /login page and
      * authenticates the user session used by the authorization endpoint.
@@ -1,19 +1,24 @@
 package com.johndoan.bookmarks.domain;
 
-import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
-import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
-import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.JoinTable;
+import jakarta.persistence.ManyToMany;
+import jakarta.persistence.OrderBy;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.Instant;
-import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Bookmark entity. New in Stage 4: an {@code owner} column holding the identity
@@ -21,29 +26,76 @@ import java.util.List;
  * owner, so users only see their own bookmarks.
  */
 @Entity
-@Table(name = "bookmarks")
+@Table(name = "bookmarks", indexes = {
+        // Every query filters by owner; updated_at makes the ETag's max(updated_at) an index lookup.
+        @Index(name = "idx_bookmarks_owner_updated_at", columnList = "owner, updatedAt"),
+        // Keyset pagination: "owner's next N bookmarks after id X" is a range scan.
+        @Index(name = "idx_bookmarks_owner_id", columnList = "owner, id")
+}, uniqueConstraints = {
+        // One bookmark per page per owner, and "does this owner have URL X" is one index lookup.
+        @UniqueConstraint(name = "uk_bookmarks_owner_url_hash", columnNames = {"owner", "url_hash"})
+})
 public class Bookmark {
 
+    /**
+     * Ids handed out per sequence round trip. Must match the sequence's
+     * increment, which Hibernate creates from the {@code @SequenceGenerator}s.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    /** Column sizes. URLs get room for long query strings; browsers don't cap them at 255. */
+    public static final int MAX_TITLE_LENGTH = 255;
+    public static final int MAX_URL_LENGTH = 2048;
+    public static final int MAX_NOTES_LENGTH = 2000;
+
+    /**
+     * Sequence ids, not IDENTITY: with IDENTITY, Hibernate has to run every
+     * INSERT immediately to learn the generated id, which rules out JDBC
+     * batching. A sequence hands out {@value #ID_ALLOCATION_SIZE} ids per call,
+     * so a bulk create can insert 50 rows per statement.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookmark_seq")
+    @SequenceGenerator(name = "bookmark_seq", sequenceName = "bookmark_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     /** The token subject that owns this bookmark (e.g. "john" or "bruno-client"). */
     @Column(nullable = false)
     private String owner;
 
-    @Column(nullable = false)
+    @Column(nullable = false, length = MAX_TITLE_LENGTH)
     private String title;
 
-    @Column(nullable = false)
+    @Column(nullable = false, length = MAX_URL_LENGTH)
     private String url;
 
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "bookmark_tags", joinColumns = @JoinColumn(name = "bookmark_id"))
-    @Column(name = "tag")
-    private List<String> tags = new ArrayList<>();
-
-    @Column(length = 2000)
+    /**
+     * SHA-256 of the canonical form of {@link #url} ({@code UrlNormalizer.hash}),
+     * kept in step with it by {@code BookmarkService}. Comparing hashes instead
+     * of URLs treats {@code https://Example.com/a/} and
+     * {@code https://example.com/a?utm_source=mail} as the same page. Nullable
+     * only for duplicates left over from before it existed (see
+     * {@code LegacySchemaMigration}).
+     */
+    @Column(length = 64)
+    private String urlHash;
+
+    /**
+     * Loaded lazily, for up to 256 bookmarks per query when several are in the
+     * same session. (Lists don't load entities at all; see
+     * {@code BookmarkService.list}.) The join table's primary key is
+     * (bookmark_id, tag_id); the reverse index serves "bookmarks with tag X".
+     */
+    @ManyToMany
+    @JoinTable(name = "bookmark_tag",
+            joinColumns = @JoinColumn(name = "bookmark_id"),
+            inverseJoinColumns = @JoinColumn(name = "tag_id"),
+            indexes = @Index(name = "idx_bookmark_tag_tag_bookmark", columnList = "tag_id, bookmark_id"))
+    @BatchSize(size = 256)
+    @OrderBy("name")
+    private Set<Tag> tags = new LinkedHashSet<>();
+
+    @Column(length = MAX_NOTES_LENGTH)
     private String notes;
 
     @Column(nullable = false, updatable = false)
@@ -55,13 +107,13 @@ public class Bookmark {
     public Bookmark() {
     }
 
-    public Bookmark(Long id, String owner, String title, String url, List<String> tags, String notes,
+    public Bookmark(Long id, String owner, String title, String url, Set<Tag> tags, String notes,
                     Instant createdAt, Instant updatedAt) {
         this.id = id;
         this.owner = owner;
         this.title = title;
         this.url = url;
-        this.tags = (tags != null) ? new ArrayList<>(tags) : new ArrayList<>();
+        this.tags = (tags != null) ? new LinkedHashSet<>(tags) : new LinkedHashSet<>();
         this.notes = notes;
         this.createdAt = createdAt;
         this.updatedAt = updatedAt;
@@ -99,12 +151,25 @@ public class Bookmark {
         this.url = url;
     }
 
-    public List<String> getTags() {
+    public String getUrlHash() {
+        return urlHash;
+    }
+
+    public void setUrlHash(String urlHash) {
+        this.urlHash = urlHash;
+    }
+
+    public Set<Tag> getTags() {
         return tags;
     }
 
-    public void setTags(List<String> tags) {
-        this.tags = (tags != null) ? new ArrayList<>(tags) : new ArrayList<>();
+    public void setTags(Set<Tag> tags) {
+        this.tags = (tags != null) ? new LinkedHashSet<>(tags) : new LinkedHashSet<>();
+    }
+
+    /** Tag names, as they appear in the API. */
+    public List<String> getTagNames() {
+        return tags.stream().map(Tag::getName).toList();
     }
 
     public String getNotes() {
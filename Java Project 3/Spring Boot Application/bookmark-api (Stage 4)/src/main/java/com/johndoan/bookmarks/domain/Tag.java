@@ -0,0 +1,60 @@
+package com.johndoan.bookmarks.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * A tag name, stored once per owner and shared by all of that owner's bookmarks
+ * carrying it (through the {@code bookmark_tag} join table).
+ *
+ * Because a tag row belongs to exactly one owner, "john's bookmarks tagged
+ * spring" is a unique-index lookup for the tag id followed by a range scan of
+ * the join table's (tag_id, bookmark_id) index. Tags are stored lower-cased
+ * (see {@code BookmarkService}).
+ */
+@Entity
+@Table(name = "tags", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_tags_owner_name", columnNames = {"owner", "name"})
+})
+public class Tag {
+
+    public static final int MAX_NAME_LENGTH = 255;
+
+    /** Sequence ids, like {@link Bookmark}, so new tags are batch-inserted too. */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tag_seq")
+    @SequenceGenerator(name = "tag_seq", sequenceName = "tag_seq", allocationSize = Bookmark.ID_ALLOCATION_SIZE)
+    private Long id;
+
+    @Column(nullable = false)
+    private String owner;
+
+    @Column(nullable = false, length = MAX_NAME_LENGTH)
+    private String name;
+
+    protected Tag() {
+    }
+
+    public Tag(String owner, String name) {
+        this.owner = owner;
+        this.name = name;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,175 @@
+package com.johndoan.bookmarks.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.johndoan.bookmarks.domain.Bookmark;
+import com.johndoan.bookmarks.domain.Tag;
+import com.johndoan.bookmarks.service.BookmarkService;
+import com.johndoan.bookmarks.service.BulkCreateResult;
+import com.johndoan.bookmarks.service.DuplicatePolicy;
+import com.johndoan.bookmarks.service.UrlNormalizer;
+import com.johndoan.bookmarks.web.InvalidImportException;
+import com.johndoan.bookmarks.web.dto.CreateBookmarkRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Imports a browser's bookmark export for one owner.
+ *
+ * The file is parsed as a stream ({@link NetscapeBookmarkParser},
+ * {@link BrowserJsonBookmarkParser}) and every bookmark goes through the same
+ * steps as it is read:
+ *
+ * <ol>
+ *   <li>URLs that aren't http(s) ({@code javascript:}, {@code place:},
+ *       {@code chrome://}) are skipped;</li>
+ *   <li>the folders it was in become its tags;</li>
+ *   <li>it joins the current chunk. Every {@value #CHUNK_SIZE} bookmarks the
+ *       chunk goes to {@link BookmarkService#createAll} (batched INSERTs) and is
+ *       committed, and progress is logged.</li>
+ * </ol>
+ *
+ * Duplicates (a URL the owner already has, or one earlier in the file) are
+ * found by {@code createAll} through the (owner, url_hash) index and handled
+ * by the {@link DuplicatePolicy}: skipped, or merged (the folder tags are added
+ * to the existing bookmark). Earlier chunks are committed by then, so a repeat
+ * far down the file is caught as well.
+ *
+ * Unlike {@code POST /api/bookmarks/batch}, an import is NOT all-or-nothing:
+ * each chunk is its own transaction, so a 40k-bookmark file doesn't hold one
+ * transaction open for its whole length. If the file turns out to be broken
+ * halfway, what was read before that point stays imported, and uploading the
+ * (fixed) file again skips those bookmarks as duplicates.
+ */
+@Service
+public class BookmarkImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookmarkImportService.class);
+
+    /** Bookmarks created, and committed, per transaction. */
+    static final int CHUNK_SIZE = 1000;
+
+    private final BookmarkService bookmarkService;
+    private final NetscapeBookmarkParser htmlParser = new NetscapeBookmarkParser();
+    private final BrowserJsonBookmarkParser jsonParser;
+
+    public BookmarkImportService(BookmarkService bookmarkService, ObjectMapper objectMapper) {
+        this.bookmarkService = bookmarkService;
+        this.jsonParser = new BrowserJsonBookmarkParser(objectMapper.getFactory());
+    }
+
+    /**
+     * With {@link DuplicatePolicy#REJECT} the import stops with a 409 at the first
+     * duplicate, keeping the chunks before it.
+     */
+    public ImportSummary importBookmarks(InputStream input, String owner, DuplicatePolicy duplicates)
+            throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 1 << 16);
+        ImportFormat format = detectFormat(reader);
+        Run run = new Run(owner, duplicates);
+        try {
+            switch (format) {
+                case NETSCAPE_HTML -> htmlParser.parse(reader, run::add);
+                case BROWSER_JSON -> jsonParser.parse(reader, run::add);
+            }
+        } catch (JsonProcessingException e) {
+            throw new InvalidImportException("Malformed bookmark file: " + e.getOriginalMessage()
+                    + " (the " + run.imported + " bookmarks before it were imported)");
+        }
+        run.flush();
+
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - run.start);
+        ImportSummary summary = new ImportSummary(format, run.read, run.imported, run.merged, run.duplicates,
+                run.skipped, millis, run.rowsPerSecond());
+        log.info("Imported bookmarks for {}: {}", owner, summary);
+        return summary;
+    }
+
+    /** Looks at the first non-blank character: '{' is JSON, '<' is HTML. */
+    private static ImportFormat detectFormat(BufferedReader reader) throws IOException {
+        reader.mark(4096);
+        int c;
+        do {
+            c = reader.read();
+        } while (c != -1 && (Character.isWhitespace(c) || c == '\uFEFF'));
+        reader.reset();
+        return switch (c) {
+            case '{' -> ImportFormat.BROWSER_JSON;
+            case '<' -> ImportFormat.NETSCAPE_HTML;
+            default -> throw new InvalidImportException(
+                    "Expected a Netscape bookmark HTML file or a Chrome/Firefox JSON export");
+        };
+    }
+
+    /** The state of one import. */
+    private final class Run {
+
+        private final String owner;
+        private final DuplicatePolicy policy;
+        private final long start = System.nanoTime();
+        private final List<CreateBookmarkRequest> chunk = new ArrayList<>(CHUNK_SIZE);
+        private int read;
+        private int imported;
+        private int merged;
+        private int duplicates;
+        private int skipped;
+
+        Run(String owner, DuplicatePolicy policy) {
+            this.owner = owner;
+            this.policy = policy;
+        }
+
+        void add(ImportedBookmark bookmark) {
+            read++;
+            String url = bookmark.url();
+            if (UrlNormalizer.normalize(url) == null || url.length() > Bookmark.MAX_URL_LENGTH) {
+                skipped++;
+                return;
+            }
+            chunk.add(new CreateBookmarkRequest(title(bookmark), url, tags(bookmark), null));
+            if (chunk.size() == CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            BulkCreateResult result = bookmarkService.createAll(chunk.iterator(), owner, policy);
+            imported += result.created();
+            merged += result.merged();
+            duplicates += result.skipped();
+            chunk.clear();
+            log.info("Importing bookmarks for {}: {} imported, {} merged, {} read, {} rows/s",
+                    owner, imported, merged, read, rowsPerSecond());
+        }
+
+        long rowsPerSecond() {
+            long nanos = Math.max(1, System.nanoTime() - start);
+            return imported * TimeUnit.SECONDS.toNanos(1) / nanos;
+        }
+
+        /** Untitled bookmarks are titled with their URL; long titles are cut to fit the column. */
+        private String title(ImportedBookmark bookmark) {
+            String title = (bookmark.title() == null || bookmark.title().isBlank()) ? bookmark.url() : bookmark.title();
+            return title.length() > Bookmark.MAX_TITLE_LENGTH ? title.substring(0, Bookmark.MAX_TITLE_LENGTH) : title;
+        }
+
+        private List<String> tags(ImportedBookmark bookmark) {
+            return bookmark.tags().stream()
+                    .filter(tag -> tag.length() <= Tag.MAX_NAME_LENGTH)
+                    .toList();
+        }
+    }
+}
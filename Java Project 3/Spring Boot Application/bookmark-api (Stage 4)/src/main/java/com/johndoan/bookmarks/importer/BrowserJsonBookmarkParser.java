@@ -0,0 +1,170 @@
+package com.johndoan.bookmarks.importer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads the two JSON bookmark formats browsers write, with Jackson's streaming
+ * parser (token by token; the document is never a tree in memory):
+ *
+ * <ul>
+ *   <li>Chrome / Edge / Brave, the {@code Bookmarks} file in the profile folder:
+ *       {@code {"roots": {"bookmark_bar": {"children": [...]}, "other": ...}}},
+ *       nodes with {@code type} "url" / "folder", {@code name} and {@code url}.</li>
+ *   <li>Firefox "Backup..." files: one root node whose {@code children} nest
+ *       down to places with {@code title}, {@code uri} and optional comma-separated
+ *       {@code tags}.</li>
+ * </ul>
+ *
+ * Both are trees of nodes with {@code children}; a node with a URL is a
+ * bookmark and any other node is a folder. The catch is that Chrome writes the
+ * keys of a node in alphabetical order, so a folder's {@code children} come
+ * BEFORE its {@code name}. Bookmarks are therefore queued until the names of
+ * all their folders are known (when each folder's object closes), which keeps
+ * memory bounded by the largest folder rather than the whole file. The
+ * browser's root containers never become tags, so their names aren't waited for.
+ */
+final class BrowserJsonBookmarkParser {
+
+    private final JsonFactory factory;
+
+    BrowserJsonBookmarkParser(JsonFactory factory) {
+        this.factory = factory;
+    }
+
+    void parse(Reader reader, Consumer<ImportedBookmark> sink) throws IOException {
+        try (JsonParser parser = factory.createParser(reader)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "A bookmark file must be a JSON object");
+            }
+            Walk walk = new Walk(parser, sink);
+            walk.node(null, true);
+            walk.drain();
+        }
+    }
+
+    /** A folder on the current path. {@code name} is only final once {@code named} is set. */
+    private static final class Folder {
+
+        private final Folder parent;
+        private boolean root;
+        private boolean named;
+        private String name;
+
+        Folder(Folder parent, boolean root) {
+            this.parent = parent;
+            this.root = root;
+        }
+
+        boolean resolved() {
+            for (Folder folder = this; folder != null; folder = folder.parent) {
+                if (!folder.root && !folder.named) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        List<String> tags() {
+            List<String> names = new ArrayList<>();
+            for (Folder folder = this; folder != null; folder = folder.parent) {
+                if (!folder.root && folder.name != null && !folder.name.isBlank()) {
+                    names.add(folder.name.trim());
+                }
+            }
+            Collections.reverse(names);
+            return names;
+        }
+    }
+
+    private record Pending(String title, String url, String tags, Folder folder) {
+    }
+
+    private static final class Walk {
+
+        private final JsonParser parser;
+        private final Consumer<ImportedBookmark> sink;
+        private final Deque<Pending> pending = new ArrayDeque<>();
+
+        Walk(JsonParser parser, Consumer<ImportedBookmark> sink) {
+            this.parser = parser;
+            this.sink = sink;
+        }
+
+        /** Reads one node; the parser is on its START_OBJECT and is left on its END_OBJECT. */
+        void node(Folder parent, boolean root) throws IOException {
+            Folder self = new Folder(parent, root);
+            String title = null;
+            String url = null;
+            String tags = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "name", "title" -> {
+                        title = parser.getValueAsString();
+                        self.name = title;
+                        self.named = true;
+                    }
+                    case "url", "uri" -> url = parser.getValueAsString();
+                    case "tags" -> tags = parser.getValueAsString();
+                    case "root" -> self.root = true;
+                    case "children" -> {
+                        if (value == JsonToken.START_ARRAY) {
+                            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                                node(self, false);
+                            }
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    case "roots" -> {
+                        if (value == JsonToken.START_OBJECT) {
+                            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                                if (parser.nextToken() == JsonToken.START_OBJECT) {
+                                    node(self, true);
+                                } else {
+                                    parser.skipChildren();
+                                }
+                            }
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+            self.named = true;
+            if (url != null) {
+                pending.add(new Pending(title, url, tags, parent));
+            }
+            drain();
+        }
+
+        void drain() {
+            while (!pending.isEmpty() && (pending.peek().folder() == null || pending.peek().folder().resolved())) {
+                Pending next = pending.poll();
+                List<String> tags = next.folder() == null ? new ArrayList<>() : next.folder().tags();
+                if (next.tags() != null) {
+                    for (String tag : next.tags().split(",")) {
+                        if (!tag.isBlank()) {
+                            tags.add(tag.trim());
+                        }
+                    }
+                }
+                sink.accept(new ImportedBookmark(next.title(), next.url(), tags));
+            }
+        }
+    }
+}
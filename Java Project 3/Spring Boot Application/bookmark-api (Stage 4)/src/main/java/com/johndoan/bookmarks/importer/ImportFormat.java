@@ -0,0 +1,11 @@
+package com.johndoan.bookmarks.importer;
+
+/** The bookmark export formats {@link BookmarkImportService} reads. */
+public enum ImportFormat {
+
+    /** {@code bookmarks.html}, from any browser's "Export bookmarks". */
+    NETSCAPE_HTML,
+
+    /** Chrome's {@code Bookmarks} file or a Firefox JSON backup. */
+    BROWSER_JSON
+}
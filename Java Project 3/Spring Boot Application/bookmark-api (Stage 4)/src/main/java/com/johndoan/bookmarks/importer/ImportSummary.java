@@ -0,0 +1,19 @@
+package com.johndoan.bookmarks.importer;
+
+/**
+ * What an import did.
+ *
+ * @param format        the detected file format
+ * @param read          bookmarks found in the file
+ * @param imported      bookmarks created
+ * @param merged        duplicates whose tags were merged into the owner's
+ *                      existing bookmark ({@code onDuplicate=MERGE})
+ * @param duplicates    skipped because the owner already had the URL (or it was
+ *                      earlier in the same file)
+ * @param skipped       skipped because the URL isn't http(s) or is too long
+ * @param millis        wall-clock time of the whole import
+ * @param rowsPerSecond {@code imported} per second of that time
+ */
+public record ImportSummary(ImportFormat format, int read, int imported, int merged, int duplicates, int skipped,
+                            long millis, long rowsPerSecond) {
+}
@@ -0,0 +1,12 @@
+package com.johndoan.bookmarks.importer;
+
+import java.util.List;
+
+/**
+ * One bookmark read from a browser export, before any cleanup: the title may be
+ * blank and the URL may be anything the browser stored ({@code javascript:},
+ * {@code place:}, ...). {@code tags} are the names of the folders it was in,
+ * outermost first, followed by any tags the export itself carried.
+ */
+record ImportedBookmark(String title, String url, List<String> tags) {
+}
@@ -0,0 +1,247 @@
+package com.johndoan.bookmarks.importer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the "Netscape bookmark file" that every browser exports
+ * ({@code bookmarks.html}):
+ *
+ * <pre>
+ * &lt;DL&gt;&lt;p&gt;
+ *     &lt;DT&gt;&lt;H3 ADD_DATE="..."&gt;Spring&lt;/H3&gt;
+ *     &lt;DL&gt;&lt;p&gt;
+ *         &lt;DT&gt;&lt;A HREF="https://spring.io" TAGS="java"&gt;Spring&lt;/A&gt;
+ *     &lt;/DL&gt;&lt;p&gt;
+ * &lt;/DL&gt;&lt;p&gt;
+ * </pre>
+ *
+ * It isn't well-formed HTML (no closing {@code DT}s or {@code p}s), so rather
+ * than building a DOM this scans the characters once and only reacts to the
+ * four tags that matter: {@code H3} names a folder, {@code DL}/{@code /DL} open
+ * and close it, and {@code A} is a bookmark. Only the current folder path is
+ * kept in memory, so a file with 50k bookmarks is read in constant space.
+ *
+ * The browser's own top-level folders ("Bookmarks bar", "Other bookmarks") are
+ * marked with {@code PERSONAL_TOOLBAR_FOLDER} / {@code UNFILED_BOOKMARKS_FOLDER}
+ * and don't become tags.
+ */
+final class NetscapeBookmarkParser {
+
+    /** Longest tag kept; Chrome puts whole favicons in ICON="data:..." attributes. */
+    private static final int MAX_TAG_LENGTH = 1 << 20;
+
+    private static final Pattern ATTRIBUTE =
+            Pattern.compile("([A-Za-z_:-]+)\\s*=\\s*(?:\"([^\"]*)\"|'([^']*)'|([^\\s>]+))");
+
+    void parse(Reader reader, Consumer<ImportedBookmark> sink) throws IOException {
+        new Scan(reader, sink).run();
+    }
+
+    private static final class Scan {
+
+        private final Reader reader;
+        private final Consumer<ImportedBookmark> sink;
+
+        /** Names of the open folders, innermost first; "" for ones that don't become tags. */
+        private final Deque<String> folders = new ArrayDeque<>();
+        private final StringBuilder tag = new StringBuilder();
+        private final StringBuilder text = new StringBuilder();
+
+        private boolean capturing;
+        private boolean rootFolder;
+        private String pendingFolder;
+        private String href;
+        private String tagsAttribute;
+
+        Scan(Reader reader, Consumer<ImportedBookmark> sink) {
+            this.reader = reader;
+            this.sink = sink;
+        }
+
+        void run() throws IOException {
+            int c;
+            while ((c = reader.read()) != -1) {
+                if (c == '<') {
+                    readTag();
+                    handleTag();
+                } else if (capturing) {
+                    text.append((char) c);
+                }
+            }
+        }
+
+        /** Reads up to the closing '>' (not counting one inside quotes, or inside a comment). */
+        private void readTag() throws IOException {
+            tag.setLength(0);
+            char quote = 0;
+            int c;
+            while ((c = reader.read()) != -1) {
+                if (quote != 0) {
+                    if (c == quote) {
+                        quote = 0;
+                    }
+                } else if (c == '"' || c == '\'') {
+                    // Only quotes that open an attribute value count, not an apostrophe in a comment.
+                    if (tag.length() > 0 && tag.charAt(tag.length() - 1) == '=') {
+                        quote = (char) c;
+                    }
+                } else if (c == '>' && !(startsWith("!--") && !endsWith("--"))) {
+                    return;
+                }
+                if (tag.length() < MAX_TAG_LENGTH) {
+                    tag.append((char) c);
+                }
+            }
+        }
+
+        private void handleTag() {
+            switch (tagName()) {
+                case "h3" -> {
+                    rootFolder = attribute("PERSONAL_TOOLBAR_FOLDER") != null
+                            || attribute("UNFILED_BOOKMARKS_FOLDER") != null;
+                    startCapture();
+                }
+                case "/h3" -> {
+                    pendingFolder = rootFolder ? "" : decode(text).trim();
+                    capturing = false;
+                }
+                case "dl" -> {
+                    folders.push(pendingFolder == null ? "" : pendingFolder);
+                    pendingFolder = null;
+                }
+                case "/dl" -> {
+                    if (!folders.isEmpty()) {
+                        folders.pop();
+                    }
+                }
+                case "a" -> {
+                    href = attribute("HREF");
+                    tagsAttribute = attribute("TAGS");
+                    startCapture();
+                }
+                case "/a" -> {
+                    if (capturing && href != null) {
+                        sink.accept(new ImportedBookmark(decode(text).trim(), decode(href).trim(), tags()));
+                    }
+                    capturing = false;
+                    href = null;
+                }
+                default -> {
+                }
+            }
+        }
+
+        private void startCapture() {
+            capturing = true;
+            text.setLength(0);
+        }
+
+        private List<String> tags() {
+            List<String> tags = new ArrayList<>(folders.size() + 2);
+            folders.descendingIterator().forEachRemaining(name -> {
+                if (!name.isEmpty()) {
+                    tags.add(name);
+                }
+            });
+            if (tagsAttribute != null) {
+                for (String name : decode(tagsAttribute).split(",")) {
+                    if (!name.isBlank()) {
+                        tags.add(name.trim());
+                    }
+                }
+            }
+            return tags;
+        }
+
+        /** Lower-case name of the tag just read, with a leading '/' for an end tag. */
+        private String tagName() {
+            int end = 0;
+            if (end < tag.length() && tag.charAt(end) == '/') {
+                end++;
+            }
+            while (end < tag.length() && Character.isLetterOrDigit(tag.charAt(end))) {
+                end++;
+            }
+            return tag.substring(0, end).toLowerCase(Locale.ROOT);
+        }
+
+        private String attribute(String name) {
+            Matcher matcher = ATTRIBUTE.matcher(tag);
+            while (matcher.find()) {
+                if (matcher.group(1).equalsIgnoreCase(name)) {
+                    for (int group = 2; group <= 4; group++) {
+                        if (matcher.group(group) != null) {
+                            return matcher.group(group);
+                        }
+                    }
+                }
+            }
+            return null;
+        }
+
+        private boolean startsWith(String prefix) {
+            return tag.length() >= prefix.length() && tag.substring(0, prefix.length()).equals(prefix);
+        }
+
+        private boolean endsWith(String suffix) {
+            return tag.length() >= suffix.length() && tag.substring(tag.length() - suffix.length()).equals(suffix);
+        }
+    }
+
+    /** Resolves the character references browsers write: {@code &amp; &lt; &gt; &quot; &#39; &#x27;}... */
+    static String decode(CharSequence html) {
+        String s = html.toString();
+        int amp = s.indexOf('&');
+        if (amp < 0) {
+            return s;
+        }
+        StringBuilder out = new StringBuilder(s.length());
+        int i = 0;
+        while (amp >= 0) {
+            out.append(s, i, amp);
+            int semi = s.indexOf(';', amp);
+            String replacement = (semi > amp && semi - amp <= 10) ? entity(s.substring(amp + 1, semi)) : null;
+            if (replacement == null) {
+                out.append('&');
+                i = amp + 1;
+            } else {
+                out.append(replacement);
+                i = semi + 1;
+            }
+            amp = s.indexOf('&', i);
+        }
+        return out.append(s, i, s.length()).toString();
+    }
+
+    private static String entity(String name) {
+        String named = switch (name) {
+            case "amp" -> "&";
+            case "lt" -> "<";
+            case "gt" -> ">";
+            case "quot" -> "\"";
+            case "apos" -> "'";
+            case "nbsp" -> " ";
+            default -> null;
+        };
+        if (named != null || name.length() < 2 || name.charAt(0) != '#') {
+            return named;
+        }
+        try {
+            int codePoint = (name.charAt(1) == 'x' || name.charAt(1) == 'X')
+                    ? Integer.parseInt(name.substring(2), 16)
+                    : Integer.parseInt(name.substring(1));
+            return Character.isValidCodePoint(codePoint) ? Character.toString(codePoint) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
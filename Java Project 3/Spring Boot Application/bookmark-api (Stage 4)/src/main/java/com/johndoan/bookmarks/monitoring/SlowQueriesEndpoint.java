@@ -0,0 +1,30 @@
+package com.johndoan.bookmarks.monitoring;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * A custom Actuator endpoint: {@code GET /actuator/slowqueries?limit=N} lists the
+ * statement shapes with the highest maximum execution time since startup, with
+ * how often each ran and its total and mean time.
+ *
+ * It is not in the security config's permitAll list, so (like any page other than
+ * /actuator/health) you must be logged in to see it.
+ */
+@Component
+@Endpoint(id = "slowqueries")
+public class SlowQueriesEndpoint {
+
+    private final SqlQueryRecorder recorder;
+
+    public SlowQueriesEndpoint(SqlQueryRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @ReadOperation
+    public SqlQueryRecorder.SlowQueriesReport slowest(@Nullable Integer limit) {
+        return recorder.report(limit != null && limit > 0 ? limit : recorder.defaultLimit());
+    }
+}
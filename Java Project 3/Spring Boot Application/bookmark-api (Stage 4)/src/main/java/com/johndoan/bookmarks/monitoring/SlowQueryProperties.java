@@ -0,0 +1,28 @@
+package com.johndoan.bookmarks.monitoring;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for JDBC statement timing, bound from {@code bookmarks.sql.*} in
+ * application.yml. Anything left out falls back to the defaults below.
+ *
+ * @param slowThreshold    statements taking at least this long are logged
+ * @param logQueueCapacity slow statements waiting to be logged; when the queue is
+ *                         full new entries are dropped (and counted), never blocking
+ * @param maxShapes        distinct statement shapes tracked; later ones are folded
+ *                         into a single "(other)" entry so memory stays bounded
+ * @param topShapes        shapes returned by /actuator/slowqueries without ?limit
+ */
+@ConfigurationProperties(prefix = "bookmarks.sql")
+public record SlowQueryProperties(Duration slowThreshold, Integer logQueueCapacity,
+                                  Integer maxShapes, Integer topShapes) {
+
+    public SlowQueryProperties {
+        slowThreshold = slowThreshold != null ? slowThreshold : Duration.ofMillis(100);
+        logQueueCapacity = logQueueCapacity != null ? logQueueCapacity : 1000;
+        maxShapes = maxShapes != null ? maxShapes : 500;
+        topShapes = topShapes != null ? topShapes : 20;
+    }
+}
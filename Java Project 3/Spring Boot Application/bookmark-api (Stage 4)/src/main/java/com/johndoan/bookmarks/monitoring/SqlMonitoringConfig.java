@@ -0,0 +1,43 @@
+package com.johndoan.bookmarks.monitoring;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Routes every JDBC statement through {@link SqlQueryRecorder}.
+ *
+ * Spring Boot still creates the usual HikariCP pool; a BeanPostProcessor then
+ * wraps it in a datasource-proxy {@link ProxyDataSource}, so JPA, Spring
+ * Security and anything else using the DataSource is timed without code changes.
+ */
+@Configuration
+@EnableConfigurationProperties(SlowQueryProperties.class)
+public class SqlMonitoringConfig {
+
+    /**
+     * {@code static} because BeanPostProcessors are created before ordinary beans;
+     * the recorder is looked up lazily so it isn't forced into existence early.
+     */
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor(ObjectProvider<SqlQueryRecorder> recorder) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(recorder.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
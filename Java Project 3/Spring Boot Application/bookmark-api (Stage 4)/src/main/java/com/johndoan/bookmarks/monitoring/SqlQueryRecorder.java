@@ -0,0 +1,171 @@
+package com.johndoan.bookmarks.monitoring;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Times every JDBC statement the app runs and remembers the totals per
+ * statement "shape". This replaces {@code show-sql}, which printed (and
+ * pretty-formatted) every single statement to stdout on the request thread.
+ *
+ * How it works:
+ *   - {@link SqlMonitoringConfig} wraps the DataSource with datasource-proxy,
+ *     which calls {@link #beforeQuery} / {@link #afterQuery} around each statement.
+ *   - The SQL is reduced to a shape: string/number literals and IN lists become
+ *     {@code ?}, so "where id = 7" and "where id = 8" count as the same query.
+ *   - Statements slower than {@code bookmarks.sql.slow-threshold} are handed to a
+ *     single background thread to log, so logging never slows a request down.
+ *
+ * Bind values are REDACTED: only their number is logged, never the values, so
+ * owners, URLs and notes don't end up in log files.
+ */
+@Component
+public class SqlQueryRecorder implements QueryExecutionListener, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlQueryRecorder.class);
+    private static final String START_NANOS = "bookmarks.startNanos";
+    private static final String OTHER = "(other)";
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final SlowQueryProperties properties;
+    private final long slowNanos;
+    private final Map<String, ShapeStats> shapes = new ConcurrentHashMap<>();
+    private final LongAdder droppedLogs = new LongAdder();
+    private final ThreadPoolExecutor logWriter;
+
+    public SqlQueryRecorder(SlowQueryProperties properties) {
+        this.properties = properties;
+        this.slowNanos = properties.slowThreshold().toNanos();
+        // One thread + a bounded queue: if logging falls behind, entries are
+        // dropped and counted instead of piling up in memory.
+        this.logWriter = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.logQueueCapacity()),
+                r -> {
+                    Thread t = new Thread(r, "slow-query-log");
+                    t.setDaemon(true);
+                    return t;
+                },
+                (r, executor) -> droppedLogs.increment());
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long start = execInfo.getCustomValue(START_NANOS, Long.class);
+        long nanos = start != null ? System.nanoTime() - start : TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime());
+
+        // A JDBC batch repeats one statement many times: count the execution once per shape.
+        Set<String> executed = new LinkedHashSet<>();
+        int params = 0;
+        for (QueryInfo query : queryInfoList) {
+            executed.add(shape(query.getQuery()));
+            if (!query.getParametersList().isEmpty()) {
+                params = query.getParametersList().get(0).size();
+            }
+        }
+        for (String shape : executed) {
+            statsFor(shape).record(nanos);
+        }
+
+        if (nanos >= slowNanos) {
+            int batch = Math.max(execInfo.getBatchSize(), 1);
+            boolean success = execInfo.isSuccess();
+            String sql = String.join("; ", executed);
+            int paramCount = params;
+            logWriter.execute(() -> log.warn(
+                    "event=slow_query elapsed_ms={} success={} batch={} params={} sql=\"{}\"",
+                    TimeUnit.NANOSECONDS.toMillis(nanos), success, batch, paramCount, sql));
+        }
+    }
+
+    /** The {@code limit} shapes with the highest maximum time, slowest first. */
+    public SlowQueriesReport report(int limit) {
+        List<QueryShapeStats> slowest = shapes.entrySet().stream()
+                .map(e -> e.getValue().snapshot(e.getKey()))
+                .sorted(Comparator.comparingDouble(QueryShapeStats::maxMillis).reversed()
+                        .thenComparing(Comparator.comparingDouble(QueryShapeStats::totalMillis).reversed()))
+                .limit(limit)
+                .toList();
+        return new SlowQueriesReport(properties.slowThreshold().toMillis(), droppedLogs.sum(), slowest);
+    }
+
+    public int defaultLimit() {
+        return properties.topShapes();
+    }
+
+    /** Normalizes SQL so the same statement with different arguments has one shape. */
+    static String shape(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+    }
+
+    private ShapeStats statsFor(String shape) {
+        ShapeStats stats = shapes.get(shape);
+        if (stats != null) {
+            return stats;
+        }
+        String key = shapes.size() < properties.maxShapes() ? shape : OTHER;
+        return shapes.computeIfAbsent(key, k -> new ShapeStats());
+    }
+
+    @Override
+    public void destroy() {
+        logWriter.shutdown();
+    }
+
+    /** Lock-free running totals for one shape (many request threads record at once). */
+    private static final class ShapeStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+
+        void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        QueryShapeStats snapshot(String sql) {
+            long n = count.sum();
+            double total = totalNanos.sum() / 1e6;
+            return new QueryShapeStats(sql, n, total, n == 0 ? 0 : total / n, maxNanos.get() / 1e6);
+        }
+    }
+
+    /** One row of the /actuator/slowqueries response. */
+    public record QueryShapeStats(String sql, long count, double totalMillis, double meanMillis, double maxMillis) {
+    }
+
+    /** The /actuator/slowqueries response body. */
+    public record SlowQueriesReport(long slowThresholdMillis, long droppedLogEntries, List<QueryShapeStats> shapes) {
+    }
+}
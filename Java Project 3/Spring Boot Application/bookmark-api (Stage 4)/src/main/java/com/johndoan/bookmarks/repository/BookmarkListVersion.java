@@ -0,0 +1,14 @@
+package com.johndoan.bookmarks.repository;
+
+import java.time.Instant;
+
+/**
+ * A cheap fingerprint of one owner's bookmark list: how many there are and when
+ * the newest change happened. Any create, update or delete changes at least one
+ * of the two, so it is enough to build the list's ETag without loading any rows.
+ *
+ * @param count         number of bookmarks the owner has
+ * @param lastUpdatedAt latest {@code updatedAt} among them (null when there are none)
+ */
+public record BookmarkListVersion(long count, Instant lastUpdatedAt) {
+}
@@ -1,10 +1,13 @@
 package com.johndoan.bookmarks.repository;
 
 import com.johndoan.bookmarks.domain.Bookmark;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,14 +17,80 @@ import java.util.Optional;
  */
 public interface BookmarkRepository extends JpaRepository<Bookmark, Long> {
 
-    /** All of one owner's bookmarks, ordered by id. (Derived query.) */
-    List<Bookmark> findByOwnerOrderByIdAsc(String owner);
+    /**
+     * One page of an owner's bookmarks as plain rows (no tags): the first
+     * {@code limit} with an id greater than {@code afterId}, in id order. A keyset
+     * query: it seeks straight to {@code afterId} in the (owner, id) index, so
+     * page 500 costs the same as page 1 (no OFFSET rows to skip).
+     */
+    @Query("select new com.johndoan.bookmarks.repository.BookmarkRow("
+            + "b.id, b.owner, b.title, b.url, b.notes, b.createdAt, b.updatedAt) "
+            + "from Bookmark b where b.owner = :owner and b.id > :afterId order by b.id")
+    List<BookmarkRow> findRowsByOwner(@Param("owner") String owner, @Param("afterId") Long afterId, Limit limit);
 
     /** One bookmark, but only if it belongs to this owner. (Derived query.) */
     Optional<Bookmark> findByIdAndOwner(Long id, String owner);
 
-    /** One owner's bookmarks carrying a given tag. */
-    @Query("select distinct b from Bookmark b join b.tags t "
-            + "where b.owner = :owner and t = :tag order by b.id")
-    List<Bookmark> findByOwnerAndTag(@Param("owner") String owner, @Param("tag") String tag);
+    /**
+     * Just the {@code updatedAt} of one bookmark (if this owner has it): a primary
+     * key lookup that doesn't load the row, its tags or its notes. Used for ETags.
+     */
+    @Query("select b.updatedAt from Bookmark b where b.id = :id and b.owner = :owner")
+    Optional<Instant> findUpdatedAt(@Param("id") Long id, @Param("owner") String owner);
+
+    /** Id of the owner's bookmark for a URL, by {@code UrlNormalizer.hash}: a unique-index lookup. */
+    @Query("select b.id from Bookmark b where b.owner = :owner and b.urlHash = :urlHash")
+    Optional<Long> findIdByOwnerAndUrlHash(@Param("owner") String owner, @Param("urlHash") String urlHash);
+
+    /** The same lookup as a list row, for {@code GET /api/bookmarks?url=}. */
+    @Query("select new com.johndoan.bookmarks.repository.BookmarkRow("
+            + "b.id, b.owner, b.title, b.url, b.notes, b.createdAt, b.updatedAt) "
+            + "from Bookmark b where b.owner = :owner and b.urlHash = :urlHash")
+    List<BookmarkRow> findRowsByOwnerAndUrlHash(@Param("owner") String owner, @Param("urlHash") String urlHash);
+
+    /** The owner's bookmarks with these ids, as rows, in no particular order (search results). */
+    @Query("select new com.johndoan.bookmarks.repository.BookmarkRow("
+            + "b.id, b.owner, b.title, b.url, b.notes, b.createdAt, b.updatedAt) "
+            + "from Bookmark b where b.owner = :owner and b.id in :ids")
+    List<BookmarkRow> findRowsByOwnerAndIdIn(@Param("owner") String owner, @Param("ids") Collection<Long> ids);
+
+    /** The owner's bookmarks for any of these URL hashes (one chunk of a bulk create). */
+    List<Bookmark> findByOwnerAndUrlHashIn(String owner, Collection<String> urlHashes);
+
+    /** Count and newest change of one owner's bookmarks, served from the (owner, updated_at) index. */
+    @Query("select new com.johndoan.bookmarks.repository.BookmarkListVersion(count(b), max(b.updatedAt)) "
+            + "from Bookmark b where b.owner = :owner")
+    BookmarkListVersion listVersion(@Param("owner") String owner);
+
+    /**
+     * A page of one owner's bookmarks carrying a given tag (keyset, like
+     * {@link #findRowsByOwner}). The tag is found through the unique (owner, name)
+     * index and its bookmarks through the join table's (tag_id, bookmark_id)
+     * index, already in id order. A bookmark holds each tag
+     * at most once, so the join can't produce duplicates and needs no DISTINCT.
+     */
+    @Query("select new com.johndoan.bookmarks.repository.BookmarkRow("
+            + "b.id, b.owner, b.title, b.url, b.notes, b.createdAt, b.updatedAt) "
+            + "from Bookmark b join b.tags t "
+            + "where t.owner = :owner and t.name = :tag and b.owner = :owner and b.id > :afterId order by b.id")
+    List<BookmarkRow> findRowsByOwnerAndTag(@Param("owner") String owner, @Param("tag") String tag,
+                                            @Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Tag names of the owner's bookmarks with ids in [{@code firstId}, {@code lastId}],
+     * in name order: one query for the tags of a whole list of bookmarks, however
+     * long it is. Tags belong to one owner, so filtering on the tag's owner is
+     * enough, and the id range is a scan of the join table's primary key.
+     */
+    @Query("select new com.johndoan.bookmarks.repository.BookmarkTagName(b.id, t.name) "
+            + "from Bookmark b join b.tags t "
+            + "where t.owner = :owner and b.id between :firstId and :lastId order by t.name")
+    List<BookmarkTagName> findTagNames(@Param("owner") String owner,
+                                       @Param("firstId") Long firstId, @Param("lastId") Long lastId);
+
+    /** Like {@link #findTagNames}, for bookmarks that aren't a contiguous range (tagged pages, search results). */
+    @Query("select new com.johndoan.bookmarks.repository.BookmarkTagName(b.id, t.name) "
+            + "from Bookmark b join b.tags t "
+            + "where t.owner = :owner and b.id in :ids order by t.name")
+    List<BookmarkTagName> findTagNamesByIds(@Param("owner") String owner, @Param("ids") Collection<Long> ids);
 }
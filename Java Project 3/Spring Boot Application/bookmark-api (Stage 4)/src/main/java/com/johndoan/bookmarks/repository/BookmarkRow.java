@@ -0,0 +1,13 @@
+package com.johndoan.bookmarks.repository;
+
+import java.time.Instant;
+
+/**
+ * The columns of one bookmark row, selected directly by a list query instead of
+ * loading {@code Bookmark} entities: nothing enters the persistence context, so
+ * nothing is dirty-checked and no lazy tag collection can fire a query per row.
+ * Tags are fetched separately (see {@link BookmarkTagName}).
+ */
+public record BookmarkRow(Long id, String owner, String title, String url, String notes,
+                          Instant createdAt, Instant updatedAt) {
+}
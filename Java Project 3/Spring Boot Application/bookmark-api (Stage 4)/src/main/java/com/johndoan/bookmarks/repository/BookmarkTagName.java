@@ -0,0 +1,8 @@
+package com.johndoan.bookmarks.repository;
+
+/**
+ * One (bookmark, tag name) pair: a row of the {@code bookmark_tag} join table
+ * with the tag's name already resolved.
+ */
+public record BookmarkTagName(Long bookmarkId, String name) {
+}
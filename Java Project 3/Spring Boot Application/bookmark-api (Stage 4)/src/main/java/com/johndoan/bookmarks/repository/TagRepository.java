@@ -0,0 +1,17 @@
+package com.johndoan.bookmarks.repository;
+
+import com.johndoan.bookmarks.domain.Tag;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Tags are per owner, so every lookup takes the owner too (and is served by
+ * the unique (owner, name) index).
+ */
+public interface TagRepository extends JpaRepository<Tag, Long> {
+
+    /** The owner's existing tags among {@code names}. (Derived query.) */
+    List<Tag> findByOwnerAndNameIn(String owner, Collection<String> names);
+}
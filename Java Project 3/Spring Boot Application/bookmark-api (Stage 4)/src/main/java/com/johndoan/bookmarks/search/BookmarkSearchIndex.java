@@ -0,0 +1,456 @@
+package com.johndoan.bookmarks.search;
+
+import com.johndoan.bookmarks.service.BookmarkDeletedEvent;
+import com.johndoan.bookmarks.service.BookmarksSavedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory full-text index over each owner's bookmarks: title, notes, and the
+ * words of the URL's host and path ({@code https://docs.spring.io/spring-boot/}
+ * is indexed as docs, spring, io, spring, boot).
+ *
+ * <ul>
+ *   <li><b>Owner-scoped.</b> Every owner has a separate index with its own
+ *       lock, so a search only ever sees (and scores against) the caller's
+ *       bookmarks, and writers for one owner never block readers of another.</li>
+ *   <li><b>Prefix matching.</b> Terms are kept in a sorted map, so a query word
+ *       of two or more letters also matches the terms it starts ("sec" finds
+ *       "security") with one range scan. An exact match scores higher than an
+ *       expansion. A short word can start thousands of terms, so it expands to
+ *       at most {@value #MAX_PREFIX_EXPANSIONS}: the ones in the most bookmarks.</li>
+ *   <li><b>Ranking.</b> BM25, with a word in the title counting three times and
+ *       in the host twice.</li>
+ *   <li><b>Kept in sync</b> from {@code BookmarkService}'s events, after commit:
+ *       a rolled-back batch never reaches the index. On startup the index is
+ *       loaded from the database with one streaming query.</li>
+ * </ul>
+ *
+ * The postings of a term are parallel primitive arrays (bookmark id, and the
+ * term's weight plus the bookmark's length packed in an int), so scoring is a
+ * pass over arrays, and a million bookmarks fit in a few hundred MB. Each
+ * bookmark remembers its slot in every term's postings, so an update or delete
+ * takes it out in constant time per term rather than scanning the postings.
+ */
+@Component
+public class BookmarkSearchIndex implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(BookmarkSearchIndex.class);
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int TITLE_WEIGHT = 3;
+    private static final int HOST_WEIGHT = 2;
+    private static final int TEXT_WEIGHT = 1;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    /** Score factor for a term that only starts with the query word. */
+    private static final double PREFIX_FACTOR = 0.5;
+    /** URL words too common to mean anything. */
+    private static final Set<String> URL_NOISE = Set.of("http", "https", "www", "com", "org", "net", "html", "htm");
+
+    private final JdbcTemplate jdbc;
+    private final Map<String, OwnerIndex> owners = new ConcurrentHashMap<>();
+
+    public BookmarkSearchIndex(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.nanoTime();
+        int[] count = {0};
+        jdbc.query("select id, owner, title, url, notes from bookmarks", rs -> {
+            index(rs.getString(2), rs.getLong(1), rs.getString(3), rs.getString(4), rs.getString(5));
+            count[0]++;
+        });
+        log.info("Indexed {} bookmarks for search in {} ms", count[0],
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void bookmarksSaved(BookmarksSavedEvent event) {
+        for (BookmarksSavedEvent.Text bookmark : event.bookmarks()) {
+            index(event.owner(), bookmark.id(), bookmark.title(), bookmark.url(), bookmark.notes());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void bookmarkDeleted(BookmarkDeletedEvent event) {
+        remove(event.owner(), event.id());
+    }
+
+    /** Adds a bookmark, or replaces what was indexed for it before. */
+    public void index(String owner, long id, String title, String url, String notes) {
+        Map<String, Integer> weights = new HashMap<>();
+        int length = 0;
+        for (String token : tokenize(title)) {
+            weights.merge(token, TITLE_WEIGHT, Integer::sum);
+            length++;
+        }
+        for (String token : tokenize(notes)) {
+            weights.merge(token, TEXT_WEIGHT, Integer::sum);
+            length++;
+        }
+        UrlWords urlWords = urlWords(url);
+        for (String token : urlWords.host()) {
+            weights.merge(token, HOST_WEIGHT, Integer::sum);
+            length++;
+        }
+        for (String token : urlWords.path()) {
+            weights.merge(token, TEXT_WEIGHT, Integer::sum);
+            length++;
+        }
+        owners.computeIfAbsent(owner, o -> new OwnerIndex()).put(id, weights, length);
+    }
+
+    public void remove(String owner, long id) {
+        OwnerIndex index = owners.get(owner);
+        if (index != null) {
+            index.remove(id);
+        }
+    }
+
+    /** Number of the owner's bookmarks in the index. */
+    public int size(String owner) {
+        OwnerIndex index = owners.get(owner);
+        return index == null ? 0 : index.size();
+    }
+
+    /**
+     * Ids of the owner's best matches for {@code query}, best first (ties: newest
+     * first). A bookmark matches if it contains any of the query words.
+     */
+    public List<Long> search(String owner, String query, int limit) {
+        OwnerIndex index = owners.get(owner);
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (index == null || tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        return index.search(tokens, limit);
+    }
+
+    /** Lower-cased runs of letters and digits. */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /** Words of the host and the path; the query string and fragment are left out. */
+    static UrlWords urlWords(String url) {
+        String host = null;
+        String path = null;
+        try {
+            URI uri = new URI(url == null ? "" : url.trim());
+            host = uri.getHost();
+            path = uri.getPath();
+        } catch (URISyntaxException e) {
+            path = url;
+        }
+        List<String> hostWords = tokenize(host);
+        List<String> pathWords = tokenize(path);
+        hostWords.removeIf(URL_NOISE::contains);
+        pathWords.removeIf(URL_NOISE::contains);
+        return new UrlWords(hostWords, pathWords);
+    }
+
+    record UrlWords(List<String> host, List<String> path) {
+    }
+
+    /** One owner's postings. Readers share the lock; index and remove take it exclusively. */
+    private static final class OwnerIndex {
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final TreeMap<String, Postings> terms = new TreeMap<>();
+        /** What was indexed for each bookmark, so an update or delete can take it out again. */
+        private final Map<Long, Document> documents = new HashMap<>();
+        private long totalLength;
+
+        void put(long id, Map<String, Integer> weights, int length) {
+            int storedLength = Math.min(length, 0xFFFF);
+            lock.writeLock().lock();
+            try {
+                retract(id);
+                Document document = new Document(new Postings[weights.size()], new int[weights.size()]);
+                int i = 0;
+                for (Map.Entry<String, Integer> weight : weights.entrySet()) {
+                    Postings term = terms.computeIfAbsent(weight.getKey(), Postings::new);
+                    document.terms()[i] = term;
+                    document.slots()[i] = term.add(id, Math.min(weight.getValue(), 0xFFFF), storedLength, i);
+                    i++;
+                }
+                documents.put(id, document);
+                totalLength += storedLength;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(long id) {
+            lock.writeLock().lock();
+            try {
+                retract(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return documents.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void retract(long id) {
+            Document previous = documents.remove(id);
+            if (previous == null) {
+                return;
+            }
+            int length = 0;
+            for (int i = 0; i < previous.terms().length; i++) {
+                Postings term = previous.terms()[i];
+                int slot = previous.slots()[i];
+                length = term.meta[slot] & 0xFFFF;
+                if (term.removeAt(slot)) {
+                    // Another bookmark's posting moved into the freed slot.
+                    documents.get(term.ids[slot]).slots()[term.positions[slot]] = slot;
+                }
+                if (term.size == 0) {
+                    terms.remove(term.term);
+                }
+            }
+            totalLength -= length;
+        }
+
+        List<Long> search(List<String> tokens, int limit) {
+            lock.readLock().lock();
+            try {
+                int docCount = documents.size();
+                if (docCount == 0) {
+                    return List.of();
+                }
+                double avgLength = Math.max(1.0, (double) totalLength / docCount);
+                List<List<Postings>> matches = new ArrayList<>(tokens.size());
+                long postings = 0;
+                for (String token : tokens) {
+                    List<Postings> terms = matchingTerms(token);
+                    matches.add(terms);
+                    for (Postings term : terms) {
+                        postings += term.size;
+                    }
+                }
+                // Sized up front: a common word can match most of the owner's bookmarks.
+                Scores scores = new Scores((int) Math.min(postings, docCount));
+                for (int t = 0; t < tokens.size(); t++) {
+                    for (Postings term : matches.get(t)) {
+                        double factor = term.term.equals(tokens.get(t)) ? 1.0 : PREFIX_FACTOR;
+                        double idf = Math.log(1 + (docCount - term.size + 0.5) / (term.size + 0.5));
+                        for (int i = 0; i < term.size; i++) {
+                            int tf = term.meta[i] >>> 16;
+                            int length = term.meta[i] & 0xFFFF;
+                            double norm = tf + K1 * (1 - B + B * length / avgLength);
+                            scores.add(term.ids[i], factor * idf * tf * (K1 + 1) / norm);
+                        }
+                    }
+                }
+                return scores.top(limit);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private List<Postings> matchingTerms(String token) {
+            if (token.length() < MIN_PREFIX_LENGTH) {
+                Postings exact = terms.get(token);
+                return exact == null ? List.of() : List.of(exact);
+            }
+            NavigableMap<String, Postings> range = terms.subMap(token, true, token + Character.MAX_VALUE, false);
+            if (range.size() <= MAX_PREFIX_EXPANSIONS) {
+                return new ArrayList<>(range.values());
+            }
+            // Too many expansions: keep the word itself, then the terms in the most bookmarks.
+            List<Postings> matches = new ArrayList<>(MAX_PREFIX_EXPANSIONS);
+            Postings exact = range.get(token);
+            if (exact != null) {
+                matches.add(exact);
+            }
+            int room = MAX_PREFIX_EXPANSIONS - matches.size();
+            PriorityQueue<Postings> top = new PriorityQueue<>(room + 1, Comparator.comparingInt(term -> term.size));
+            for (Postings term : range.values()) {
+                if (term != exact) {
+                    top.offer(term);
+                    if (top.size() > room) {
+                        top.poll();
+                    }
+                }
+            }
+            matches.addAll(top);
+            return matches;
+        }
+    }
+
+    /** A bookmark's terms, and its slot in each term's postings. */
+    private record Document(Postings[] terms, int[] slots) {
+    }
+
+    /**
+     * The bookmarks containing one term: ids, (weight << 16 | bookmark length), and
+     * where this term is in each bookmark's {@link Document}, alongside.
+     */
+    private static final class Postings {
+
+        private final String term;
+        private long[] ids = new long[2];
+        private int[] meta = new int[2];
+        private int[] positions = new int[2];
+        private int size;
+
+        Postings(String term) {
+            this.term = term;
+        }
+
+        /** Appends a posting and returns its slot. */
+        int add(long id, int weight, int length, int position) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                meta = Arrays.copyOf(meta, size * 2);
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            ids[size] = id;
+            meta[size] = weight << 16 | length;
+            positions[size] = position;
+            return size++;
+        }
+
+        /**
+         * Removes the posting in {@code slot}. Order doesn't matter, so the last posting
+         * takes its place; returns true if one did, and the caller must record its new slot.
+         */
+        boolean removeAt(int slot) {
+            size--;
+            if (slot == size) {
+                return false;
+            }
+            ids[slot] = ids[size];
+            meta[slot] = meta[size];
+            positions[slot] = positions[size];
+            return true;
+        }
+    }
+
+    /** Score per bookmark id: an open-addressing map, so adding a score doesn't box anything. */
+    private static final class Scores {
+
+        private long[] keys;
+        private double[] values;
+        private boolean[] used;
+        private int size;
+
+        /** Room for {@code expected} ids at most half full, so it never has to grow. */
+        Scores(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(16, expected) * 2 - 1) << 1;
+            keys = new long[capacity];
+            values = new double[capacity];
+            used = new boolean[capacity];
+        }
+
+        void add(long id, double score) {
+            if (size * 2 >= keys.length) {
+                grow();
+            }
+            int mask = keys.length - 1;
+            int slot = Long.hashCode(id * 0x9E3779B97F4A7C15L) & mask;
+            while (used[slot] && keys[slot] != id) {
+                slot = (slot + 1) & mask;
+            }
+            if (!used[slot]) {
+                used[slot] = true;
+                keys[slot] = id;
+                size++;
+            }
+            values[slot] += score;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            double[] oldValues = values;
+            boolean[] oldUsed = used;
+            keys = new long[oldKeys.length * 2];
+            values = new double[oldKeys.length * 2];
+            used = new boolean[oldKeys.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldUsed[i]) {
+                    add(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        /** The {@code limit} best ids, best first; equal scores go to the newer (higher) id. */
+        List<Long> top(int limit) {
+            PriorityQueue<Integer> heap = new PriorityQueue<>(limit + 1, (a, b) -> {
+                int byScore = Double.compare(values[a], values[b]);
+                return byScore != 0 ? byScore : Long.compare(keys[a], keys[b]);
+            });
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (!used[slot]) {
+                    continue;
+                }
+                if (heap.size() < limit) {
+                    heap.offer(slot);
+                } else {
+                    int worst = heap.peek();
+                    if (values[slot] > values[worst] || (values[slot] == values[worst] && keys[slot] > keys[worst])) {
+                        heap.poll();
+                        heap.offer(slot);
+                    }
+                }
+            }
+            Long[] ids = new Long[heap.size()];
+            for (int i = ids.length - 1; i >= 0; i--) {
+                ids[i] = keys[heap.poll()];
+            }
+            return List.of(ids);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.johndoan.bookmarks.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link JwtDecoder} that remembers the tokens it has already verified.
+ *
+ * Decoding a bearer token means parsing it, checking its RS256 signature and
+ * validating its claims, on every request. A client reuses the same token for
+ * its whole lifetime (an hour here), so after the first request that work
+ * always has the same result. This decoder does it once per token:
+ *
+ * <ul>
+ *   <li>the key is the SHA-256 of the token, so the raw tokens aren't kept and
+ *       a lookup costs one hash of ~1 KB, not a signature check;</li>
+ *   <li>an entry is used only until the token's {@code exp}; after that the
+ *       token goes to the real decoder again, which rejects it. Tokens without
+ *       {@code exp} are never cached;</li>
+ *   <li>tokens the real decoder rejects are not cached: an invalid token always
+ *       fails the same way it did before;</li>
+ *   <li>at most {@code maxSize} tokens are held. When full, expired entries
+ *       are swept out; if that isn't enough, arbitrary entries are dropped down
+ *       to 90% of {@code maxSize}, so the sweep isn't repeated on every miss
+ *       while a flood of new tokens arrives.</li>
+ * </ul>
+ *
+ * Hits, misses and the size are exported as {@code bookmarks.jwt.cache.*}
+ * meters.
+ */
+public class CachingJwtDecoder implements JwtDecoder, MeterBinder {
+
+    private final JwtDecoder delegate;
+    private final int maxSize;
+    private final Clock clock;
+    private final Map<String, Jwt> verified = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public CachingJwtDecoder(JwtDecoder delegate, int maxSize, Clock clock) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1");
+        }
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+        this.clock = clock;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String key = sha256(token);
+        Jwt cached = verified.get(key);
+        Instant now = clock.instant();
+        if (cached != null) {
+            if (now.isBefore(cached.getExpiresAt())) {
+                hits.increment();
+                return cached;
+            }
+            verified.remove(key, cached);
+        }
+        misses.increment();
+        Jwt jwt = delegate.decode(token); // throws if the token isn't valid (any more)
+        if (jwt.getExpiresAt() != null && now.isBefore(jwt.getExpiresAt())) {
+            makeRoom(now);
+            verified.put(key, jwt);
+        }
+        return jwt;
+    }
+
+    /** Number of tokens currently cached. */
+    public int size() {
+        return verified.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("bookmarks.jwt.cache.hits", hits, LongAdder::sum)
+                .description("Bearer tokens served from the verified-token cache")
+                .register(registry);
+        FunctionCounter.builder("bookmarks.jwt.cache.misses", misses, LongAdder::sum)
+                .description("Bearer tokens decoded and verified in full")
+                .register(registry);
+        Gauge.builder("bookmarks.jwt.cache.size", verified, Map::size)
+                .description("Verified tokens currently cached")
+                .register(registry);
+    }
+
+    private void makeRoom(Instant now) {
+        if (verified.size() < maxSize) {
+            return;
+        }
+        verified.values().removeIf(jwt -> !now.isBefore(jwt.getExpiresAt()));
+        int target = maxSize - Math.max(1, maxSize / 10);
+        Iterator<String> keys = verified.keySet().iterator();
+        while (verified.size() > target && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static String sha256(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is always available", e);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.johndoan.bookmarks.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.johndoan.bookmarks.security.RateLimiter.Budget;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limits the API per JWT subject, right after authorization (requests
+ * without a valid token, or without the scope the call needs, never get this far
+ * and spend nothing; they are 401 or 403 anyway):
+ *
+ * <ul>
+ *   <li>GET/HEAD spend one {@link Budget#READ} token, the calls that need
+ *       {@code bookmark.read};</li>
+ *   <li>other methods spend one {@link Budget#WRITE} token, the calls that need
+ *       {@code bookmark.write};</li>
+ *   <li>{@code /batch} and {@code /import} are also refused while the subject's
+ *       {@link Budget#BULK} bucket is in debt. Their rows are charged to it by
+ *       the controller once it knows how many were written.</li>
+ * </ul>
+ *
+ * A refused request gets {@code 429 Too Many Requests} with {@code Retry-After}
+ * (whole seconds) and the same JSON error body as {@code GlobalExceptionHandler}.
+ *
+ * Not a Spring bean on purpose: Boot would register a bean Filter for every
+ * request. {@code SecurityConfig} adds it to the {@code /api/**} chain only.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Set<String> BULK_PATHS = Set.of("/api/bookmarks/batch", "/api/bookmarks/import");
+
+    private final RateLimiter limiter;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(RateLimiter limiter, ObjectMapper objectMapper) {
+        this.limiter = limiter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (!(authentication instanceof JwtAuthenticationToken token)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        String subject = token.getName();
+        boolean read = request.getMethod().equals("GET") || request.getMethod().equals("HEAD");
+        if (!read && BULK_PATHS.contains(request.getRequestURI().substring(request.getContextPath().length()))) {
+            long wait = limiter.tryAcquire(subject, Budget.BULK, 0);
+            if (wait > 0) {
+                reject(response, wait, "Too many bookmarks written in bulk");
+                return;
+            }
+        }
+        long wait = limiter.tryAcquire(subject, read ? Budget.READ : Budget.WRITE, 1);
+        if (wait > 0) {
+            reject(response, wait, read ? "Too many read requests" : "Too many write requests");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos, String reason) throws IOException {
+        long seconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        HttpStatus status = HttpStatus.TOO_MANY_REQUESTS;
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", Instant.now().toString());
+        body.put("status", status.value());
+        body.put("error", status.getReasonPhrase());
+        body.put("message", reason + "; retry in " + seconds + " s");
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
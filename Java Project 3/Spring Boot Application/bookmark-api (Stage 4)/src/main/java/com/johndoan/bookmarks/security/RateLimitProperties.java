@@ -0,0 +1,43 @@
+package com.johndoan.bookmarks.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the API rate limits, bound from {@code bookmarks.rate-limit.*}
+ * in application.yml. Anything left out falls back to the defaults below.
+ *
+ * @param enabled         false turns every limit off
+ * @param read            requests needing {@code bookmark.read} (GET), per subject
+ * @param write           requests needing {@code bookmark.write} (POST, PUT, DELETE), per subject
+ * @param bulk            bookmarks written by {@code /batch} and {@code /import}, per subject
+ * @param maxTrackedKeys  (subject, budget) pairs tracked; past that, idle ones are swept out (at most
+ *                        once a second) and new ones are refused until there is room
+ */
+@ConfigurationProperties(prefix = "bookmarks.rate-limit")
+public record RateLimitProperties(Boolean enabled, Limit read, Limit write, Limit bulk, Integer maxTrackedKeys) {
+
+    public RateLimitProperties {
+        enabled = enabled != null ? enabled : true;
+        read = Limit.orDefaults(read, 200, 50);
+        write = Limit.orDefaults(write, 50, 10);
+        bulk = Limit.orDefaults(bulk, 20_000, 200);
+        maxTrackedKeys = maxTrackedKeys != null ? maxTrackedKeys : 100_000;
+    }
+
+    /**
+     * A token bucket.
+     *
+     * @param capacity  the burst: what may be spent at once after a quiet spell
+     * @param perSecond how fast spent tokens come back
+     */
+    public record Limit(Long capacity, Double perSecond) {
+
+        static Limit orDefaults(Limit limit, long capacity, double perSecond) {
+            if (limit == null) {
+                return new Limit(capacity, perSecond);
+            }
+            return new Limit(limit.capacity() != null ? limit.capacity() : capacity,
+                    limit.perSecond() != null ? limit.perSecond() : perSecond);
+        }
+    }
+}
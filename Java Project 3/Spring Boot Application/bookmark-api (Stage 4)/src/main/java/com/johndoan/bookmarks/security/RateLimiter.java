@@ -0,0 +1,166 @@
+package com.johndoan.bookmarks.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-subject token buckets, one per {@link Budget}, without locks.
+ *
+ * Each bucket is a single {@link AtomicLong}: the time at which it will be full
+ * again (the "theoretical arrival time" of the generic cell rate algorithm,
+ * which behaves exactly like a token bucket). Spending {@code n} tokens moves
+ * that time {@code n} refill intervals forward, with one compare-and-set; the
+ * spend is refused if it would move it more than a full bucket's worth
+ * ({@code capacity} intervals) past now. A bucket whose time has passed is
+ * full, so it carries no state worth keeping. Once {@code maxTrackedKeys} are
+ * tracked, a new key sweeps the full ones out, but at most once a second; until
+ * a sweep makes room, requests for new keys are refused rather than tracked.
+ *
+ * Outcomes are counted in {@code bookmarks.ratelimit.requests} (tagged with
+ * budget and outcome); {@code bookmarks.ratelimit.keys} is the number of
+ * buckets tracked.
+ */
+public class RateLimiter {
+
+    /** What a request spends. */
+    public enum Budget {
+        READ, WRITE, BULK
+    }
+
+    private record Key(String subject, Budget budget) {
+    }
+
+    /** A {@link RateLimitProperties.Limit} in nanoseconds: per token, and for a full bucket. */
+    private record Rate(long intervalNanos, long burstNanos) {
+
+        static Rate of(RateLimitProperties.Limit limit) {
+            if (limit.capacity() < 1 || !(limit.perSecond() > 0)) {
+                throw new IllegalArgumentException("A rate limit needs a capacity of at least 1 and a positive "
+                        + "per-second rate: " + limit);
+            }
+            long interval = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / limit.perSecond()));
+            return new Rate(interval, Math.multiplyExact(interval, limit.capacity()));
+        }
+    }
+
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final boolean enabled;
+    private final int maxTrackedKeys;
+    private final LongSupplier nanoClock;
+    private final Map<Budget, Rate> rates = new EnumMap<>(Budget.class);
+    private final Map<Key, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final Map<Budget, Counter> allowed = new EnumMap<>(Budget.class);
+    private final Map<Budget, Counter> rejected = new EnumMap<>(Budget.class);
+    private final AtomicLong lastSweep;
+
+    public RateLimiter(RateLimitProperties properties, LongSupplier nanoClock, MeterRegistry registry) {
+        this.enabled = properties.enabled();
+        this.maxTrackedKeys = properties.maxTrackedKeys();
+        this.nanoClock = nanoClock;
+        this.lastSweep = new AtomicLong(nanoClock.getAsLong() - SWEEP_INTERVAL_NANOS);
+        rates.put(Budget.READ, Rate.of(properties.read()));
+        rates.put(Budget.WRITE, Rate.of(properties.write()));
+        rates.put(Budget.BULK, Rate.of(properties.bulk()));
+        for (Budget budget : Budget.values()) {
+            String tag = budget.name().toLowerCase(Locale.ROOT);
+            allowed.put(budget, Counter.builder("bookmarks.ratelimit.requests")
+                    .tag("budget", tag).tag("outcome", "allowed")
+                    .description("API requests checked against a rate limit")
+                    .register(registry));
+            rejected.put(budget, Counter.builder("bookmarks.ratelimit.requests")
+                    .tag("budget", tag).tag("outcome", "rejected")
+                    .description("API requests checked against a rate limit")
+                    .register(registry));
+        }
+        Gauge.builder("bookmarks.ratelimit.keys", buckets, Map::size)
+                .description("(subject, budget) buckets currently tracked")
+                .register(registry);
+    }
+
+    /**
+     * Spends {@code cost} tokens of the subject's {@code budget} if it holds
+     * them. Returns 0 if it did; otherwise nothing is spent and the result is the
+     * number of nanoseconds until the same call would succeed. A cost of 0 only
+     * checks that the bucket isn't in debt (see {@link #charge}).
+     */
+    public long tryAcquire(String subject, Budget budget, long cost) {
+        if (!enabled) {
+            return 0;
+        }
+        Rate rate = rates.get(budget);
+        long now = nanoClock.getAsLong();
+        AtomicLong bucket = bucket(subject, budget, now);
+        if (bucket == null) {
+            rejected.get(budget).increment();
+            return Math.max(1, lastSweep.get() + SWEEP_INTERVAL_NANOS - now);
+        }
+        while (true) {
+            long fullAt = bucket.get();
+            long next = later(fullAt, now) + cost * rate.intervalNanos();
+            long wait = next - now - rate.burstNanos();
+            if (wait > 0) {
+                rejected.get(budget).increment();
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                allowed.get(budget).increment();
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Spends {@code cost} tokens whether or not the bucket holds them, leaving it
+     * in debt if need be. For work whose size is only known once it is done (the
+     * rows a streamed batch wrote): later {@link #tryAcquire} calls are refused
+     * until the debt is paid off. Dropped if the subject has no bucket and there
+     * is no room for one.
+     */
+    public void charge(String subject, Budget budget, long cost) {
+        if (!enabled || cost <= 0) {
+            return;
+        }
+        long interval = rates.get(budget).intervalNanos();
+        long now = nanoClock.getAsLong();
+        AtomicLong bucket = bucket(subject, budget, now);
+        if (bucket != null) {
+            bucket.getAndUpdate(fullAt -> later(fullAt, now) + cost * interval);
+        }
+    }
+
+    /** The key's bucket, or null if it has none and there is no room for one yet. */
+    private AtomicLong bucket(String subject, Budget budget, long now) {
+        Key key = new Key(subject, budget);
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxTrackedKeys) {
+            long last = lastSweep.get();
+            if (now - last >= SWEEP_INTERVAL_NANOS && lastSweep.compareAndSet(last, now)) {
+                // Full buckets are the same as untracked ones. (A request racing with
+                // the sweep may spend from a bucket just removed; that spend is lost.)
+                buckets.values().removeIf(fullAt -> fullAt.get() - now <= 0);
+            }
+            if (buckets.size() >= maxTrackedKeys) {
+                return null;
+            }
+        }
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+
+    /** The later of two {@link System#nanoTime} readings (which may wrap, so compared by difference). */
+    private static long later(long a, long b) {
+        return a - b > 0 ? a : b;
+    }
+}
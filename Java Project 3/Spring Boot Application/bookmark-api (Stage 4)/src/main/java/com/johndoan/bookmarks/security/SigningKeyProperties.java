@@ -0,0 +1,40 @@
+package com.johndoan.bookmarks.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings for the token signing keys, bound from {@code bookmarks.signing.*}
+ * in application.yml. Anything left out falls back to the defaults below.
+ *
+ * @param keyFile      the JWK set file holding the keys (private parts included);
+ *                     created on first start
+ * @param algorithm    algorithm of the key that signs new tokens
+ * @param rotateAfter  a signing key older than this is replaced by a new one at
+ *                     startup; the old one stays published for verification
+ * @param retainedKeys keys kept in the file, newest first, the signing key
+ *                     included; older ones are dropped (tokens they signed stop
+ *                     verifying, so keep this above one access-token lifetime's
+ *                     worth of rotations)
+ */
+@ConfigurationProperties(prefix = "bookmarks.signing")
+public record SigningKeyProperties(Path keyFile, SigningAlgorithm algorithm, Duration rotateAfter,
+                                   Integer retainedKeys) {
+
+    public SigningKeyProperties {
+        keyFile = keyFile != null ? keyFile : Path.of("data", "signing-keys.json");
+        algorithm = algorithm != null ? algorithm : SigningAlgorithm.RS256;
+        rotateAfter = rotateAfter != null ? rotateAfter : Duration.ofDays(30);
+        retainedKeys = retainedKeys != null ? retainedKeys : 3;
+    }
+
+    /** The JWS algorithms a signing key can be generated for. */
+    public enum SigningAlgorithm {
+        /** RSA 2048 with SHA-256: the default, and what every JWT library verifies. */
+        RS256,
+        /** ECDSA on P-256 with SHA-256: smaller keys and tokens, much faster to generate and sign. */
+        ES256
+    }
+}
@@ -0,0 +1,169 @@
+package com.johndoan.bookmarks.security;
+
+import com.johndoan.bookmarks.security.SigningKeyProperties.SigningAlgorithm;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The keys tokens are signed with, kept in a JWK set file (by default
+ * {@code ./data/signing-keys.json}, next to the database) instead of being
+ * generated in memory on every start. Tokens issued before a restart therefore
+ * stay valid after it, and startup doesn't pay for an RSA key generation.
+ *
+ * On {@link #load}:
+ *
+ * <ol>
+ *   <li>the file is read; if there is none, it starts out empty;</li>
+ *   <li>if the newest key is older than {@code rotateAfter}, or isn't for the
+ *       configured algorithm (or there is no key), a new key is generated and
+ *       becomes the signing key;</li>
+ *   <li>keys beyond {@code retainedKeys} (the oldest) are dropped;</li>
+ *   <li>if anything changed, the file is rewritten, readable by its owner only.</li>
+ * </ol>
+ *
+ * Only the newest key signs; all of them are published at
+ * {@code /oauth2/jwks} and accepted by the API, so tokens signed before a
+ * rotation keep working until they expire. Each key carries its {@code kid}
+ * (a random UUID) and its {@code iat}, the time it was generated.
+ */
+public final class SigningKeys {
+
+    private static final Logger log = LoggerFactory.getLogger(SigningKeys.class);
+
+    private final JWKSet jwkSet;
+    private final SignatureAlgorithm algorithm;
+
+    private SigningKeys(JWKSet jwkSet, SignatureAlgorithm algorithm) {
+        this.jwkSet = jwkSet;
+        this.algorithm = algorithm;
+    }
+
+    public static SigningKeys load(SigningKeyProperties properties, Clock clock) {
+        Path file = properties.keyFile();
+        List<JWK> keys = new ArrayList<>(read(file));
+        keys.sort(Comparator.comparing(SigningKeys::issuedAt).reversed());
+        Instant now = clock.instant();
+        JWSAlgorithm wanted = JWSAlgorithm.parse(properties.algorithm().name());
+
+        boolean changed = false;
+        JWK newest = keys.isEmpty() ? null : keys.get(0);
+        if (newest == null || !wanted.equals(newest.getAlgorithm())
+                || !issuedAt(newest).plus(properties.rotateAfter()).isAfter(now)) {
+            long start = System.nanoTime();
+            JWK generated = generate(properties.algorithm(), now);
+            log.info("Generated {} signing key {} in {} ms", properties.algorithm(), generated.getKeyID(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            keys.add(0, generated);
+            changed = true;
+        }
+        while (keys.size() > Math.max(1, properties.retainedKeys())) {
+            JWK retired = keys.remove(keys.size() - 1);
+            log.info("Dropped signing key {} issued {}", retired.getKeyID(), issuedAt(retired));
+            changed = true;
+        }
+        if (changed) {
+            write(file, new JWKSet(keys));
+        }
+        log.info("Signing tokens with {} key {}; {} key(s) published", properties.algorithm(),
+                keys.get(0).getKeyID(), keys.size());
+        return new SigningKeys(new JWKSet(keys), SignatureAlgorithm.from(properties.algorithm().name()));
+    }
+
+    /** Every retained key, the signing key first, private parts included. */
+    public JWKSet jwkSet() {
+        return jwkSet;
+    }
+
+    /** The key new tokens are signed with. */
+    public JWK signingKey() {
+        return jwkSet.getKeys().get(0);
+    }
+
+    public SignatureAlgorithm signatureAlgorithm() {
+        return algorithm;
+    }
+
+    private static JWK generate(SigningAlgorithm algorithm, Instant now) {
+        String keyId = UUID.randomUUID().toString();
+        try {
+            return switch (algorithm) {
+                case RS256 -> new RSAKeyGenerator(2048)
+                        .keyUse(KeyUse.SIGNATURE).algorithm(JWSAlgorithm.RS256)
+                        .keyID(keyId).issueTime(Date.from(now))
+                        .generate();
+                case ES256 -> new ECKeyGenerator(Curve.P_256)
+                        .keyUse(KeyUse.SIGNATURE).algorithm(JWSAlgorithm.ES256)
+                        .keyID(keyId).issueTime(Date.from(now))
+                        .generate();
+            };
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Unable to generate a " + algorithm + " signing key", e);
+        }
+    }
+
+    /** A key without {@code iat} (say, added by hand) counts as old. */
+    private static Instant issuedAt(JWK key) {
+        return key.getIssueTime() != null ? key.getIssueTime().toInstant() : Instant.EPOCH;
+    }
+
+    private static List<JWK> read(Path file) {
+        if (!Files.exists(file)) {
+            return List.of();
+        }
+        try {
+            return JWKSet.load(file.toFile()).getKeys();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read signing keys from " + file, e);
+        } catch (ParseException e) {
+            // Not replaced automatically: a new key would invalidate every token in circulation.
+            throw new IllegalStateException("Signing key file " + file + " is not a valid JWK set: "
+                    + e.getMessage() + ". Fix or delete it.", e);
+        }
+    }
+
+    /** Writes to a temporary file and moves it into place, so a crash never leaves half a key file. */
+    private static void write(Path file, JWKSet keys) {
+        try {
+            Path dir = file.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            Path temp = Files.createTempFile(dir, "signing-keys", ".tmp");
+            try {
+                if (Files.getFileStore(temp).supportsFileAttributeView("posix")) {
+                    Files.setPosixFilePermissions(temp, PosixFilePermissions.fromString("rw-------"));
+                }
+                Files.writeString(temp, keys.toString(false), StandardCharsets.UTF_8);
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write signing keys to " + file, e);
+        }
+    }
+}
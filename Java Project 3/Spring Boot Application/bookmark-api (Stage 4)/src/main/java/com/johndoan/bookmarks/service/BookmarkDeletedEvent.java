@@ -0,0 +1,5 @@
+package com.johndoan.bookmarks.service;
+
+/** Published by {@link BookmarkService} when a bookmark is deleted. */
+public record BookmarkDeletedEvent(String owner, long id) {
+}
@@ -0,0 +1,15 @@
+package com.johndoan.bookmarks.service;
+
+import com.johndoan.bookmarks.web.dto.BookmarkResponse;
+
+import java.util.List;
+
+/**
+ * One page of a bookmark list, in id order.
+ *
+ * @param bookmarks the page itself
+ * @param nextAfter cursor for the next page (the last id on this one), or null
+ *                  if this is the last page
+ */
+public record BookmarkPage(List<BookmarkResponse> bookmarks, Long nextAfter) {
+}
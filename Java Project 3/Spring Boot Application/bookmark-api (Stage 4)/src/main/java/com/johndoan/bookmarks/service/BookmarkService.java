@@ -1,38 +1,164 @@
 package com.johndoan.bookmarks.service;
 
 import com.johndoan.bookmarks.domain.Bookmark;
+import com.johndoan.bookmarks.domain.Tag;
+import com.johndoan.bookmarks.repository.BookmarkListVersion;
 import com.johndoan.bookmarks.repository.BookmarkRepository;
+import com.johndoan.bookmarks.repository.BookmarkRow;
+import com.johndoan.bookmarks.repository.BookmarkTagName;
+import com.johndoan.bookmarks.repository.TagRepository;
+import com.johndoan.bookmarks.search.BookmarkSearchIndex;
+import com.johndoan.bookmarks.web.ConflictException;
 import com.johndoan.bookmarks.web.NotFoundException;
+import com.johndoan.bookmarks.web.dto.BookmarkResponse;
 import com.johndoan.bookmarks.web.dto.CreateBookmarkRequest;
 import com.johndoan.bookmarks.web.dto.UpdateBookmarkRequest;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * Business logic for bookmarks. Every method takes the {@code owner} (the JWT
  * subject of the caller) and only ever touches that owner's data — so two users
  * never see or modify each other's bookmarks.
+ *
+ * Creates, updates and deletes publish a {@link BookmarksSavedEvent} or
+ * {@link BookmarkDeletedEvent}, which the {@link BookmarkSearchIndex} applies
+ * once the transaction commits.
  */
 @Service
 @Transactional
 public class BookmarkService {
 
+    /** Bookmarks written (and then detached) at a time by {@link #createAll}. */
+    static final int CHUNK_SIZE = 500;
+
     private final BookmarkRepository repository;
+    private final TagRepository tagRepository;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher events;
+    private final BookmarkSearchIndex searchIndex;
 
-    public BookmarkService(BookmarkRepository repository) {
+    public BookmarkService(BookmarkRepository repository, TagRepository tagRepository, EntityManager entityManager,
+                           ApplicationEventPublisher events, BookmarkSearchIndex searchIndex) {
         this.repository = repository;
+        this.tagRepository = tagRepository;
+        this.entityManager = entityManager;
+        this.events = events;
+        this.searchIndex = searchIndex;
     }
 
+    /**
+     * Up to {@code limit} of the owner's bookmarks (optionally only those with
+     * {@code tag}) with an id greater than {@code after}, ordered by id.
+     *
+     * Always two statements, however big the page is: one for the rows, and one
+     * for their tags. An unfiltered page is a contiguous run of the owner's ids, so
+     * its tags are read by id range; a tagged page can be spread over the owner's
+     * whole id range, so its tags are read by id. No entities are loaded. One extra
+     * row is fetched to tell whether there is a next page.
+     */
     @Transactional(readOnly = true)
-    public List<Bookmark> list(String owner, String tag) {
-        if (tag != null && !tag.isBlank()) {
-            return repository.findByOwnerAndTag(owner, tag.trim().toLowerCase());
+    public BookmarkPage list(String owner, String tag, long after, int limit) {
+        Limit pageLimit = Limit.of(limit + 1);
+        boolean tagged = tag != null && !tag.isBlank();
+        List<BookmarkRow> rows = tagged
+                ? repository.findRowsByOwnerAndTag(owner, tag.trim().toLowerCase(), after, pageLimit)
+                : repository.findRowsByOwner(owner, after, pageLimit);
+        boolean hasMore = rows.size() > limit;
+        if (hasMore) {
+            rows = rows.subList(0, limit);
         }
-        return repository.findByOwnerOrderByIdAsc(owner);
+        List<BookmarkResponse> responses = tagged ? toResponsesByIds(owner, rows) : toResponses(owner, rows);
+        return new BookmarkPage(responses, hasMore ? rows.get(rows.size() - 1).id() : null);
+    }
+
+    /**
+     * The owner's bookmark for {@code url} (in any spelling with the same
+     * canonical form), as a page of zero or one. Found through the unique
+     * (owner, url_hash) index, however many bookmarks the owner has.
+     */
+    @Transactional(readOnly = true)
+    public BookmarkPage findByUrl(String owner, String url) {
+        List<BookmarkRow> rows = repository.findRowsByOwnerAndUrlHash(owner, UrlNormalizer.hash(url));
+        return new BookmarkPage(toResponses(owner, rows), null);
+    }
+
+    /**
+     * The owner's bookmarks matching {@code query} (any of its words, in the
+     * title, notes or URL; a word also matches words it starts), best match
+     * first. The ranking comes from the {@link BookmarkSearchIndex}; the rows
+     * and their tags are then loaded by primary key, two statements in all.
+     */
+    @Transactional(readOnly = true)
+    public List<BookmarkResponse> search(String owner, String query, int limit) {
+        List<Long> ids = searchIndex.search(owner, query, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, BookmarkRow> rowsById = new HashMap<>();
+        for (BookmarkRow row : repository.findRowsByOwnerAndIdIn(owner, ids)) {
+            rowsById.put(row.id(), row);
+        }
+        List<BookmarkRow> rows = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            BookmarkRow row = rowsById.get(id);
+            if (row != null) { // deleted since the index was asked
+                rows.add(row);
+            }
+        }
+        return toResponsesByIds(owner, rows);
+    }
+
+    /** Rows plus their tags, fetched with one query for the rows' whole id range. */
+    private List<BookmarkResponse> toResponses(String owner, List<BookmarkRow> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        return toResponses(rows, repository.findTagNames(owner, rows.get(0).id(), rows.get(rows.size() - 1).id()));
+    }
+
+    /** Rows plus their tags, fetched with one query by id, for rows that aren't a contiguous range. */
+    private List<BookmarkResponse> toResponsesByIds(String owner, List<BookmarkRow> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = rows.stream().map(BookmarkRow::id).toList();
+        return toResponses(rows, repository.findTagNamesByIds(owner, ids));
+    }
+
+    /** Rows in the order given, each with its names from {@code tagNames} (which may hold extra bookmarks). */
+    private static List<BookmarkResponse> toResponses(List<BookmarkRow> rows, List<BookmarkTagName> tagNames) {
+        Map<Long, List<String>> tagsById = new HashMap<>();
+        for (BookmarkRow row : rows) {
+            tagsById.put(row.id(), new ArrayList<>(2));
+        }
+        for (BookmarkTagName tagName : tagNames) {
+            List<String> names = tagsById.get(tagName.bookmarkId());
+            if (names != null) {
+                names.add(tagName.name());
+            }
+        }
+
+        List<BookmarkResponse> responses = new ArrayList<>(rows.size());
+        for (BookmarkRow row : rows) {
+            responses.add(new BookmarkResponse(row.id(), row.owner(), row.title(), row.url(),
+                    tagsById.get(row.id()), row.notes(), row.createdAt(), row.updatedAt()));
+        }
+        return responses;
     }
 
     @Transactional(readOnly = true)
@@ -41,41 +167,243 @@ public class BookmarkService {
                 .orElseThrow(() -> new NotFoundException("Bookmark " + id + " not found"));
     }
 
+    /** {@code updatedAt} of one of the owner's bookmarks, without loading it (404 if not theirs). */
+    @Transactional(readOnly = true)
+    public Instant lastModified(Long id, String owner) {
+        return repository.findUpdatedAt(id, owner)
+                .orElseThrow(() -> new NotFoundException("Bookmark " + id + " not found"));
+    }
+
+    @Transactional(readOnly = true)
+    public BookmarkListVersion listVersion(String owner) {
+        return repository.listVersion(owner);
+    }
+
+    /** 409 if the owner already has a bookmark for the same (canonical) URL. */
     public Bookmark create(CreateBookmarkRequest request, String owner) {
+        String urlHash = UrlNormalizer.hash(request.url());
+        repository.findIdByOwnerAndUrlHash(owner, urlHash).ifPresent(existing -> {
+            throw duplicate(request.url(), existing);
+        });
         Instant now = Instant.now();
         Bookmark bookmark = new Bookmark(
                 null,
                 owner,
                 request.title(),
                 request.url(),
-                normalizeTags(request.tags()),
+                resolveTags(normalizeTags(request.tags()), owner, new HashMap<>()),
                 request.notes(),
                 now,
                 now
         );
-        return repository.save(bookmark);
+        bookmark.setUrlHash(urlHash);
+        Bookmark saved = repository.save(bookmark);
+        events.publishEvent(new BookmarksSavedEvent(owner, List.of(BookmarksSavedEvent.Text.of(saved))));
+        return saved;
     }
 
+    /**
+     * Creates all the bookmarks in ONE transaction: if any request fails (say the
+     * iterator rejects an invalid element, or a duplicate URL is rejected)
+     * nothing is saved. {@code duplicates} decides what happens to a request
+     * whose URL the owner already has, or that repeats an earlier request.
+     *
+     * Requests are consumed as the iterator yields them, so the caller can parse
+     * the request body lazily. Every {@value #CHUNK_SIZE} bookmarks, their tags
+     * are resolved with one query, the chunk is flushed as batched INSERTs
+     * (sequence ids + {@code hibernate.jdbc.batch_size}) and the persistence
+     * context is cleared, so Hibernate's dirty checking and first-level cache
+     * don't grow with the batch. The result still holds every created or merged
+     * bookmark (detached) for the response, so that part does. Existing
+     * bookmarks are found with one {@code url_hash IN (...)} query per chunk;
+     * earlier chunks are flushed by then, so repeats across chunks are found too.
+     */
+    public BulkCreateResult createAll(Iterator<CreateBookmarkRequest> requests, String owner,
+                                      DuplicatePolicy duplicates) {
+        ChunkWriter writer = new ChunkWriter(owner, Instant.now(), duplicates);
+        List<CreateBookmarkRequest> chunk = new ArrayList<>(CHUNK_SIZE);
+        while (requests.hasNext()) {
+            chunk.add(requests.next());
+            if (chunk.size() == CHUNK_SIZE || !requests.hasNext()) {
+                writer.write(chunk);
+                chunk.clear();
+            }
+        }
+        return new BulkCreateResult(writer.bookmarks, writer.created, writer.merged, writer.skipped);
+    }
+
+    /** 409 if the new URL is one the owner has on a different bookmark. */
     public Bookmark update(Long id, UpdateBookmarkRequest request, String owner) {
         Bookmark existing = get(id, owner); // throws NotFoundException if missing or not owned
+        String urlHash = UrlNormalizer.hash(request.url());
+        repository.findIdByOwnerAndUrlHash(owner, urlHash)
+                .filter(other -> !other.equals(id))
+                .ifPresent(other -> {
+                    throw duplicate(request.url(), other);
+                });
         existing.setTitle(request.title());
         existing.setUrl(request.url());
-        existing.setTags(normalizeTags(request.tags()));
+        existing.setUrlHash(urlHash);
+        existing.setTags(resolveTags(normalizeTags(request.tags()), owner, new HashMap<>()));
         existing.setNotes(request.notes());
         existing.setUpdatedAt(Instant.now());
-        return repository.save(existing);
+        Bookmark saved = repository.save(existing);
+        events.publishEvent(new BookmarksSavedEvent(owner, List.of(BookmarksSavedEvent.Text.of(saved))));
+        return saved;
     }
 
     public void delete(Long id, String owner) {
         Bookmark existing = get(id, owner); // 404 if missing or owned by someone else
         repository.delete(existing);
+        events.publishEvent(new BookmarkDeletedEvent(owner, id));
+    }
+
+    /** Writes the chunks of one {@link #createAll} call and counts what happened. */
+    private final class ChunkWriter {
+
+        private final String owner;
+        private final Instant now;
+        private final DuplicatePolicy duplicates;
+        private final Map<String, Tag> knownTags = new HashMap<>();
+        private final List<Bookmark> bookmarks = new ArrayList<>();
+        /**
+         * Position in {@link #bookmarks} of each id listed there. A bookmark loaded again in a
+         * later chunk is a new instance, and it replaces the stale one at that position.
+         */
+        private final Map<Long, Integer> listed = new HashMap<>();
+        private int created;
+        private int merged;
+        private int skipped;
+
+        ChunkWriter(String owner, Instant now, DuplicatePolicy duplicates) {
+            this.owner = owner;
+            this.now = now;
+            this.duplicates = duplicates;
+        }
+
+        void write(List<CreateBookmarkRequest> chunk) {
+            Set<String> names = new TreeSet<>();
+            List<String> urlHashes = new ArrayList<>(chunk.size());
+            for (CreateBookmarkRequest request : chunk) {
+                names.addAll(normalizeTags(request.tags()));
+                urlHashes.add(UrlNormalizer.hash(request.url()));
+            }
+            resolveTags(names, owner, knownTags);
+            Map<String, Bookmark> byUrlHash = new HashMap<>();
+            for (Bookmark existing : repository.findByOwnerAndUrlHashIn(owner, new HashSet<>(urlHashes))) {
+                byUrlHash.put(existing.getUrlHash(), existing);
+            }
+
+            List<Bookmark> inserts = new ArrayList<>(chunk.size());
+            List<Integer> insertPositions = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                CreateBookmarkRequest request = chunk.get(i);
+                Set<Tag> tags = new LinkedHashSet<>();
+                for (String name : normalizeTags(request.tags())) {
+                    tags.add(knownTags.get(name));
+                }
+                Bookmark match = byUrlHash.get(urlHashes.get(i));
+                if (match == null) {
+                    Bookmark bookmark = new Bookmark(null, owner, request.title(), request.url(), tags,
+                            request.notes(), now, now);
+                    bookmark.setUrlHash(urlHashes.get(i));
+                    byUrlHash.put(bookmark.getUrlHash(), bookmark);
+                    inserts.add(bookmark);
+                    insertPositions.add(bookmarks.size());
+                    bookmarks.add(bookmark);
+                    created++;
+                    continue;
+                }
+                switch (duplicates) {
+                    case REJECT -> throw match.getId() == null
+                            ? new ConflictException("The batch contains " + request.url() + " more than once")
+                            : duplicate(request.url(), match.getId());
+                    case SKIP -> skipped++;
+                    case MERGE -> {
+                        mergeTags(match, tags);
+                        // A new bookmark from this chunk (no id yet) is listed already.
+                        if (match.getId() != null) {
+                            Integer position = listed.putIfAbsent(match.getId(), bookmarks.size());
+                            if (position == null) {
+                                bookmarks.add(match);
+                            } else {
+                                bookmarks.set(position, match);
+                            }
+                        }
+                        merged++;
+                    }
+                }
+            }
+            repository.saveAll(inserts);
+            List<BookmarksSavedEvent.Text> texts = new ArrayList<>(inserts.size());
+            for (int i = 0; i < inserts.size(); i++) {
+                Bookmark bookmark = inserts.get(i);
+                listed.put(bookmark.getId(), insertPositions.get(i));
+                texts.add(BookmarksSavedEvent.Text.of(bookmark));
+            }
+            // A merge only adds tags, which the search index doesn't cover.
+            if (!texts.isEmpty()) {
+                events.publishEvent(new BookmarksSavedEvent(owner, texts));
+            }
+            entityManager.flush();
+            entityManager.clear();
+        }
+
+        /**
+         * Adds the tags {@code bookmark} doesn't have yet. Compared by id: tags in
+         * {@code knownTags} may be detached copies of the ones it holds.
+         */
+        private void mergeTags(Bookmark bookmark, Set<Tag> tags) {
+            Set<Long> present = new HashSet<>();
+            for (Tag tag : bookmark.getTags()) {
+                present.add(tag.getId());
+            }
+            boolean changed = false;
+            for (Tag tag : tags) {
+                if (present.add(tag.getId())) {
+                    bookmark.getTags().add(tag);
+                    changed = true;
+                }
+            }
+            if (changed && bookmark.getId() != null) {
+                bookmark.setUpdatedAt(now);
+            }
+        }
+    }
+
+    private static ConflictException duplicate(String url, Long existingId) {
+        return new ConflictException("You already have a bookmark for " + url + " (id " + existingId + ")");
+    }
+
+    /**
+     * The owner's {@link Tag} rows for these (normalized) names, creating the ones
+     * they don't have yet. Tags already in {@code knownTags} are reused; one query
+     * finds the rest, and only new names cost an insert. {@code knownTags} is
+     * updated with everything resolved.
+     */
+    private Set<Tag> resolveTags(Set<String> names, String owner, Map<String, Tag> knownTags) {
+        Set<Tag> resolved = new LinkedHashSet<>();
+        if (names.isEmpty()) {
+            return resolved;
+        }
+        List<String> unknown = names.stream().filter(name -> !knownTags.containsKey(name)).toList();
+        if (!unknown.isEmpty()) {
+            for (Tag tag : tagRepository.findByOwnerAndNameIn(owner, unknown)) {
+                knownTags.put(tag.getName(), tag);
+            }
+        }
+        for (String name : names) {
+            resolved.add(knownTags.computeIfAbsent(name, n -> tagRepository.save(new Tag(owner, n))));
+        }
+        return resolved;
     }
 
-    private List<String> normalizeTags(List<String> tags) {
+    // Sorted, so a new bookmark lists its tags in the same (name) order as a loaded one.
+    private Set<String> normalizeTags(List<String> tags) {
+        Set<String> cleaned = new TreeSet<>();
         if (tags == null) {
-            return new ArrayList<>();
+            return cleaned;
         }
-        List<String> cleaned = new ArrayList<>();
         for (String tag : tags) {
             if (tag != null && !tag.isBlank()) {
                 cleaned.add(tag.trim().toLowerCase());
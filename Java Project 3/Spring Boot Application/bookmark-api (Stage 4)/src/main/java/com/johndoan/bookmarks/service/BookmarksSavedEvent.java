@@ -0,0 +1,20 @@
+package com.johndoan.bookmarks.service;
+
+import com.johndoan.bookmarks.domain.Bookmark;
+
+import java.util.List;
+
+/**
+ * Published by {@link BookmarkService} when bookmarks are created or updated
+ * (one event per single create/update, one per chunk of a bulk create).
+ * Carries a copy of the searchable text, so listeners never touch entities.
+ */
+public record BookmarksSavedEvent(String owner, List<Text> bookmarks) {
+
+    public record Text(long id, String title, String url, String notes) {
+
+        static Text of(Bookmark bookmark) {
+            return new Text(bookmark.getId(), bookmark.getTitle(), bookmark.getUrl(), bookmark.getNotes());
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.johndoan.bookmarks.service;
+
+import com.johndoan.bookmarks.domain.Bookmark;
+
+import java.util.List;
+
+/**
+ * Outcome of {@link BookmarkService#createAll}.
+ *
+ * @param bookmarks the bookmark each request ended up as, in request order:
+ *                  a new one, or (with {@link DuplicatePolicy#MERGE}) the
+ *                  existing one its tags were merged into. Skipped requests have
+ *                  no entry.
+ * @param created   how many new bookmarks were inserted
+ * @param merged    how many requests were merged into an existing bookmark
+ * @param skipped   how many duplicates were dropped ({@link DuplicatePolicy#SKIP})
+ */
+public record BulkCreateResult(List<Bookmark> bookmarks, int created, int merged, int skipped) {
+}
@@ -0,0 +1,17 @@
+package com.johndoan.bookmarks.service;
+
+/**
+ * What a bulk create or import does with a bookmark whose URL the owner already
+ * has (same {@code UrlNormalizer.hash}), or that came earlier in the same request.
+ */
+public enum DuplicatePolicy {
+
+    /** Fail with 409 Conflict. For a batch, nothing is saved. */
+    REJECT,
+
+    /** Leave the existing bookmark alone and drop the new one. */
+    SKIP,
+
+    /** Upsert: add the new one's tags to the existing bookmark; its title and notes are kept. */
+    MERGE
+}
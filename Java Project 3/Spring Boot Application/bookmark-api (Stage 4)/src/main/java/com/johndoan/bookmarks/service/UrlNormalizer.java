@@ -0,0 +1,125 @@
+package com.johndoan.bookmarks.service;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Reduces a URL to a canonical form, so that two spellings of the same page
+ * compare equal: {@code HTTPS://Example.com:443/docs/?utm_source=x} and
+ * {@code https://example.com/docs#intro} both become
+ * {@code https://example.com/docs}.
+ *
+ * <ul>
+ *   <li>scheme and host are lower-cased (the path and query are case-sensitive
+ *       and kept as they are);</li>
+ *   <li>the default port (80 / 443) is dropped;</li>
+ *   <li>an empty path becomes {@code /}, and a trailing {@code /} on any other
+ *       path is removed;</li>
+ *   <li>tracking parameters ({@code utm_*}, {@code fbclid}, {@code gclid}, ...)
+ *       are removed from the query; the others keep their order;</li>
+ *   <li>the fragment is dropped; it never reaches the server.</li>
+ * </ul>
+ *
+ * {@link #hash} turns the canonical form into the {@code url_hash} that
+ * bookmarks are unique on (per owner).
+ */
+public final class UrlNormalizer {
+
+    private static final Set<String> TRACKING_PARAMETERS = Set.of(
+            "fbclid", "gclid", "dclid", "gbraid", "wbraid", "msclkid", "yclid", "igshid", "mc_cid", "mc_eid", "_ga");
+
+    private UrlNormalizer() {
+    }
+
+    /** The canonical form of {@code url}, or null if it isn't an absolute http(s) URL. */
+    public static String normalize(String url) {
+        if (url == null || url.isBlank()) {
+            return null;
+        }
+        URI uri;
+        try {
+            uri = new URI(url.trim());
+        } catch (URISyntaxException e) {
+            return null;
+        }
+        String scheme = uri.getScheme();
+        if (scheme == null || uri.getRawAuthority() == null) {
+            return null;
+        }
+        scheme = scheme.toLowerCase(Locale.ROOT);
+        if (!scheme.equals("http") && !scheme.equals("https")) {
+            return null;
+        }
+        String host = uri.getHost();
+        if (host == null) {
+            return null;
+        }
+
+        StringBuilder canonical = new StringBuilder(url.length()).append(scheme).append("://");
+        if (uri.getRawUserInfo() != null) {
+            canonical.append(uri.getRawUserInfo()).append('@');
+        }
+        canonical.append(host.toLowerCase(Locale.ROOT));
+        int port = uri.getPort();
+        if (port != -1 && !(port == 80 && scheme.equals("http")) && !(port == 443 && scheme.equals("https"))) {
+            canonical.append(':').append(port);
+        }
+        String path = uri.getRawPath();
+        if (path == null || path.isEmpty()) {
+            path = "/";
+        } else if (path.length() > 1 && path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        canonical.append(path);
+        String query = withoutTracking(uri.getRawQuery());
+        if (!query.isEmpty()) {
+            canonical.append('?').append(query);
+        }
+        return canonical.toString();
+    }
+
+    /**
+     * SHA-256 (64 hex characters) of the canonical form of {@code url}. A URL
+     * {@link #normalize} doesn't handle (say {@code ftp://}) is hashed as it is,
+     * trimmed. Fixed-length and indexable however long the URL is, so "does this
+     * owner already have this URL" is a single unique-index lookup.
+     */
+    public static String hash(String url) {
+        String canonical = normalize(url);
+        String key = (canonical != null) ? canonical : url.trim();
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is always available", e);
+        }
+    }
+
+    private static String withoutTracking(String query) {
+        if (query == null || query.isEmpty()) {
+            return "";
+        }
+        StringBuilder kept = new StringBuilder(query.length());
+        for (String parameter : query.split("&")) {
+            if (parameter.isEmpty()) {
+                continue;
+            }
+            int equals = parameter.indexOf('=');
+            String name = (equals < 0 ? parameter : parameter.substring(0, equals)).toLowerCase(Locale.ROOT);
+            if (name.startsWith("utm_") || TRACKING_PARAMETERS.contains(name)) {
+                continue;
+            }
+            if (!kept.isEmpty()) {
+                kept.append('&');
+            }
+            kept.append(parameter);
+        }
+        return kept.toString();
+    }
+}
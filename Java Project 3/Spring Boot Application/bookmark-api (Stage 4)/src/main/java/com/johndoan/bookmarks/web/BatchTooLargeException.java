@@ -0,0 +1,12 @@
+package com.johndoan.bookmarks.web;
+
+/**
+ * Thrown when a bulk request holds more items than the configured maximum.
+ * Translated into an HTTP 413 by {@link GlobalExceptionHandler}.
+ */
+public class BatchTooLargeException extends RuntimeException {
+
+    public BatchTooLargeException(int maxSize) {
+        super("A batch can hold at most " + maxSize + " bookmarks");
+    }
+}
@@ -1,16 +1,32 @@
 package com.johndoan.bookmarks.web;
 
 import com.johndoan.bookmarks.domain.Bookmark;
+import com.johndoan.bookmarks.importer.BookmarkImportService;
+import com.johndoan.bookmarks.importer.ImportSummary;
+import com.johndoan.bookmarks.security.RateLimiter;
+import com.johndoan.bookmarks.service.BookmarkPage;
 import com.johndoan.bookmarks.service.BookmarkService;
+import com.johndoan.bookmarks.service.BulkCreateResult;
+import com.johndoan.bookmarks.service.DuplicatePolicy;
 import com.johndoan.bookmarks.web.dto.BookmarkResponse;
 import com.johndoan.bookmarks.web.dto.CreateBookmarkRequest;
 import com.johndoan.bookmarks.web.dto.UpdateBookmarkRequest;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Valid;
 import jakarta.validation.Validator;
+import com.johndoan.bookmarks.repository.BookmarkListVersion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.server.ServletServerHttpRequest;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -23,9 +39,16 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 
@@ -34,36 +57,135 @@ import java.util.Set;
  * JWT subject ({@code @AuthenticationPrincipal Jwt}) and passes it to the
  * service, so the data each caller sees is automatically scoped to them.
  *
- *   GET    /api/bookmarks            list MY bookmarks (optional ?tag= filter)
+ *   GET    /api/bookmarks            list MY bookmarks, a page at a time (?limit=, ?after=, ?tag=),
+ *                                     or find the one for a URL (?url=)
+ *   GET    /api/bookmarks/search     full-text search of MY bookmarks (?q=, ?limit=), best match first
  *   GET    /api/bookmarks/{id}       fetch one of MINE
  *   POST   /api/bookmarks            create one (owned by me)
- *   POST   /api/bookmarks/batch      create many (JSON array, owned by me)
+ *   POST   /api/bookmarks/batch      create many (JSON array, owned by me; ?onDuplicate=)
+ *   POST   /api/bookmarks/import     import a browser's bookmark export (multipart "file"; ?onDuplicate=)
  *   PUT    /api/bookmarks/{id}       replace one of MINE
  *   DELETE /api/bookmarks/{id}       delete one of MINE
+ *
+ * An owner has at most one bookmark per URL, compared in canonical form
+ * ({@code UrlNormalizer}). A single create or update that would add a second
+ * one gets {@code 409 Conflict}; the bulk endpoints can instead skip or merge
+ * duplicates ({@link DuplicatePolicy}).
+ *
+ * The two GETs support conditional requests: responses carry a strong ETag, and
+ * a client that sends it back in {@code If-None-Match} gets {@code 304 Not
+ * Modified} with no body while nothing changed. The ETag is computed from a
+ * tiny projection query (updatedAt, or count + max(updatedAt) for lists) BEFORE
+ * the bookmarks themselves are loaded, so a poll that hits 304 never loads
+ * rows or serializes JSON.
  */
 @RestController
 @RequestMapping("/api/bookmarks")
 public class BookmarkController {
 
+    /**
+     * Spring Security sends {@code Cache-Control: no-store} by default, which
+     * stops browsers from keeping the ETag. Reads allow private caching instead,
+     * but must be revalidated every time.
+     */
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    /** Page size when the client doesn't ask for one, and the most it may ask for. */
+    static final int DEFAULT_LIMIT = 100;
+    static final int MAX_LIMIT = 1000;
+    /** Search results when the client doesn't ask for a number, and the most it may ask for. */
+    static final int DEFAULT_SEARCH_LIMIT = 20;
+    static final int MAX_SEARCH_LIMIT = 100;
+
     private final BookmarkService service;
+    private final BookmarkImportService importService;
     private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final RateLimiter rateLimiter;
+    private final int maxBatchSize;
 
-    public BookmarkController(BookmarkService service, Validator validator) {
+    public BookmarkController(BookmarkService service, BookmarkImportService importService, Validator validator,
+                              ObjectMapper objectMapper, RateLimiter rateLimiter,
+                              @Value("${bookmarks.batch.max-size:10000}") int maxBatchSize) {
         this.service = service;
+        this.importService = importService;
         this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.rateLimiter = rateLimiter;
+        this.maxBatchSize = maxBatchSize;
     }
 
+    /**
+     * One page of the caller's bookmarks, in id order: at most {@code limit}
+     * (default {@value #DEFAULT_LIMIT}, capped at {@value #MAX_LIMIT}) with an id
+     * greater than {@code after}. The body is still a plain JSON array; when
+     * there are more, a {@code Link: <...>; rel="next"} header holds the URL of
+     * the next page (same query, {@code after} = the last id on this one).
+     *
+     * A cursor instead of page numbers: it stays correct while bookmarks are
+     * added or deleted between requests, and every page is an index seek.
+     *
+     * With {@code ?url=} the list is instead the caller's bookmark for that URL
+     * (written any way with the same canonical form), or empty: one lookup on the
+     * (owner, url_hash) index.
+     */
     @GetMapping
-    public List<BookmarkResponse> list(@RequestParam(required = false) String tag,
-                                       @AuthenticationPrincipal Jwt jwt) {
-        return service.list(jwt.getSubject(), tag).stream()
-                .map(BookmarkResponse::from)
-                .toList();
+    public ResponseEntity<List<BookmarkResponse>> list(@RequestParam(required = false) String tag,
+                                                       @RequestParam(required = false) String url,
+                                                       @RequestParam(required = false) Integer limit,
+                                                       @RequestParam(defaultValue = "0") long after,
+                                                       @AuthenticationPrincipal Jwt jwt,
+                                                       WebRequest request) {
+        String owner = jwt.getSubject();
+        int pageSize = (limit == null) ? DEFAULT_LIMIT : Math.clamp(limit, 1, MAX_LIMIT);
+        BookmarkListVersion version = service.listVersion(owner);
+        // Any change to the owner's bookmarks changes count or max(updatedAt), whatever the ?tag is.
+        String etag = ETags.of("list", owner, tag, url, pageSize, after, version.count(), version.lastUpdatedAt());
+        if (request.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+        BookmarkPage page = (url != null)
+                ? service.findByUrl(owner, url)
+                : service.list(owner, tag, after, pageSize);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE);
+        if (page.nextAfter() != null) {
+            URI next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("limit", pageSize)
+                    .replaceQueryParam("after", page.nextAfter())
+                    .build()
+                    .toUri();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page.bookmarks());
+    }
+
+    /**
+     * The caller's bookmarks matching {@code q}, best match first: at most
+     * {@code limit} (default {@value #DEFAULT_SEARCH_LIMIT}, capped at
+     * {@value #MAX_SEARCH_LIMIT}). A bookmark matches if its title, notes or URL
+     * (host and path) contain any word of {@code q}, or a word starting with it:
+     * {@code ?q=spring sec} finds "Spring Security Reference". Title words count
+     * most. Results are one page: a ranked list has no stable id order for an
+     * {@code after} cursor to follow.
+     */
+    @GetMapping("/search")
+    public List<BookmarkResponse> search(@RequestParam String q,
+                                         @RequestParam(required = false) Integer limit,
+                                         @AuthenticationPrincipal Jwt jwt) {
+        int size = (limit == null) ? DEFAULT_SEARCH_LIMIT : Math.clamp(limit, 1, MAX_SEARCH_LIMIT);
+        return service.search(jwt.getSubject(), q, size);
     }
 
     @GetMapping("/{id}")
-    public BookmarkResponse get(@PathVariable Long id, @AuthenticationPrincipal Jwt jwt) {
-        return BookmarkResponse.from(service.get(id, jwt.getSubject()));
+    public ResponseEntity<BookmarkResponse> get(@PathVariable Long id, @AuthenticationPrincipal Jwt jwt,
+                                                WebRequest request) {
+        String owner = jwt.getSubject();
+        String etag = ETags.of("bookmark", id, service.lastModified(id, owner)); // 404 if not mine
+        if (request.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE)
+                .body(BookmarkResponse.from(service.get(id, owner)));
     }
 
     @PostMapping
@@ -78,27 +200,61 @@ public class BookmarkController {
     }
 
     /**
-     * Bulk create. Accepts a JSON ARRAY of bookmarks (all owned by the caller).
+     * Bulk create. Accepts a JSON ARRAY of bookmarks (all owned by the caller),
+     * at most {@code bookmarks.batch.max-size} of them (413 beyond that).
+     *
+     * The body is read as a stream, one element at a time, and handed to
+     * {@link BookmarkService#createAll} as it is parsed, so a big batch is never
+     * held in memory as JSON and as objects at once. {@code @Valid} wouldn't
+     * reach the elements anyway, so each is validated as it is read; a violation
+     * throws {@link jakarta.validation.ConstraintViolationException} -> 400.
+     * Everything runs in one transaction, so on any error nothing is saved.
      *
-     * {@code @Valid} does NOT cascade into a top-level {@code @RequestBody List},
-     * so we validate each element ourselves; a violation throws
-     * {@link jakarta.validation.ConstraintViolationException} -> 400, and nothing
-     * is saved.
+     * {@code ?onDuplicate=} handles URLs the caller already has (or that appear
+     * twice in the batch): {@code REJECT} (default, 409 and nothing saved),
+     * {@code SKIP}, or {@code MERGE} (upsert: the new tags are added to the
+     * existing bookmark, which is then in the response in place of a new one).
+     *
+     * The rows written are charged to the caller's bulk rate limit afterwards;
+     * while that is in debt, further batches get 429 (see {@code RateLimitFilter}).
      */
-    @PostMapping("/batch")
-    public ResponseEntity<List<BookmarkResponse>> createBatch(@RequestBody List<CreateBookmarkRequest> requests,
-                                                              @AuthenticationPrincipal Jwt jwt) {
-        for (CreateBookmarkRequest request : requests) {
-            Set<ConstraintViolation<CreateBookmarkRequest>> violations = validator.validate(request);
-            if (!violations.isEmpty()) {
-                throw new ConstraintViolationException(violations);
-            }
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BookmarkResponse>> createBatch(HttpServletRequest request,
+                                                              @RequestParam(defaultValue = "REJECT") DuplicatePolicy onDuplicate,
+                                                              @AuthenticationPrincipal Jwt jwt) throws IOException {
+        try (MappingIterator<CreateBookmarkRequest> elements =
+                     objectMapper.readerFor(CreateBookmarkRequest.class).readValues(request.getInputStream())) {
+            BulkCreateResult result = service.createAll(new BatchReader(elements, request), jwt.getSubject(),
+                    onDuplicate);
+            rateLimiter.charge(jwt.getSubject(), RateLimiter.Budget.BULK, result.created() + result.merged());
+            List<BookmarkResponse> created = result.bookmarks()
+                    .stream()
+                    .map(BookmarkResponse::from)
+                    .toList();
+            return ResponseEntity.status(HttpStatus.CREATED).body(created);
+        }
+    }
+
+    /**
+     * Imports a bookmark export from a browser: the {@code bookmarks.html} any
+     * browser exports, Chrome's {@code Bookmarks} JSON file, or a Firefox JSON
+     * backup (the format is detected from the content). Folders become tags, and
+     * URLs the caller already has are skipped ({@code ?onDuplicate=SKIP}, the
+     * default) or get the folder tags merged in ({@code MERGE}). The file is
+     * parsed as it is read and saved in chunks; see {@link BookmarkImportService}.
+     * Responds with counts and timing, e.g.
+     * {@code {"imported": 41250, "duplicates": 312, ...}}. Like a batch, the
+     * rows written count against the bulk rate limit.
+     */
+    @PostMapping(path = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ImportSummary importBookmarks(@RequestPart("file") MultipartFile file,
+                                         @RequestParam(defaultValue = "SKIP") DuplicatePolicy onDuplicate,
+                                         @AuthenticationPrincipal Jwt jwt) throws IOException {
+        try (InputStream input = file.getInputStream()) {
+            ImportSummary summary = importService.importBookmarks(input, jwt.getSubject(), onDuplicate);
+            rateLimiter.charge(jwt.getSubject(), RateLimiter.Budget.BULK, summary.imported() + summary.merged());
+            return summary;
         }
-        List<BookmarkResponse> created = requests.stream()
-                .map(request -> service.create(request, jwt.getSubject()))
-                .map(BookmarkResponse::from)
-                .toList();
-        return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
     @PutMapping("/{id}")
@@ -113,4 +269,54 @@ public class BookmarkController {
     public void delete(@PathVariable Long id, @AuthenticationPrincipal Jwt jwt) {
         service.delete(id, jwt.getSubject());
     }
+
+    private static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+    }
+
+    /** Parses, counts and validates batch elements one at a time, as the service asks for them. */
+    private final class BatchReader implements Iterator<CreateBookmarkRequest> {
+
+        private final MappingIterator<CreateBookmarkRequest> elements;
+        private final HttpServletRequest request;
+        private int count;
+
+        BatchReader(MappingIterator<CreateBookmarkRequest> elements, HttpServletRequest request) {
+            this.elements = elements;
+            this.request = request;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                return elements.hasNextValue();
+            } catch (IOException e) {
+                throw unreadable(e);
+            }
+        }
+
+        @Override
+        public CreateBookmarkRequest next() {
+            if (++count > maxBatchSize) {
+                throw new BatchTooLargeException(maxBatchSize);
+            }
+            CreateBookmarkRequest element;
+            try {
+                element = elements.nextValue();
+            } catch (IOException e) {
+                throw unreadable(e);
+            }
+            Set<ConstraintViolation<CreateBookmarkRequest>> violations = validator.validate(element);
+            if (!violations.isEmpty()) {
+                throw new ConstraintViolationException(violations);
+            }
+            return element;
+        }
+
+        // Same exception (and 400) as a body Spring fails to read itself.
+        private HttpMessageNotReadableException unreadable(IOException e) {
+            return new HttpMessageNotReadableException("Malformed JSON request body", e,
+                    new ServletServerHttpRequest(request));
+        }
+    }
 }
@@ -0,0 +1,12 @@
+package com.johndoan.bookmarks.web;
+
+/**
+ * Thrown when a bookmark would duplicate a URL its owner already has.
+ * Translated into an HTTP 409 by {@link GlobalExceptionHandler}.
+ */
+public class ConflictException extends RuntimeException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+}
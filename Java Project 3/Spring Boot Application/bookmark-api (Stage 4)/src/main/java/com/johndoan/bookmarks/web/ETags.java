@@ -0,0 +1,34 @@
+package com.johndoan.bookmarks.web;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Builds strong ETag values from the few fields that identify a version of a
+ * response (ids, {@code updatedAt}, the query string...).
+ *
+ * The parts are hashed so the tag is short and opaque: clients only ever send
+ * it back in {@code If-None-Match}, they never need to read it.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String of(Object... parts) {
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is always available", e);
+        }
+        for (Object part : parts) {
+            sha256.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+            sha256.update((byte) 0); // separator, so ("ab","c") != ("a","bc")
+        }
+        // 64 bits is plenty to tell versions of the same URL apart.
+        return "\"" + HexFormat.of().formatHex(sha256.digest(), 0, 8) + "\"";
+    }
+}
@@ -0,0 +1,13 @@
+package com.johndoan.bookmarks.web;
+
+/**
+ * Thrown when an uploaded bookmark file is neither a Netscape bookmark HTML
+ * file nor a browser JSON export, or can't be parsed. Translated into an
+ * HTTP 400 by {@link GlobalExceptionHandler}.
+ */
+public class InvalidImportException extends RuntimeException {
+
+    public InvalidImportException(String message) {
+        super(message);
+    }
+}
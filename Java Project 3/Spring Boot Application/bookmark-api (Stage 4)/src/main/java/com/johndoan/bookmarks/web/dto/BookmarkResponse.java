@@ -25,7 +25,7 @@ public record BookmarkResponse(
                 b.getOwner(),
                 b.getTitle(),
                 b.getUrl(),
-                b.getTags(),
+                b.getTagNames(),
                 b.getNotes(),
                 b.getCreatedAt(),
                 b.getUpdatedAt()
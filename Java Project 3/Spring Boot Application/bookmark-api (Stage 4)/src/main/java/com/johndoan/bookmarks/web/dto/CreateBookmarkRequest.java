@@ -1,6 +1,9 @@
 package com.johndoan.bookmarks.web.dto;
 
+import com.johndoan.bookmarks.domain.Bookmark;
+import com.johndoan.bookmarks.domain.Tag;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import org.hibernate.validator.constraints.URL;
 
 import java.util.List;
@@ -15,14 +18,17 @@ import java.util.List;
 public record CreateBookmarkRequest(
 
         @NotBlank(message = "title is required")
+        @Size(max = Bookmark.MAX_TITLE_LENGTH, message = "title must be at most {max} characters")
         String title,
 
         @NotBlank(message = "url is required")
         @URL(message = "url must be a valid URL")
+        @Size(max = Bookmark.MAX_URL_LENGTH, message = "url must be at most {max} characters")
         String url,
 
-        List<String> tags,
+        List<@Size(max = Tag.MAX_NAME_LENGTH, message = "tags must be at most {max} characters") String> tags,
 
+        @Size(max = Bookmark.MAX_NOTES_LENGTH, message = "notes must be at most {max} characters")
         String notes
 ) {
 }
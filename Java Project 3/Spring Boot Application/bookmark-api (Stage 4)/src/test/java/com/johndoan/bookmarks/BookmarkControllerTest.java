@@ -4,13 +4,23 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.net.URI;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -102,6 +112,17 @@ class BookmarkControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void validationRejectsNotesLongerThanTheColumn() throws Exception {
+        mockMvc.perform(post("/api/bookmarks")
+                        .with(jwt().jwt(b -> b.subject("alice")).authorities(WRITE))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{ \"title\": \"Long\", \"url\": \"https://example.com/long\", \"notes\": \""
+                                + "n".repeat(2001) + "\" }"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.notes").value("notes must be at most 2000 characters"));
+    }
+
     @Test
     void missingBookmarkReturns404() throws Exception {
         mockMvc.perform(get("/api/bookmarks/999999")
@@ -142,6 +163,30 @@ class BookmarkControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(json))
                 .andExpect(status().isBadRequest());
+
+        // The valid element before it was rolled back too.
+        mockMvc.perform(get("/api/bookmarks")
+                        .with(jwt().jwt(b -> b.subject("alice")).authorities(READ)))
+                .andExpect(jsonPath("$[?(@.title == 'Good')]").isEmpty());
+    }
+
+    @Test
+    void batchCreateRejectsMoreThanTheMaximumBatchSize() throws Exception {
+        // The test configuration allows 100 per batch.
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 101; i++) {
+            json.append(i == 0 ? "" : ",").append("{ \"title\": \"T\", \"url\": \"https://example.com/big/").append(i).append("\" }");
+        }
+        json.append("]");
+
+        mockMvc.perform(post("/api/bookmarks/batch")
+                        .with(jwt().jwt(b -> b.subject("hank")).authorities(WRITE))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json.toString()))
+                .andExpect(status().isPayloadTooLarge());
+        mockMvc.perform(get("/api/bookmarks")
+                        .with(jwt().jwt(b -> b.subject("hank")).authorities(READ)))
+                .andExpect(jsonPath("$.length()").value(0));
     }
 
     @Test
@@ -152,4 +197,268 @@ class BookmarkControllerTest {
                         .content("[ { \"title\": \"Nope\", \"url\": \"https://example.com/3\" } ]"))
                 .andExpect(status().isForbidden());
     }
+
+    @Test
+    void sameUrlInAnotherSpellingIsAConflict() throws Exception {
+        mockMvc.perform(post("/api/bookmarks")
+                        .with(jwt().jwt(b -> b.subject("jack")).authorities(WRITE))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{ \"title\": \"Guide\", \"url\": \"https://example.com/guide?page=2\" }"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/api/bookmarks")
+                        .with(jwt().jwt(b -> b.subject("jack")).authorities(WRITE))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{ \"title\": \"Again\", \"url\": \"HTTPS://Example.com:443/guide/?page=2&utm_source=mail#top\" }"))
+                .andExpect(status().isConflict());
+
+        // Another owner may save it.
+        mockMvc.perform(post("/api/bookmarks")
+                        .with(jwt().jwt(b -> b.subject("kate")).authorities(WRITE))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{ \"title\": \"Guide\", \"url\": \"https://example.com/guide?page=2\" }"))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void batchWithMergeAddsTagsToTheExistingBookmark() throws Exception {
+        mockMvc.perform(post("/api/bookmarks")
+                        .with(jwt().jwt(b -> b.subject("liam")).authorities(WRITE))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{ \"title\": \"Kept\", \"url\": \"https://example.com/l\", \"tags\": [\"old\"] }"))
+                .andExpect(status().isCreated());
+        String json = """
+                [
+                  { "title": "Ignored", "url": "https://example.com/l/", "tags": ["new"] },
+                  { "title": "Fresh",   "url": "https://example.com/l2" }
+                ]
+                """;
+
+        mockMvc.perform(post("/api/bookmarks/batch")
+                        .with(jwt().jwt(b -> b.subject("liam")).authorities(WRITE))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(post("/api/bookmarks/batch").param("onDuplicate", "MERGE")
+                        .with(jwt().jwt(b -> b.subject("liam")).authorities(WRITE))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].title").value("Kept"))
+                .andExpect(jsonPath("$[1].title").value("Fresh"));
+
+        mockMvc.perform(get("/api/bookmarks").param("url", "https://EXAMPLE.com/l")
+                        .with(jwt().jwt(b -> b.subject("liam")).authorities(READ)))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].tags[0]").value("new"))
+                .andExpect(jsonPath("$[0].tags[1]").value("old"));
+    }
+
+    @Test
+    void importTurnsFoldersIntoTagsAndSkipsDuplicateUrls() throws Exception {
+        mockMvc.perform(post("/api/bookmarks")
+                        .with(jwt().jwt(b -> b.subject("ivy")).authorities(WRITE))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                { "title": "Already mine", "url": "https://example.com/docs" }
+                                """))
+                .andExpect(status().isCreated());
+        String html = """
+                <!DOCTYPE NETSCAPE-Bookmark-file-1>
+                <DL><p>
+                    <DT><H3>Reading</H3>
+                    <DL><p>
+                        <DT><A HREF="https://example.com/a">A</A>
+                        <DT><A HREF="HTTPS://Example.com/a/#top">A again</A>
+                        <DT><A HREF="https://example.com/docs/">Docs</A>
+                    </DL><p>
+                    <DT><A HREF="https://example.com/b">B</A>
+                    <DT><A HREF="javascript:alert(1)">Bookmarklet</A>
+                </DL><p>
+                """;
+
+        mockMvc.perform(multipart("/api/bookmarks/import")
+                        .file(new MockMultipartFile("file", "bookmarks.html", "text/html", html.getBytes()))
+                        .with(jwt().jwt(b -> b.subject("ivy")).authorities(WRITE)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.format").value("NETSCAPE_HTML"))
+                .andExpect(jsonPath("$.read").value(5))
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.duplicates").value(2))
+                .andExpect(jsonPath("$.skipped").value(1));
+
+        mockMvc.perform(get("/api/bookmarks").param("tag", "reading")
+                        .with(jwt().jwt(b -> b.subject("ivy")).authorities(READ)))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].title").value("A"));
+    }
+
+    @Test
+    void importRejectsAFileThatIsNotABookmarkExport() throws Exception {
+        mockMvc.perform(multipart("/api/bookmarks/import")
+                        .file(new MockMultipartFile("file", "notes.txt", "text/plain", "just text".getBytes()))
+                        .with(jwt().jwt(b -> b.subject("ivy")).authorities(WRITE)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getReturns304WhileTheBookmarkIsUnchanged() throws Exception {
+        MvcResult created = mockMvc.perform(post("/api/bookmarks")
+                        .with(jwt().jwt(b -> b.subject("carol")).authorities(WRITE))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{ \"title\": \"Cached\", \"url\": \"https://example.com/c\" }"))
+                .andExpect(status().isCreated())
+                .andReturn();
+        String location = created.getResponse().getHeader(HttpHeaders.LOCATION);
+
+        String etag = mockMvc.perform(get(location)
+                        .with(jwt().jwt(b -> b.subject("carol")).authorities(READ)))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Same ETag back: 304, no body.
+        mockMvc.perform(get(location)
+                        .with(jwt().jwt(b -> b.subject("carol")).authorities(READ))
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        // After an update the old ETag no longer matches.
+        mockMvc.perform(put(location)
+                        .with(jwt().jwt(b -> b.subject("carol")).authorities(WRITE))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{ \"title\": \"Renamed\", \"url\": \"https://example.com/c\" }"))
+                .andExpect(status().isOk());
+        String newEtag = mockMvc.perform(get(location)
+                        .with(jwt().jwt(b -> b.subject("carol")).authorities(READ))
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Renamed"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, newEtag);
+    }
+
+    @Test
+    void listEtagChangesWhenABookmarkIsAdded() throws Exception {
+        String etag = mockMvc.perform(get("/api/bookmarks")
+                        .with(jwt().jwt(b -> b.subject("dave")).authorities(READ)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/bookmarks")
+                        .with(jwt().jwt(b -> b.subject("dave")).authorities(READ))
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(post("/api/bookmarks")
+                        .with(jwt().jwt(b -> b.subject("dave")).authorities(WRITE))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{ \"title\": \"New\", \"url\": \"https://example.com/d\" }"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/bookmarks")
+                        .with(jwt().jwt(b -> b.subject("dave")).authorities(READ))
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void tagFilterMatchesOnlyTheOwnersTaggedBookmarks() throws Exception {
+        mockMvc.perform(post("/api/bookmarks/batch")
+                        .with(jwt().jwt(b -> b.subject("erin")).authorities(WRITE))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [
+                                  { "title": "Tagged", "url": "https://example.com/e1", "tags": ["Java", " spring ", "java"] },
+                                  { "title": "Other",  "url": "https://example.com/e2", "tags": ["python"] },
+                                  { "title": "Both",   "url": "https://example.com/e3", "tags": ["spring", "python"] }
+                                ]
+                                """))
+                .andExpect(status().isCreated())
+                // Normalized, de-duplicated and returned in name order.
+                .andExpect(jsonPath("$[0].tags.length()").value(2))
+                .andExpect(jsonPath("$[0].tags[0]").value("java"))
+                .andExpect(jsonPath("$[0].tags[1]").value("spring"));
+        // Someone else's "spring" tag is a different tag.
+        mockMvc.perform(post("/api/bookmarks")
+                        .with(jwt().jwt(b -> b.subject("frank")).authorities(WRITE))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{ \"title\": \"Frank\", \"url\": \"https://example.com/f\", \"tags\": [\"spring\"] }"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/bookmarks").param("tag", "Spring")
+                        .with(jwt().jwt(b -> b.subject("erin")).authorities(READ)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].title").value("Tagged"))
+                .andExpect(jsonPath("$[1].title").value("Both"));
+    }
+
+    @Test
+    void listIsPagedWithANextLink() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            mockMvc.perform(post("/api/bookmarks")
+                            .with(jwt().jwt(b -> b.subject("gina")).authorities(WRITE))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{ \"title\": \"Page " + i + "\", \"url\": \"https://example.com/g" + i + "\" }"))
+                    .andExpect(status().isCreated());
+        }
+
+        MvcResult first = mockMvc.perform(get("/api/bookmarks").param("limit", "2")
+                        .with(jwt().jwt(b -> b.subject("gina")).authorities(READ)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].title").value("Page 1"))
+                .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")))
+                .andReturn();
+        String link = first.getResponse().getHeader(HttpHeaders.LINK);
+        String next = link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+
+        mockMvc.perform(get(URI.create(next))
+                        .with(jwt().jwt(b -> b.subject("gina")).authorities(READ)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].title").value("Page 3"))
+                .andExpect(header().doesNotExist(HttpHeaders.LINK));
+    }
+
+    @Test
+    void searchRanksTitleMatchesFirstAndOnlySearchesTheCallersBookmarks() throws Exception {
+        String[] bookmarks = {
+                "{ \"title\": \"Reading list\", \"url\": \"https://example.com/m1\", \"notes\": \"security chapter\" }",
+                "{ \"title\": \"Spring Security\", \"url\": \"https://example.com/m2\" }",
+                "{ \"title\": \"Kotlin\", \"url\": \"https://kotlinlang.org/docs\" }"
+        };
+        for (String json : bookmarks) {
+            mockMvc.perform(post("/api/bookmarks")
+                            .with(jwt().jwt(b -> b.subject("mia")).authorities(WRITE))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(json))
+                    .andExpect(status().isCreated());
+        }
+
+        mockMvc.perform(get("/api/bookmarks/search").param("q", "secur")
+                        .with(jwt().jwt(b -> b.subject("mia")).authorities(READ)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].title").value("Spring Security"))
+                .andExpect(jsonPath("$[1].title").value("Reading list"));
+
+        // URL host and path words are searchable too.
+        mockMvc.perform(get("/api/bookmarks/search").param("q", "kotlinlang docs")
+                        .with(jwt().jwt(b -> b.subject("mia")).authorities(READ)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].title").value("Kotlin"));
+
+        mockMvc.perform(get("/api/bookmarks/search").param("q", "security")
+                        .with(jwt().jwt(b -> b.subject("nora")).authorities(READ)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
 }
@@ -0,0 +1,198 @@
+package com.johndoan.bookmarks;
+
+import com.johndoan.bookmarks.importer.BookmarkImportService;
+import com.johndoan.bookmarks.importer.ImportSummary;
+import com.johndoan.bookmarks.service.BookmarkPage;
+import com.johndoan.bookmarks.service.BookmarkService;
+import com.johndoan.bookmarks.service.DuplicatePolicy;
+import com.johndoan.bookmarks.web.dto.BookmarkResponse;
+import com.johndoan.bookmarks.web.dto.CreateBookmarkRequest;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Timings for bulk creation and import, and for listing, tag filtering and paging with one owner holding 100k bookmarks (and a second
+ * owner with the same tag names, so the owner scoping is exercised). Too slow for
+ * every build, so it only runs on request:
+ *
+ * <pre>
+ *   mvn test -Dtest=BookmarkListBenchmarkTest -Dbookmarks.benchmark=true
+ * </pre>
+ *
+ * Rows are inserted with plain JDBC batches; the timed part is
+ * {@link BookmarkService#list}, exactly what the controller serializes.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "bookmarks.benchmark", matches = "true")
+class BookmarkListBenchmarkTest {
+
+    private static final String OWNER = "bench";
+    private static final int BOOKMARKS = 100_000;
+    private static final int TAGS = 50;
+    private static final int TAGS_PER_BOOKMARK = 3;
+    private static final int RUNS = 20;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private BookmarkService service;
+
+    @Autowired
+    private BookmarkImportService importService;
+
+    private int taggedWithTag0;
+
+    @BeforeAll
+    void seed() {
+        seedOwner(OWNER, BOOKMARKS);
+        seedOwner("bench-other", BOOKMARKS / 10);
+        taggedWithTag0 = jdbc.queryForObject("""
+                select count(*) from bookmark_tag bt join tags t on t.id = bt.tag_id
+                where t.owner = ? and t.name = 'tag0'
+                """, Integer.class, OWNER);
+        jdbc.execute("analyze");
+    }
+
+    @Test
+    void tagFilter() {
+        List<BookmarkResponse> result = time("tag filter (" + taggedWithTag0 + " of " + BOOKMARKS + ")",
+                () -> load(OWNER, "tag0"));
+        assertEquals(taggedWithTag0, result.size());
+        jdbc.queryForList("""
+                explain select b.* from bookmarks b join bookmark_tag bt on bt.bookmark_id = b.id
+                join tags t on t.id = bt.tag_id
+                where t.owner = 'bench' and t.name = 'tag0' and b.owner = 'bench' order by b.id
+                """).forEach(row -> System.out.println(row.values().iterator().next()));
+    }
+
+    @Test
+    void fullList() {
+        List<BookmarkResponse> result = time("full list (" + BOOKMARKS + ")", () -> load(OWNER, null));
+        assertEquals(BOOKMARKS, result.size());
+    }
+
+    @Test
+    void pages() {
+        long firstId = jdbc.queryForObject("select min(id) from bookmarks where owner = ?", Long.class, OWNER);
+        time("first page (100)", () -> service.list(OWNER, null, 0, 100));
+        BookmarkPage deep = time("page after 90k (100)", () -> service.list(OWNER, null, firstId + 90_000, 100));
+        assertEquals(100, deep.bookmarks().size());
+    }
+
+    @Test
+    void bulkCreate() {
+        List<CreateBookmarkRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            requests.add(new CreateBookmarkRequest("Bulk " + i, "https://example.com/bulk/" + i,
+                    List.of("bulk", "tag" + (i % TAGS)), null));
+        }
+        int[] run = {0};
+        time("createAll (10000)", () -> service.createAll(requests.iterator(), "bulk-" + run[0]++, DuplicatePolicy.REJECT));
+    }
+
+    @Test
+    void importNetscapeFile() {
+        // 10k bookmarks in 100 folders, plus every 10th one a second time (a duplicate).
+        StringBuilder html = new StringBuilder("<!DOCTYPE NETSCAPE-Bookmark-file-1>\n<DL><p>\n");
+        for (int folder = 0; folder < 100; folder++) {
+            html.append("<DT><H3>Folder ").append(folder).append("</H3>\n<DL><p>\n");
+            for (int i = folder * 100; i < (folder + 1) * 100; i++) {
+                String link = "<DT><A HREF=\"https://example.com/import/" + i + "\" ADD_DATE=\"1700000000\">Import "
+                        + i + "</A>\n";
+                html.append(link);
+                if (i % 10 == 0) {
+                    html.append(link);
+                }
+            }
+            html.append("</DL><p>\n");
+        }
+        byte[] file = html.append("</DL><p>\n").toString().getBytes(StandardCharsets.UTF_8);
+        int[] run = {0};
+        ImportSummary summary = time("import (10000 + 1000 duplicates, " + file.length / 1024 + " KB)", () -> {
+            try {
+                return importService.importBookmarks(new ByteArrayInputStream(file), "import-" + run[0]++,
+                        DuplicatePolicy.SKIP);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        assertEquals(10_000, summary.imported());
+        assertEquals(1_000, summary.duplicates());
+        System.out.println("last import: " + summary.rowsPerSecond() + " rows/s");
+    }
+
+    private List<BookmarkResponse> load(String owner, String tag) {
+        return service.list(owner, tag, 0, BOOKMARKS).bookmarks();
+    }
+
+    private static <T> T time(String label, Supplier<T> action) {
+        T result = action.get(); // warm-up
+        long[] millis = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            result = action.get();
+            millis[i] = (System.nanoTime() - start) / 1_000_000;
+        }
+        Arrays.sort(millis);
+        System.out.printf("%s: p50 %d ms, max %d ms%n", label, millis[RUNS / 2], millis[RUNS - 1]);
+        return result;
+    }
+
+    private void seedOwner(String owner, int count) {
+        List<Object[]> tags = new ArrayList<>();
+        for (int t = 0; t < TAGS; t++) {
+            tags.add(new Object[]{owner, "tag" + t});
+        }
+        jdbc.batchUpdate("insert into tags (id, owner, name) values (next value for tag_seq, ?, ?)", tags);
+        List<Long> tagIds = jdbc.queryForList("select id from tags where owner = ? order by id", Long.class, owner);
+
+        // Far above anything bookmark_seq hands out to the bulkCreate test.
+        Timestamp now = Timestamp.from(Instant.now());
+        long firstBookmark = jdbc.queryForObject("select greatest(coalesce(max(id), 0), 1000000000) + 1 from bookmarks", Long.class);
+        SplittableRandom random = new SplittableRandom(42);
+        List<Object[]> bookmarks = new ArrayList<>();
+        List<Object[]> links = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            long id = firstBookmark + i;
+            bookmarks.add(new Object[]{id, owner, "Bookmark " + i, "https://example.com/" + owner + "/" + i, now, now});
+            // Distinct tags per bookmark: a random start, then every 7th tag (7 and 50 are coprime).
+            int start = random.nextInt(TAGS);
+            for (int k = 0; k < TAGS_PER_BOOKMARK; k++) {
+                links.add(new Object[]{id, tagIds.get((start + 7 * k) % TAGS)});
+            }
+            if (bookmarks.size() == 5_000) {
+                flush(bookmarks, links);
+            }
+        }
+        flush(bookmarks, links);
+    }
+
+    private void flush(List<Object[]> bookmarks, List<Object[]> links) {
+        jdbc.batchUpdate("insert into bookmarks (id, owner, title, url, created_at, updated_at) "
+                + "values (?, ?, ?, ?, ?, ?)", bookmarks);
+        jdbc.batchUpdate("insert into bookmark_tag (bookmark_id, tag_id) values (?, ?)", links);
+        bookmarks.clear();
+        links.clear();
+    }
+}
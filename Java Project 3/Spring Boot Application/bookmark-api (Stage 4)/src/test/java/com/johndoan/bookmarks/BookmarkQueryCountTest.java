@@ -0,0 +1,129 @@
+package com.johndoan.bookmarks;
+
+import com.johndoan.bookmarks.domain.Bookmark;
+import com.johndoan.bookmarks.domain.Tag;
+import com.johndoan.bookmarks.service.BookmarkService;
+import com.johndoan.bookmarks.service.BulkCreateResult;
+import com.johndoan.bookmarks.service.DuplicatePolicy;
+import com.johndoan.bookmarks.web.dto.BookmarkResponse;
+import com.johndoan.bookmarks.web.dto.CreateBookmarkRequest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * SQL statement counts for the bulk paths, read from Hibernate's statistics, so
+ * an N+1 (a lazy collection touched per bookmark, an insert per row) shows up as
+ * a failure here rather than as a slow page in production.
+ *
+ * Listing must cost the same whether the owner has 2 bookmarks or 60: one
+ * statement for the rows, one for all their tags. A bulk create must send its
+ * inserts in JDBC batches.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BookmarkQueryCountTest {
+
+    @Autowired
+    private BookmarkService service;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void listUsesTwoStatementsRegardlessOfSize() {
+        seed("few", 2);
+        seed("many", 60);
+
+        assertEquals(2, statementsFor(() -> assertEquals(2, service.list("few", null, 0, 100).bookmarks().size())));
+        assertEquals(2, statementsFor(() -> assertEquals(60, service.list("many", null, 0, 100).bookmarks().size())));
+
+        List<BookmarkResponse> tagged = service.list("many", "even", 0, 100).bookmarks();
+        assertEquals(30, tagged.size());
+        assertEquals(List.of("even", "shared"), tagged.get(0).tags());
+        assertEquals(2, statementsFor(() -> service.list("many", "even", 0, 100)));
+        // Only the 30 tagged bookmarks' links, not every link in the owner's id range (~120).
+        assertEquals(60, tagRowsFor(() -> service.list("many", "even", 0, 100)));
+    }
+
+    @Test
+    void createAllBatchesItsInserts() {
+        List<CreateBookmarkRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            requests.add(new CreateBookmarkRequest("Bulk " + i, "https://example.com/bulk/" + i,
+                    List.of("bulk", "n" + (i % 3)), null));
+        }
+
+        long statements = statementsFor(() -> assertEquals(120, service.createAll(requests.iterator(), "bulk", DuplicatePolicy.REJECT).created()));
+
+        // 120 bookmarks + 4 tags + 240 links, 50 rows per batch: 3 + 1 + 5 insert batches,
+        // plus the tag and url_hash lookups and a few sequence calls. Row by row it would be over 360.
+        assertTrue(statements < 20, "statements: " + statements);
+        assertEquals(120, service.list("bulk", null, 0, 1000).bookmarks().size());
+        assertEquals(40, service.list("bulk", "n0", 0, 1000).bookmarks().size());
+    }
+
+    @Test
+    void mergeListsTagsMergedInLaterChunks() {
+        // Chunks are 500 long: the URL is created in the first chunk and merged in the second.
+        List<CreateBookmarkRequest> requests = new ArrayList<>();
+        requests.add(new CreateBookmarkRequest("Repeated", "https://example.com/r", List.of("a"), null));
+        for (int i = 1; i < 500; i++) {
+            requests.add(new CreateBookmarkRequest("Filler " + i, "https://example.com/r/" + i, null, null));
+        }
+        requests.add(new CreateBookmarkRequest("Again", "https://example.com/r", List.of("b"), null));
+        requests.add(new CreateBookmarkRequest("Again", "https://example.com/r/", List.of("c"), null));
+
+        BulkCreateResult result = service.createAll(requests.iterator(), "merge", DuplicatePolicy.MERGE);
+
+        assertEquals(500, result.created());
+        assertEquals(2, result.merged());
+        assertEquals(500, result.bookmarks().size());
+        Bookmark repeated = result.bookmarks().get(0);
+        assertEquals("Repeated", repeated.getTitle());
+        assertEquals(Set.of("a", "b", "c"), repeated.getTags().stream().map(Tag::getName).collect(Collectors.toSet()));
+    }
+
+    private long statementsFor(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private long tagRowsFor(Runnable action) {
+        statistics.clear();
+        action.run();
+        long rows = 0;
+        for (String query : statistics.getQueries()) {
+            if (query.contains("BookmarkTagName")) {
+                rows += statistics.getQueryStatistics(query).getExecutionRowCount();
+            }
+        }
+        return rows;
+    }
+
+    private void seed(String owner, int count) {
+        for (int i = 0; i < count; i++) {
+            service.create(new CreateBookmarkRequest("Bookmark " + i, "https://example.com/" + owner + "/" + i,
+                    List.of("shared", i % 2 == 0 ? "even" : "odd"), null), owner);
+        }
+    }
+}
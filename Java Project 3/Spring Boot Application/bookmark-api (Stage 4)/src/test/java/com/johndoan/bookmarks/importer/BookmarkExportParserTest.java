@@ -0,0 +1,113 @@
+package com.johndoan.bookmarks.importer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Plain unit tests (no Spring) for the two export parsers, on trimmed-down
+ * versions of real browser exports.
+ */
+class BookmarkExportParserTest {
+
+    @Test
+    void netscapeFoldersBecomeTagsButTheToolbarDoesNot() throws IOException {
+        String html = """
+                <!DOCTYPE NETSCAPE-Bookmark-file-1>
+                <!-- This is an automatically generated file.
+                     It will be read and overwritten.
+                     DO NOT EDIT! -->
+                <META HTTP-EQUIV="Content-Type" CONTENT="text/html; charset=UTF-8">
+                <TITLE>Bookmarks</TITLE>
+                <H1>Bookmarks</H1>
+                <DL><p>
+                    <DT><H3 ADD_DATE="1700000000" PERSONAL_TOOLBAR_FOLDER="true">Bookmarks bar</H3>
+                    <DL><p>
+                        <DT><A HREF="https://spring.io/" ADD_DATE="1700000000" ICON="data:image/png;base64,iVBOR=">Spring</A>
+                        <DT><H3>Java &amp; JVM</H3>
+                        <DL><p>
+                            <DT><A HREF="https://openjdk.org/jeps/0?a=1&amp;b=2" TAGS="jdk,reference">JEP index</A>
+                        </DL><p>
+                    </DL><p>
+                    <DT><A HREF="javascript:void(0)">Bookmarklet</A>
+                </DL><p>
+                """;
+
+        List<ImportedBookmark> bookmarks = new ArrayList<>();
+        new NetscapeBookmarkParser().parse(new StringReader(html), bookmarks::add);
+
+        assertEquals(List.of(
+                new ImportedBookmark("Spring", "https://spring.io/", List.of()),
+                new ImportedBookmark("JEP index", "https://openjdk.org/jeps/0?a=1&b=2",
+                        List.of("Java & JVM", "jdk", "reference")),
+                new ImportedBookmark("Bookmarklet", "javascript:void(0)", List.of())
+        ), bookmarks);
+    }
+
+    @Test
+    void chromeFolderNamesAfterTheirChildrenStillBecomeTags() throws IOException {
+        // Chrome writes keys alphabetically, so "children" comes before "name".
+        String json = """
+                {
+                  "checksum": "abc",
+                  "roots": {
+                    "bookmark_bar": {
+                      "children": [
+                        { "children": [
+                            { "children": [ { "name": "Baeldung", "type": "url", "url": "https://www.baeldung.com/" } ],
+                              "name": "Spring", "type": "folder" },
+                            { "name": "Inside Java", "type": "url", "url": "https://inside.java/" }
+                          ],
+                          "name": "Java", "type": "folder" },
+                        { "name": "News", "type": "url", "url": "https://news.ycombinator.com/" }
+                      ],
+                      "name": "Bookmarks bar", "type": "folder"
+                    },
+                    "other": { "children": [], "name": "Other bookmarks", "type": "folder" }
+                  },
+                  "version": 1
+                }
+                """;
+
+        List<ImportedBookmark> bookmarks = new ArrayList<>();
+        new BrowserJsonBookmarkParser(new JsonFactory()).parse(new StringReader(json), bookmarks::add);
+
+        assertEquals(List.of(
+                new ImportedBookmark("Baeldung", "https://www.baeldung.com/", List.of("Java", "Spring")),
+                new ImportedBookmark("Inside Java", "https://inside.java/", List.of("Java")),
+                new ImportedBookmark("News", "https://news.ycombinator.com/", List.of())
+        ), bookmarks);
+    }
+
+    @Test
+    void firefoxBackupKeepsItsTags() throws IOException {
+        String json = """
+                { "guid": "root________", "title": "", "root": "placesRoot",
+                  "type": "text/x-moz-place-container",
+                  "children": [
+                    { "guid": "menu________", "title": "menu", "root": "bookmarksMenuFolder",
+                      "type": "text/x-moz-place-container",
+                      "children": [
+                        { "title": "Recipes", "type": "text/x-moz-place-container",
+                          "children": [
+                            { "title": "Bread", "type": "text/x-moz-place", "uri": "https://example.com/bread",
+                              "tags": "baking,weekend" },
+                            { "type": "text/x-moz-place-separator" }
+                          ] }
+                      ] }
+                  ] }
+                """;
+
+        List<ImportedBookmark> bookmarks = new ArrayList<>();
+        new BrowserJsonBookmarkParser(new JsonFactory()).parse(new StringReader(json), bookmarks::add);
+
+        assertEquals(List.of(new ImportedBookmark("Bread", "https://example.com/bread",
+                List.of("Recipes", "baking", "weekend"))), bookmarks);
+    }
+}
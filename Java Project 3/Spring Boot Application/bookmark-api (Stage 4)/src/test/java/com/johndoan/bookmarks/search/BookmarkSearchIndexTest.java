@@ -0,0 +1,105 @@
+package com.johndoan.bookmarks.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Plain unit tests (no Spring, no database) for the search index: ranking,
+ * prefix matching, URL words, owner scoping, and updates and deletes.
+ */
+class BookmarkSearchIndexTest {
+
+    private final BookmarkSearchIndex index = new BookmarkSearchIndex(null);
+
+    @Test
+    void titleMatchesOutrankNotesAndUrlMatches() {
+        index.index("ann", 1, "Reading list", "https://example.com/a", "the security chapter");
+        index.index("ann", 2, "Spring Security", "https://example.com/b", null);
+        index.index("ann", 3, "Misc", "https://example.com/security/overview", null);
+        index.index("ann", 4, "Kotlin", "https://kotlinlang.org/docs", null);
+
+        // 1 and 3 have the word once, at the same weight; 3 is shorter, so it is the closer match.
+        assertEquals(List.of(2L, 3L, 1L), index.search("ann", "security", 10));
+        assertEquals(List.of(2L), index.search("ann", "security", 1));
+    }
+
+    @Test
+    void aWordAlsoMatchesTheWordsItStarts() {
+        index.index("ann", 1, "Spring Security", "https://example.com/a", null);
+        index.index("ann", 2, "Secure coding", "https://example.com/b", null);
+        index.index("ann", 3, "Sec", "https://example.com/c", null);
+
+        // The exact match first, then the expansions (same score: newest first).
+        assertEquals(List.of(3L, 2L, 1L), index.search("ann", "sec", 10));
+        // A single letter is only ever an exact match.
+        assertEquals(List.of(), index.search("ann", "s", 10));
+    }
+
+    @Test
+    void urlHostAndPathAreSplitIntoWords() {
+        index.index("ann", 1, "Docs", "https://docs.spring.io/spring-boot/index.html?q=ignored#frag", null);
+
+        assertEquals(List.of(1L), index.search("ann", "boot", 10));
+        assertEquals(List.of(1L), index.search("ann", "docs.spring.io", 10));
+        assertEquals(List.of(), index.search("ann", "ignored", 10));
+        assertEquals(List.of(), index.search("ann", "https", 10));
+    }
+
+    @Test
+    void ownersOnlyFindTheirOwnBookmarks() {
+        index.index("ann", 1, "Spring", "https://example.com/a", null);
+        index.index("ben", 2, "Spring", "https://example.com/b", null);
+
+        assertEquals(List.of(1L), index.search("ann", "spring", 10));
+        assertEquals(List.of(2L), index.search("ben", "spring", 10));
+        assertEquals(List.of(), index.search("cat", "spring", 10));
+    }
+
+    @Test
+    void aShortWordKeepsItsMostCommonExpansions() {
+        // 100 rare terms sort before "spring", which two bookmarks share.
+        for (long id = 1; id <= 100; id++) {
+            index.index("ann", id, "spa" + id, "https://example.com/", null);
+        }
+        index.index("ann", 101, "Spring Boot", "https://example.com/", null);
+        index.index("ann", 102, "Spring Data", "https://example.com/", null);
+
+        assertEquals(List.of(101L, 102L),
+                index.search("ann", "sp", 200).stream().filter(id -> id > 100).sorted().toList());
+    }
+
+    @Test
+    void reindexingReplacesAndRemovingForgets() {
+        index.index("ann", 1, "Spring", "https://example.com/a", null);
+        index.index("ann", 1, "Quarkus", "https://example.com/a", null);
+
+        assertEquals(List.of(), index.search("ann", "spring", 10));
+        assertEquals(List.of(1L), index.search("ann", "quarkus", 10));
+        assertEquals(1, index.size("ann"));
+
+        index.remove("ann", 1);
+        assertEquals(List.of(), index.search("ann", "quarkus", 10));
+        assertEquals(0, index.size("ann"));
+    }
+
+    @Test
+    void removingFromTheMiddleOfSharedTermsKeepsTheOthersFindable() {
+        // Every removal moves the last posting of "common" (and of "shared") into the freed slot.
+        for (long id = 1; id <= 10; id++) {
+            index.index("ann", id, "Common " + (id % 2 == 0 ? "shared" : "odd"), "https://example.com/" + id, null);
+        }
+        index.remove("ann", 2);
+        index.remove("ann", 5);
+        index.index("ann", 3, "Renamed", "https://example.com/3", null);
+        index.remove("ann", 10);
+        index.remove("ann", 4);
+
+        assertEquals(List.of(9L, 8L, 7L, 6L, 1L), index.search("ann", "common", 10));
+        assertEquals(List.of(8L, 6L), index.search("ann", "shared", 10));
+        assertEquals(List.of(3L), index.search("ann", "renamed", 10));
+        assertEquals(6, index.size("ann"));
+    }
+}
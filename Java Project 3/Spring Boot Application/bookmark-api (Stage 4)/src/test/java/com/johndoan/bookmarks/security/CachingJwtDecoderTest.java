@@ -0,0 +1,121 @@
+package com.johndoan.bookmarks.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Plain unit tests for the verified-token cache, against a fake decoder that
+ * records every token it is asked to verify.
+ */
+class CachingJwtDecoderTest {
+
+    private static final Instant START = Instant.parse("2025-01-01T00:00:00Z");
+
+    private final MutableClock clock = new MutableClock(START);
+    private final List<String> decoded = new ArrayList<>();
+    /** Tokens look like "subject:secondsToLive"; "bad" is rejected. */
+    private final JwtDecoder delegate = token -> {
+        decoded.add(token);
+        if (token.equals("bad")) {
+            throw new BadJwtException("Invalid signature");
+        }
+        String[] parts = token.split(":");
+        Instant issued = clock.instant();
+        Jwt.Builder jwt = Jwt.withTokenValue(token).header("alg", "RS256").subject(parts[0]).issuedAt(issued);
+        if (parts.length > 1) {
+            jwt.expiresAt(issued.plusSeconds(Long.parseLong(parts[1])));
+        }
+        return jwt.build();
+    };
+
+    @Test
+    void aTokenIsVerifiedOnceUntilItExpires() {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 10, clock);
+
+        Jwt first = decoder.decode("ann:3600");
+        assertSame(first, decoder.decode("ann:3600"));
+        clock.advance(Duration.ofMinutes(59));
+        assertSame(first, decoder.decode("ann:3600"));
+        assertEquals(List.of("ann:3600"), decoded);
+
+        // At exp the cached copy is no longer used; the real decoder decides.
+        clock.advance(Duration.ofMinutes(1));
+        decoder.decode("ann:3600");
+        assertEquals(2, decoded.size());
+    }
+
+    @Test
+    void rejectedTokensAndTokensWithoutExpiryAreNotCached() {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 10, clock);
+
+        assertThrows(BadJwtException.class, () -> decoder.decode("bad"));
+        assertThrows(BadJwtException.class, () -> decoder.decode("bad"));
+        decoder.decode("ann");
+        decoder.decode("ann");
+
+        assertEquals(List.of("bad", "bad", "ann", "ann"), decoded);
+        assertEquals(0, decoder.size());
+    }
+
+    @Test
+    void theCacheStaysWithinItsBound() {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 10, clock);
+        for (int i = 0; i < 10; i++) {
+            decoder.decode("short" + i + ":60");
+        }
+        assertEquals(10, decoder.size());
+
+        // Full, but the short-lived tokens have expired: they make room.
+        clock.advance(Duration.ofMinutes(2));
+        decoder.decode("long:3600");
+        assertEquals(1, decoder.size());
+
+        for (int i = 0; i < 100; i++) {
+            decoder.decode("user" + i + ":3600");
+            assertTrue(decoder.size() <= 10);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.johndoan.bookmarks.security;
+
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.authorization.config.annotation.web.configuration.OAuth2AuthorizationServerConfiguration;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * CPU time to generate a signing key, sign a token and decode a bearer token,
+ * for RS256 and ES256, and for decoding with and without
+ * {@link CachingJwtDecoder}. Only on request:
+ *
+ * <pre>
+ *   mvn test -Dtest=JwtDecodeBenchmarkTest -Dbookmarks.benchmark=true
+ * </pre>
+ *
+ * Tokens are signed and decoded the way the app does it: a
+ * {@code NimbusJwtEncoder} over the JWK set, and
+ * {@code OAuth2AuthorizationServerConfiguration.jwtDecoder}. 1000 clients take
+ * turns, each with its own token. CPU time (not wall time) of the thread is
+ * measured, and per-request costs are scaled to the share of one core they
+ * would take at 10,000 requests per second.
+ */
+@EnabledIfSystemProperty(named = "bookmarks.benchmark", matches = "true")
+class JwtDecodeBenchmarkTest {
+
+    private static final int CLIENTS = 1_000;
+    private static final int REQUESTS = 50_000;
+    private static final int RPS = 10_000;
+
+    @Test
+    void rs256CachedVersusUncached() throws Exception {
+        Signer rs256 = new Signer(new RSAKeyGenerator(2048).keyID(UUID.randomUUID().toString()).generate(),
+                SignatureAlgorithm.RS256);
+        double uncached = cpuMicrosPerDecode("RS256 uncached", rs256.decoder, rs256.tokens);
+        CachingJwtDecoder cached = new CachingJwtDecoder(rs256.decoder, 10_000, Clock.systemUTC());
+        double withCache = cpuMicrosPerDecode("RS256 cached", cached, rs256.tokens);
+        assertEquals(CLIENTS, cached.size());
+        System.out.printf("saved %.1f us CPU per request (%.0f%%)%n",
+                uncached - withCache, 100 * (uncached - withCache) / uncached);
+    }
+
+    @Test
+    void rs256VersusEs256() throws Exception {
+        double rsaKey = cpuMillis(() -> new RSAKeyGenerator(2048).generate());
+        double ecKey = cpuMillis(() -> new ECKeyGenerator(Curve.P_256).generate());
+        System.out.printf("key generation: RS256 %.1f ms, ES256 %.1f ms CPU%n", rsaKey, ecKey);
+
+        for (SignatureAlgorithm algorithm : List.of(SignatureAlgorithm.RS256, SignatureAlgorithm.ES256)) {
+            JWK key = algorithm == SignatureAlgorithm.RS256
+                    ? new RSAKeyGenerator(2048).keyID(UUID.randomUUID().toString()).generate()
+                    : new ECKeyGenerator(Curve.P_256).keyID(UUID.randomUUID().toString()).generate();
+            Signer signer = new Signer(key, algorithm);
+            double sign = cpuMicros(CLIENTS, signer::sign);
+            System.out.printf("%s: sign %.1f us CPU, token %d bytes%n", algorithm, sign,
+                    signer.tokens.get(0).length());
+            cpuMicrosPerDecode(algorithm + " uncached", signer.decoder, signer.tokens);
+        }
+    }
+
+    private static double cpuMicrosPerDecode(String label, JwtDecoder decoder, List<String> tokens) {
+        // Warm-up (and, for the cache, the first decode of each token) first.
+        cpuMicros(REQUESTS / 5, i -> decoder.decode(tokens.get(i % CLIENTS)));
+        double micros = cpuMicros(REQUESTS, i -> decoder.decode(tokens.get(i % CLIENTS)));
+        System.out.printf("%s: %.1f us CPU per decode, %.1f%% of a core at %d req/s%n",
+                label, micros, micros * RPS / 10_000, RPS);
+        return micros;
+    }
+
+    private static double cpuMicros(int times, IntConsumer action) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long cpuStart = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < times; i++) {
+            action.accept(i);
+        }
+        return (threads.getCurrentThreadCpuTime() - cpuStart) / 1_000.0 / times;
+    }
+
+    /** Median CPU time of 10 runs (after one warm-up). */
+    private static double cpuMillis(Callable<?> action) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        action.call();
+        double[] millis = new double[10];
+        for (int i = 0; i < millis.length; i++) {
+            long cpuStart = threads.getCurrentThreadCpuTime();
+            action.call();
+            millis[i] = (threads.getCurrentThreadCpuTime() - cpuStart) / 1_000_000.0;
+        }
+        Arrays.sort(millis);
+        return millis[millis.length / 2];
+    }
+
+    /** One key, an encoder and decoder over it, and one token per client. */
+    private static final class Signer {
+
+        private final NimbusJwtEncoder encoder;
+        private final SignatureAlgorithm algorithm;
+        private final JwtDecoder decoder;
+        private final List<String> tokens;
+
+        Signer(JWK key, SignatureAlgorithm algorithm) {
+            JWKSource<SecurityContext> jwkSource = new ImmutableJWKSet<>(new JWKSet(key));
+            this.encoder = new NimbusJwtEncoder(jwkSource);
+            this.algorithm = algorithm;
+            this.decoder = OAuth2AuthorizationServerConfiguration.jwtDecoder(jwkSource);
+            this.tokens = IntStream.range(0, CLIENTS).mapToObj(this::token).toList();
+        }
+
+        void sign(int client) {
+            token(client);
+        }
+
+        private String token(int client) {
+            Instant now = Instant.now();
+            return encoder.encode(JwtEncoderParameters.from(
+                    JwsHeader.with(algorithm).build(),
+                    JwtClaimsSet.builder()
+                            .issuer("http://localhost:8080")
+                            .subject("client-" + client)
+                            .audience(List.of("bookmark-api"))
+                            .claim("scope", List.of("bookmark.read", "bookmark.write"))
+                            .issuedAt(now)
+                            .expiresAt(now.plusSeconds(3600))
+                            .build())).getTokenValue();
+        }
+    }
+}
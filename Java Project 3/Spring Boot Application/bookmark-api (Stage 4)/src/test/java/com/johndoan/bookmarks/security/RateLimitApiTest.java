@@ -0,0 +1,99 @@
+package com.johndoan.bookmarks.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The rate limits as a client sees them, with limits small enough to hit in a
+ * test and refill rates slow enough that they never refill during one.
+ */
+@SpringBootTest(properties = {
+        "bookmarks.rate-limit.read.capacity=3",
+        "bookmarks.rate-limit.read.per-second=0.01",
+        "bookmarks.rate-limit.bulk.capacity=5",
+        "bookmarks.rate-limit.bulk.per-second=0.01"
+})
+@AutoConfigureMockMvc
+class RateLimitApiTest {
+
+    private static final SimpleGrantedAuthority READ = new SimpleGrantedAuthority("SCOPE_bookmark.read");
+    private static final SimpleGrantedAuthority WRITE = new SimpleGrantedAuthority("SCOPE_bookmark.write");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void readsOverTheLimitGet429WithRetryAfter() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/bookmarks").with(jwt().jwt(b -> b.subject("rita")).authorities(READ)))
+                    .andExpect(status().isOk());
+        }
+
+        // One token back every 100 s.
+        mockMvc.perform(get("/api/bookmarks").with(jwt().jwt(b -> b.subject("rita")).authorities(READ)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "100"))
+                .andExpect(jsonPath("$.status").value(429))
+                .andExpect(jsonPath("$.error").value("Too Many Requests"));
+
+        // Someone else's budget is untouched.
+        mockMvc.perform(get("/api/bookmarks").with(jwt().jwt(b -> b.subject("sam")).authorities(READ)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void requestsRefusedByAuthorizationSpendNothing() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            mockMvc.perform(get("/api/bookmarks").with(jwt().jwt(b -> b.subject("uma")).authorities(WRITE)))
+                    .andExpect(status().isForbidden());
+        }
+
+        mockMvc.perform(get("/api/bookmarks").with(jwt().jwt(b -> b.subject("uma")).authorities(READ)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void aBatchMayOverspendTheBulkLimitButTheNextOneWaits() throws Exception {
+        // 8 rows against a bulk budget of 5: the batch is still written whole...
+        String eight = IntStream.range(0, 8)
+                .mapToObj(i -> "{ \"title\": \"t" + i + "\", \"url\": \"https://example.com/bulk/" + i + "\" }")
+                .collect(Collectors.joining(",", "[", "]"));
+        mockMvc.perform(post("/api/bookmarks/batch")
+                        .with(jwt().jwt(b -> b.subject("tom")).authorities(WRITE))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(eight))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.length()").value(8));
+
+        // ...and leaves it 3 rows in debt, so the next batch is refused.
+        mockMvc.perform(post("/api/bookmarks/batch")
+                        .with(jwt().jwt(b -> b.subject("tom")).authorities(WRITE))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{ \"title\": \"one more\", \"url\": \"https://example.com/bulk/9\" }]"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+
+        // Single creates only spend the write budget.
+        mockMvc.perform(post("/api/bookmarks")
+                        .with(jwt().jwt(b -> b.subject("tom")).authorities(WRITE))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{ \"title\": \"one more\", \"url\": \"https://example.com/bulk/9\" }"))
+                .andExpect(status().isCreated());
+    }
+}
@@ -0,0 +1,141 @@
+package com.johndoan.bookmarks.security;
+
+import com.johndoan.bookmarks.security.RateLimiter.Budget;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Plain unit tests for the token buckets, on a fake nanosecond clock that only
+ * moves when a test moves it.
+ */
+class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    /** Starts near the wrap-around point on purpose: nanoTime readings may be negative. */
+    private long now = Long.MAX_VALUE - 5 * SECOND;
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    /** Read: 3 at once, one back per second. Bulk: 10 at once, 5 back per second. */
+    private RateLimiter limiter(boolean enabled, int maxTrackedKeys) {
+        RateLimitProperties properties = new RateLimitProperties(enabled,
+                new RateLimitProperties.Limit(3L, 1.0), null,
+                new RateLimitProperties.Limit(10L, 5.0), maxTrackedKeys);
+        return new RateLimiter(properties, () -> now, registry);
+    }
+
+    @Test
+    void aFullBucketAllowsABurstThenRefillsAtTheRate() {
+        RateLimiter limiter = limiter(true, 100);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("ann", Budget.READ, 1));
+        }
+        // Empty: the next token is a whole second away.
+        assertEquals(SECOND, limiter.tryAcquire("ann", Budget.READ, 1));
+
+        now += SECOND / 2;
+        assertEquals(SECOND / 2, limiter.tryAcquire("ann", Budget.READ, 1));
+        now += SECOND / 2;
+        assertEquals(0, limiter.tryAcquire("ann", Budget.READ, 1));
+        assertTrue(limiter.tryAcquire("ann", Budget.READ, 1) > 0);
+
+        // A long pause refills it, but never beyond its capacity.
+        now += 60 * SECOND;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("ann", Budget.READ, 1));
+        }
+        assertTrue(limiter.tryAcquire("ann", Budget.READ, 1) > 0);
+
+        assertEquals(7, registry.counter("bookmarks.ratelimit.requests", "budget", "read", "outcome", "allowed")
+                .count());
+        assertEquals(4, registry.counter("bookmarks.ratelimit.requests", "budget", "read", "outcome", "rejected")
+                .count());
+    }
+
+    @Test
+    void subjectsAndBudgetsHaveSeparateBuckets() {
+        RateLimiter limiter = limiter(true, 100);
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("ann", Budget.READ, 1);
+        }
+
+        assertTrue(limiter.tryAcquire("ann", Budget.READ, 1) > 0);
+        assertEquals(0, limiter.tryAcquire("ben", Budget.READ, 1));
+        assertEquals(0, limiter.tryAcquire("ann", Budget.WRITE, 1));
+    }
+
+    @Test
+    void aChargeCanRunIntoDebtThatLaterRequestsWaitOut() {
+        RateLimiter limiter = limiter(true, 100);
+
+        // 30 rows written against a bucket of 10: 20 in debt, at 5 a second.
+        assertEquals(0, limiter.tryAcquire("ann", Budget.BULK, 0));
+        limiter.charge("ann", Budget.BULK, 30);
+        assertEquals(4 * SECOND, limiter.tryAcquire("ann", Budget.BULK, 0));
+
+        now += 4 * SECOND;
+        assertEquals(0, limiter.tryAcquire("ann", Budget.BULK, 0));
+        // Out of debt but still empty: nothing to spend yet.
+        assertTrue(limiter.tryAcquire("ann", Budget.BULK, 1) > 0);
+    }
+
+    @Test
+    void fullBucketsAreSweptOnceTooManyAreTracked() {
+        RateLimiter limiter = limiter(true, 2);
+        limiter.tryAcquire("ann", Budget.READ, 3);
+        limiter.tryAcquire("ben", Budget.READ, 1);
+        assertEquals(2, registry.get("bookmarks.ratelimit.keys").gauge().value());
+
+        // Ben's bucket has refilled, so it goes; Ann's is still empty and stays.
+        now += SECOND;
+        limiter.tryAcquire("cat", Budget.READ, 1);
+        assertEquals(2, registry.get("bookmarks.ratelimit.keys").gauge().value());
+        assertTrue(limiter.tryAcquire("ann", Budget.READ, 3) > 0);
+    }
+
+    @Test
+    void newKeysAreRefusedUntilASweepMakesRoomAndSweepsRunAtMostOnceASecond() {
+        RateLimiter limiter = limiter(true, 2);
+        limiter.tryAcquire("ann", Budget.READ, 1); // full again in 1 s
+        limiter.tryAcquire("ben", Budget.READ, 3); // full again in 3 s
+
+        // The sweep finds nothing full, so Cat isn't tracked; the next sweep is a second away.
+        now += SECOND / 2;
+        assertEquals(SECOND, limiter.tryAcquire("cat", Budget.READ, 1));
+
+        // Ann's bucket is full now, but it's too soon to sweep again.
+        now += SECOND / 2;
+        assertEquals(SECOND / 2, limiter.tryAcquire("dan", Budget.READ, 1));
+        assertEquals(2, registry.get("bookmarks.ratelimit.keys").gauge().value());
+
+        now += SECOND / 2;
+        assertEquals(0, limiter.tryAcquire("dan", Budget.READ, 1));
+        assertEquals(2, registry.get("bookmarks.ratelimit.keys").gauge().value());
+        assertTrue(limiter.tryAcquire("ben", Budget.READ, 3) > 0);
+    }
+
+    @Test
+    void disabledLimitsAllowEverything() {
+        RateLimiter limiter = limiter(false, 100);
+        limiter.charge("ann", Budget.BULK, 1_000_000);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0, limiter.tryAcquire("ann", Budget.READ, 1));
+        }
+        assertEquals(0, limiter.tryAcquire("ann", Budget.BULK, 0));
+    }
+
+    @Test
+    void aLimitNeedsAPositiveCapacityAndRate() {
+        RateLimitProperties properties = new RateLimitProperties(true,
+                new RateLimitProperties.Limit(0L, 1.0), null, null, null);
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(properties, () -> now, registry));
+    }
+}
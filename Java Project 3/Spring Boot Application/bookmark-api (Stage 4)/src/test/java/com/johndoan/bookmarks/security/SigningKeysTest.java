@@ -0,0 +1,101 @@
+package com.johndoan.bookmarks.security;
+
+import com.johndoan.bookmarks.security.SigningKeyProperties.SigningAlgorithm;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWK;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Plain unit tests for the signing key file: created once, reused on the next
+ * start, rotated by age or algorithm, and trimmed to the retained count.
+ */
+class SigningKeysTest {
+
+    private static final Instant START = Instant.parse("2025-01-01T00:00:00Z");
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    void theKeyIsGeneratedOnceAndReusedOnTheNextStart() {
+        Path file = dir.resolve("keys").resolve("signing-keys.json");
+        SigningKeys first = SigningKeys.load(properties(file, SigningAlgorithm.RS256), at(START));
+        assertTrue(Files.exists(file));
+
+        SigningKeys second = SigningKeys.load(properties(file, SigningAlgorithm.RS256), at(START.plusSeconds(60)));
+
+        assertEquals(first.signingKey().getKeyID(), second.signingKey().getKeyID());
+        assertTrue(second.signingKey().isPrivate());
+        assertEquals(1, second.jwkSet().getKeys().size());
+    }
+
+    @Test
+    void anOldKeyIsRotatedButStaysPublished() {
+        Path file = dir.resolve("signing-keys.json");
+        JWK old = SigningKeys.load(properties(file, SigningAlgorithm.RS256), at(START)).signingKey();
+
+        SigningKeys rotated = SigningKeys.load(properties(file, SigningAlgorithm.RS256),
+                at(START.plus(Duration.ofDays(31))));
+
+        assertNotEquals(old.getKeyID(), rotated.signingKey().getKeyID());
+        assertEquals(List.of(rotated.signingKey().getKeyID(), old.getKeyID()),
+                rotated.jwkSet().getKeys().stream().map(JWK::getKeyID).toList());
+    }
+
+    @Test
+    void switchingAlgorithmGeneratesAKeyForIt() {
+        Path file = dir.resolve("signing-keys.json");
+        SigningKeys.load(properties(file, SigningAlgorithm.RS256), at(START));
+
+        SigningKeys ec = SigningKeys.load(properties(file, SigningAlgorithm.ES256), at(START.plusSeconds(60)));
+
+        assertEquals(JWSAlgorithm.ES256, ec.signingKey().getAlgorithm());
+        assertEquals("ES256", ec.signatureAlgorithm().getName());
+        assertEquals(2, ec.jwkSet().getKeys().size());
+    }
+
+    @Test
+    void onlyTheNewestKeysAreRetained() {
+        Path file = dir.resolve("signing-keys.json");
+        for (int day = 0; day < 5; day++) {
+            // ES256: generating five RSA keys would slow the build down for nothing.
+            SigningKeys.load(properties(file, SigningAlgorithm.ES256), at(START.plus(Duration.ofDays(31L * day))));
+        }
+        SigningKeys keys = SigningKeys.load(properties(file, SigningAlgorithm.ES256), at(START.plus(Duration.ofDays(125))));
+
+        assertEquals(3, keys.jwkSet().getKeys().size());
+        assertEquals(START.plus(Duration.ofDays(124)), keys.signingKey().getIssueTime().toInstant());
+    }
+
+    @Test
+    void aBrokenKeyFileStopsStartupInsteadOfBeingReplaced() throws Exception {
+        Path file = dir.resolve("signing-keys.json");
+        Files.writeString(file, "{ not json");
+
+        assertThrows(IllegalStateException.class,
+                () -> SigningKeys.load(properties(file, SigningAlgorithm.RS256), at(START)));
+        assertEquals("{ not json", Files.readString(file));
+    }
+
+    private static SigningKeyProperties properties(Path file, SigningAlgorithm algorithm) {
+        return new SigningKeyProperties(file, algorithm, Duration.ofDays(30), 3);
+    }
+
+    private static Clock at(Instant instant) {
+        return Clock.fixed(instant, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,38 @@
+package com.johndoan.bookmarks.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+
+import java.sql.SQLIntegrityConstraintViolationException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Only a lost race on one of the unique constraints the service checks is a 409;
+ * any other integrity violation is the request's fault and retrying won't help.
+ */
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Test
+    void duplicateUrlOrTagIsAConflict() {
+        assertEquals(HttpStatus.CONFLICT, statusFor("Unique index or primary key violation: "
+                + "\"PUBLIC.UK_BOOKMARKS_OWNER_URL_HASH_INDEX_D ON PUBLIC.BOOKMARKS(OWNER, URL_HASH)\""));
+        assertEquals(HttpStatus.CONFLICT, statusFor("Unique index or primary key violation: "
+                + "\"PUBLIC.UK_TAGS_OWNER_NAME_INDEX_2 ON PUBLIC.TAGS(OWNER, NAME)\""));
+    }
+
+    @Test
+    void otherViolationsAreBadRequests() {
+        assertEquals(HttpStatus.BAD_REQUEST, statusFor("NULL not allowed for column \"TITLE\""));
+        assertEquals(HttpStatus.BAD_REQUEST, statusFor("Value too long for column \"NOTES CHARACTER VARYING(2000)\""));
+    }
+
+    private HttpStatus statusFor(String sqlMessage) {
+        DataIntegrityViolationException ex = new DataIntegrityViolationException("could not execute statement",
+                new SQLIntegrityConstraintViolationException(sqlMessage));
+        return HttpStatus.valueOf(handler.handleDataIntegrity(ex).getStatusCode().value());
+    }
+}